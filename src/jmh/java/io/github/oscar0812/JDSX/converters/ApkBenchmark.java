@@ -0,0 +1,35 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Apk}: converting the `classes*.dex` entries of an APK.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ApkBenchmark {
+
+    @Benchmark
+    public Map<String, byte[]> convertApkToClassBytes(BenchmarkInputs inputs) throws IOException {
+        return Apk.convertApkToClassBytes(inputs.apk, Parallel.defaultExecutor(), ClassFilter.all());
+    }
+
+    @Benchmark
+    public Path convertApkToSmali(BenchmarkInputs inputs) throws IOException {
+        return Apk.convertApkToSmali(inputs.apk, inputs.outputDir.resolve("apk-smali"));
+    }
+}
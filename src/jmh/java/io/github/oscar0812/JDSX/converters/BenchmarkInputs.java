@@ -0,0 +1,123 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The inputs of every benchmark, generated by the {@link CorpusGenerator} once per trial in every representation
+ * the converters accept.
+ * <ul>
+ *     <li>{@code SMALL}: a single class</li>
+ *     <li>{@code MEDIUM}: a jar of a few hundred classes</li>
+ *     <li>{@code LARGE}: more methods than fit into one DEX file, so D8 produces a multi-dex output</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class BenchmarkInputs {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public String size;
+
+    Path directory;
+    Map<String, String> javaSources;
+    Map<String, byte[]> classes;
+    Path classJar;
+    List<byte[]> dexFiles;
+    DexFiles dexFileSet;
+    Path apk;
+    /**
+     * The primary DEX file of {@link #dexFileSet}.
+     */
+    Path primaryDex;
+    /**
+     * The Smali code of the primary DEX file, so it can always be assembled into a single DEX file.
+     */
+    Map<String, String> smaliSources;
+    String firstSmali;
+    /**
+     * {@link #smaliSources} as files, one per class.
+     */
+    Path smaliDir;
+    /**
+     * The `.class` files of the classes in the primary DEX file, so they always fit into a single DEX file.
+     */
+    Path classDir;
+    /**
+     * The first source file, which only depends on the JDK and compiles on its own.
+     */
+    Path javaFile;
+    Path outputDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        switch (size) {
+            case "SMALL":
+                javaSources = CorpusGenerator.generateSources(1, 1);
+                break;
+            case "MEDIUM":
+                javaSources = CorpusGenerator.generateSources(200, 1);
+                break;
+            case "LARGE":
+                // about 30 methods per class exceed the 65536 method references of a single DEX file
+                javaSources = CorpusGenerator.generateSources(3000, 1);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown size: " + size);
+        }
+
+        directory = Files.createTempDirectory("jdsx-jmh-" + size.toLowerCase());
+        outputDir = directory.resolve("out");
+
+        classes = CorpusGenerator.compile(javaSources);
+        classJar = CorpusGenerator.writeJar(directory.resolve("classes.jar"), classes);
+
+        dexFiles = Class.convertClassBytesToDexFiles(classes);
+        Path dexDir = Files.createDirectories(directory.resolve("dex"));
+        Map<String, byte[]> dexEntries = new LinkedHashMap<>();
+        for (int i = 0; i < dexFiles.size(); i++) {
+            String name = i == 0 ? "classes.dex" : "classes" + (i + 1) + ".dex";
+            Files.write(dexDir.resolve(name), dexFiles.get(i));
+            dexEntries.put(name, dexFiles.get(i));
+        }
+        dexFileSet = DexFiles.scan(dexDir);
+        primaryDex = dexFileSet.getPrimary();
+        apk = CorpusGenerator.writeApk(directory.resolve("app.apk"), dexEntries);
+
+        smaliSources = new TreeMap<>(Dex.convertDexBytesToSmali(dexFiles.get(0), Parallel.defaultExecutor()));
+        firstSmali = smaliSources.values().iterator().next();
+
+        smaliDir = directory.resolve("smali");
+        classDir = directory.resolve("classes");
+        for (Map.Entry<String, String> entry : smaliSources.entrySet()) {
+            Path smaliFile = smaliDir.resolve(entry.getKey() + ".smali");
+            Files.createDirectories(smaliFile.getParent());
+            Files.writeString(smaliFile, entry.getValue());
+
+            Path classFile = classDir.resolve(entry.getKey() + ".class");
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, classes.get(entry.getKey()));
+        }
+
+        Map.Entry<String, String> firstSource = javaSources.entrySet().iterator().next();
+        javaFile = directory.resolve("java").resolve(firstSource.getKey());
+        Files.createDirectories(javaFile.getParent());
+        Files.writeString(javaFile, firstSource.getValue());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Class}: translating `.class` bytes and files with D8 and decompiling them with Fernflower.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ClassBenchmark {
+
+    @Benchmark
+    public List<byte[]> convertClassBytesToDexFiles(BenchmarkInputs inputs) throws IOException {
+        return Class.convertClassBytesToDexFiles(inputs.classes);
+    }
+
+    @Benchmark
+    public Path convertClassFilesToDex(BenchmarkInputs inputs) throws IOException {
+        return Class.convertClassFilesToDex(inputs.classDir);
+    }
+
+    @Benchmark
+    public Map<String, String> convertClassBytesToJava(BenchmarkInputs inputs) {
+        return Class.convertClassBytesToJava(inputs.classes);
+    }
+}
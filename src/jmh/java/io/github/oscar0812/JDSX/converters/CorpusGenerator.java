@@ -0,0 +1,348 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Synthesizes APK-scale inputs for benchmarks.
+ * <p>
+ * The classes are spread over packages and contain the constructs that dominate real apps and stress the converters:
+ * nested, inner and anonymous classes, lambdas and streams, large table and string switches, exception handlers,
+ * loops and references between classes. The sources are compiled through {@link Java#compileJavaToClassBytes(Map)}
+ * and translated with D8, so the corpus holds the same input in every representation the converters accept.
+ * The output is deterministic for a given class count and seed.
+ * </p>
+ * <pre>
+ * corpus/classes.jar
+ * corpus/dex/classes.dex, classes2.dex, ...
+ * corpus/app.apk
+ * </pre>
+ */
+public class CorpusGenerator {
+
+    private static final int CLASSES_PER_PACKAGE = 100;
+
+    private CorpusGenerator() {
+    }
+
+    /**
+     * Generates a corpus. Arguments: {@code <outputDir> [classCount] [seed]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CorpusGenerator <outputDir> [classCount] [seed]");
+            System.exit(2);
+        }
+        int classCount = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        long start = System.nanoTime();
+        Corpus corpus = generate(Paths.get(args[0]), classCount, seed);
+        System.out.println("Generated " + corpus.getClassCount() + " classes, " + corpus.getDexPaths().size() +
+                " dex files in " + (System.nanoTime() - start) / 1_000_000 + " ms: " + corpus.getDirectory());
+    }
+
+    /**
+     * Generates, compiles and writes a corpus, replacing the contents of {@code outputDir}.
+     *
+     * @param outputDir  the directory the corpus is written to
+     * @param classCount the number of top-level classes
+     * @param seed       the seed of the generated contents
+     * @return the written corpus
+     * @throws IllegalArgumentException if {@code classCount} is less than 1
+     * @throws CompilationException     if the generated sources do not compile
+     * @throws IOException              if D8 fails or the corpus cannot be written
+     */
+    public static Corpus generate(Path outputDir, int classCount, long seed) throws IOException {
+        Map<String, byte[]> classes = compile(generateSources(classCount, seed));
+
+        FileUtils.deleteDirectory(outputDir);
+        Path dexDir = Files.createDirectories(outputDir.resolve("dex"));
+        Path jar = writeJar(outputDir.resolve("classes.jar"), classes);
+
+        List<byte[]> dexFiles = Class.convertClassBytesToDexFiles(classes);
+        Map<String, byte[]> dexEntries = new TreeMap<>();
+        List<Path> dexPaths = new ArrayList<>(dexFiles.size());
+        for (int i = 0; i < dexFiles.size(); i++) {
+            String name = i == 0 ? "classes.dex" : "classes" + (i + 1) + ".dex";
+            dexEntries.put(name, dexFiles.get(i));
+            dexPaths.add(Files.write(dexDir.resolve(name), dexFiles.get(i)));
+        }
+        Path apk = writeApk(outputDir.resolve("app.apk"), dexEntries);
+
+        return new Corpus(outputDir, classes.size(), jar, dexPaths, apk);
+    }
+
+    /**
+     * Compiles generated sources.
+     *
+     * @return the `.class` bytes keyed by internal class name
+     * @throws CompilationException if the sources do not compile
+     */
+    static Map<String, byte[]> compile(Map<String, String> sources) throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes(sources);
+        if (!result.isSuccess()) {
+            throw new CompilationException(result.getDiagnostics());
+        }
+        return result.getClasses();
+    }
+
+    /**
+     * Generates the Java sources of a corpus.
+     *
+     * @param classCount the number of top-level classes
+     * @param seed       the seed of the generated contents
+     * @return the sources keyed by file name (e.g. {@code corpus/pkg0/Class0.java})
+     * @throws IllegalArgumentException if {@code classCount} is less than 1
+     */
+    static Map<String, String> generateSources(int classCount, long seed) {
+        if (classCount < 1) {
+            throw new IllegalArgumentException("Class count must be at least 1.");
+        }
+
+        Map<String, String> sources = new TreeMap<>();
+        for (int c = 0; c < classCount; c++) {
+            String packageName = "corpus.pkg" + c / CLASSES_PER_PACKAGE;
+            sources.put(packageName.replace('.', '/') + "/Class" + c + ".java",
+                    generateClass(packageName, c, new Random(seed * 1_000_003 + c)));
+        }
+        return sources;
+    }
+
+    private static String generateClass(String packageName, int index, Random random) {
+        String name = "Class" + index;
+        // classes reference their predecessor in the same package
+        String previous = index % CLASSES_PER_PACKAGE == 0 ? null : "Class" + (index - 1);
+
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(packageName).append(";\n\n")
+                .append("import java.util.ArrayList;\n")
+                .append("import java.util.HashMap;\n")
+                .append("import java.util.List;\n")
+                .append("import java.util.Map;\n")
+                .append("import java.util.function.Function;\n")
+                .append("import java.util.stream.Collectors;\n\n")
+                .append("public class ").append(name).append(" implements Comparable<").append(name).append("> {\n\n")
+                .append("    public enum Mode { FAST, SAFE, DEBUG }\n\n")
+                .append("    private final Map<String, Integer> counts = new HashMap<>();\n")
+                .append("    private final List<Item> items = new ArrayList<>();\n")
+                .append("    private Mode mode = Mode.values()[").append(random.nextInt(3)).append("];\n")
+                .append("    private int state;\n\n");
+
+        // nested and inner classes
+        source.append("    public static class Item {\n")
+                .append("        final String name;\n")
+                .append("        final int weight;\n\n")
+                .append("        Item(String name, int weight) {\n")
+                .append("            this.name = name;\n")
+                .append("            this.weight = weight;\n")
+                .append("        }\n\n")
+                .append("        int score(int factor) {\n")
+                .append("            return weight * factor + name.length();\n")
+                .append("        }\n")
+                .append("    }\n\n")
+                .append("    class Listener implements Runnable {\n")
+                .append("        @Override\n")
+                .append("        public void run() {\n")
+                .append("            state += counts.getOrDefault(\"events\", 0);\n")
+                .append("        }\n")
+                .append("    }\n\n")
+                .append("    public ").append(name).append("(int seed) {\n")
+                .append("        this.state = seed;\n")
+                .append("    }\n\n");
+
+        // a large table switch
+        int cases = 50 + random.nextInt(250);
+        source.append("    public String dispatch(int op) {\n")
+                .append("        switch (op) {\n");
+        for (int i = 0; i < cases; i++) {
+            source.append("            case ").append(i).append(": ");
+            if (i % 3 == 0) {
+                source.append("state += ").append(random.nextInt(1000)).append("; return \"op").append(i).append("\";\n");
+            } else {
+                source.append("return \"op").append(i).append(":\" + (state ^ ").append(random.nextInt()).append(");\n");
+            }
+        }
+        source.append("            default: return \"unknown:\" + op;\n")
+                .append("        }\n")
+                .append("    }\n\n");
+
+        // a string switch
+        int keys = 10 + random.nextInt(30);
+        source.append("    public int lookup(String key) {\n")
+                .append("        switch (key) {\n");
+        for (int i = 0; i < keys; i++) {
+            source.append("            case \"key").append(i).append("\": return ").append(random.nextInt(10_000)).append(";\n");
+        }
+        source.append("            default: return -1;\n")
+                .append("        }\n")
+                .append("    }\n\n");
+
+        // lambdas, method references and streams
+        source.append("    public List<String> process(List<String> input) {\n")
+                .append("        Function<String, Item> toItem = value -> new Item(value, value.length() + state);\n")
+                .append("        return input.stream()\n")
+                .append("                .map(toItem)\n")
+                .append("                .filter(item -> item.score(").append(1 + random.nextInt(9)).append(") > ")
+                .append(random.nextInt(100)).append(")\n")
+                .append("                .sorted((a, b) -> Integer.compare(a.weight, b.weight))\n")
+                .append("                .map(item -> item.name)\n")
+                .append("                .collect(Collectors.toList());\n")
+                .append("    }\n\n");
+
+        // anonymous classes
+        source.append("    public Runnable callback() {\n")
+                .append("        return new Runnable() {\n")
+                .append("            @Override\n")
+                .append("            public void run() {\n")
+                .append("                counts.merge(\"calls\", 1, Integer::sum);\n")
+                .append("                new Listener().run();\n")
+                .append("            }\n")
+                .append("        };\n")
+                .append("    }\n\n");
+
+        // exception handlers
+        source.append("    public int recover(String value) {\n")
+                .append("        try {\n")
+                .append("            return Integer.parseInt(value) * ").append(1 + random.nextInt(7)).append(";\n")
+                .append("        } catch (NumberFormatException e) {\n")
+                .append("            items.add(new Item(value, state));\n")
+                .append("            return mode == Mode.SAFE ? 0 : state;\n")
+                .append("        } finally {\n")
+                .append("            state++;\n")
+                .append("        }\n")
+                .append("    }\n\n");
+
+        if (previous != null) {
+            source.append("    public int link(").append(previous).append(" other) {\n")
+                    .append("        return other.lookup(\"key").append(random.nextInt(10)).append("\") + other.dispatch(state).length();\n")
+                    .append("    }\n\n");
+        }
+
+        // plain arithmetic methods with loops
+        int methods = 5 + random.nextInt(16);
+        for (int m = 0; m < methods; m++) {
+            source.append("    public int compute").append(m).append("(int value) {\n")
+                    .append("        int result = value;\n")
+                    .append("        for (int i = 0; i < ").append(3 + random.nextInt(20)).append("; i++) {\n")
+                    .append("            result = result * 31 + (i ^ state);\n")
+                    .append("            if (result % ").append(2 + random.nextInt(11)).append(" == 0) {\n")
+                    .append("                result -= ").append(random.nextInt(100)).append(";\n")
+                    .append("            }\n")
+                    .append("        }\n")
+                    .append("        return result;\n")
+                    .append("    }\n\n");
+        }
+
+        source.append("    @Override\n")
+                .append("    public int compareTo(").append(name).append(" other) {\n")
+                .append("        return Integer.compare(state, other.state);\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    static Path writeJar(Path jarPath, Map<String, byte[]> classes) throws IOException {
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarPath))) {
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                jar.putNextEntry(new JarEntry(entry.getKey() + ".class"));
+                jar.write(entry.getValue());
+                jar.closeEntry();
+            }
+        }
+        return jarPath;
+    }
+
+    static Path writeApk(Path apkPath, Map<String, byte[]> dexEntries) throws IOException {
+        try (OutputStream file = Files.newOutputStream(apkPath); ZipOutputStream apk = new ZipOutputStream(file)) {
+            apk.putNextEntry(new ZipEntry("AndroidManifest.xml"));
+            apk.closeEntry();
+            for (Map.Entry<String, byte[]> entry : dexEntries.entrySet()) {
+                apk.putNextEntry(new ZipEntry(entry.getKey()));
+                apk.write(entry.getValue());
+                apk.closeEntry();
+            }
+        }
+        return apkPath;
+    }
+
+    /**
+     * A generated corpus on disk.
+     */
+    public static class Corpus {
+        private final Path directory;
+        private final int classCount;
+        private final Path classJar;
+        private final List<Path> dexPaths;
+        private final Path apk;
+
+        Corpus(Path directory, int classCount, Path classJar, List<Path> dexPaths, Path apk) {
+            this.directory = directory;
+            this.classCount = classCount;
+            this.classJar = classJar;
+            this.dexPaths = dexPaths;
+            this.apk = apk;
+        }
+
+        /**
+         * Opens a corpus written by {@link #generate(Path, int, long)}.
+         *
+         * @throws IOException if the directory does not hold a corpus
+         */
+        static Corpus open(Path directory) throws IOException {
+            Path jar = directory.resolve("classes.jar");
+            Path apk = directory.resolve("app.apk");
+            FileUtils.validateFilePath(jar, "Corpus JAR path");
+            FileUtils.validateFilePath(apk, "Corpus APK path");
+            DexFiles dexFiles = DexFiles.scan(directory.resolve("dex"));
+            return new Corpus(directory, Jar.readClasses(jar).size(), jar, dexFiles.getPaths(), apk);
+        }
+
+        /**
+         * @return the directory holding the corpus
+         */
+        public Path getDirectory() {
+            return directory;
+        }
+
+        /**
+         * @return the number of classes, including nested, inner and anonymous classes
+         */
+        public int getClassCount() {
+            return classCount;
+        }
+
+        /**
+         * @return the JAR of the compiled classes
+         */
+        public Path getClassJar() {
+            return classJar;
+        }
+
+        /**
+         * @return the DEX files, ordered by file index
+         */
+        public List<Path> getDexPaths() {
+            return dexPaths;
+        }
+
+        /**
+         * @return an APK holding the DEX files
+         */
+        public Path getApk() {
+            return apk;
+        }
+    }
+}
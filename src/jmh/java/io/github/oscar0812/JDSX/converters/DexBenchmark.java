@@ -0,0 +1,63 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Dex}: disassembling with baksmali and translating with dex2jar, for every DEX file of the input.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DexBenchmark {
+
+    @Benchmark
+    public int convertDexBytesToSmali(BenchmarkInputs inputs) {
+        int classCount = 0;
+        for (byte[] dexBytes : inputs.dexFiles) {
+            classCount += Dex.convertDexBytesToSmali(dexBytes, Parallel.defaultExecutor()).size();
+        }
+        return classCount;
+    }
+
+    @Benchmark
+    public int convertDexBytesToClassBytes(BenchmarkInputs inputs) throws IOException {
+        int classCount = 0;
+        for (byte[] dexBytes : inputs.dexFiles) {
+            classCount += Dex.convertDexBytesToClassBytes(dexBytes).size();
+        }
+        return classCount;
+    }
+
+    @Benchmark
+    public Path convertDexToSmali(BenchmarkInputs inputs) throws IOException {
+        return Dex.convertDexToSmali(inputs.primaryDex);
+    }
+
+    @Benchmark
+    public Path convertDexToJava(BenchmarkInputs inputs) throws IOException {
+        return Dex.convertDexToJava(inputs.primaryDex);
+    }
+
+    @Benchmark
+    public Map<String, byte[]> convertDexFilesToClassBytes(BenchmarkInputs inputs) throws IOException {
+        return Dex.convertDexFilesToClassBytes(inputs.dexFileSet, Parallel.defaultExecutor());
+    }
+
+    @Benchmark
+    public Path convertDexFilesToSmali(BenchmarkInputs inputs) throws IOException {
+        return Dex.convertDexFilesToSmali(inputs.dexFileSet, inputs.outputDir.resolve("dex-smali"), Parallel.defaultExecutor());
+    }
+}
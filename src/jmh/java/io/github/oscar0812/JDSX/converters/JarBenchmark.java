@@ -0,0 +1,40 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Jar}: reading, extracting and decompiling a JAR of `.class` files.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JarBenchmark {
+
+    @Benchmark
+    public Map<String, byte[]> readClasses(BenchmarkInputs inputs) throws IOException {
+        return Jar.readClasses(inputs.classJar);
+    }
+
+    @Benchmark
+    public Path extractJar(BenchmarkInputs inputs) throws IOException {
+        return Jar.extractJar(inputs.classJar);
+    }
+
+    @Benchmark
+    public Path convertClassJarToJava(BenchmarkInputs inputs) throws IOException {
+        return Jar.convertClassJarToJava(inputs.classJar);
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Java}: compiling sources in memory, and the file based Java to Smali path for a single class.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JavaBenchmark {
+
+    @Benchmark
+    public CompilationResult compileJavaToClassBytes(BenchmarkInputs inputs) throws IOException {
+        return Java.compileJavaToClassBytes(inputs.javaSources);
+    }
+
+    @Benchmark
+    public Path convertJavaToSmali(BenchmarkInputs inputs) throws Exception {
+        return Java.convertJavaToSmali(inputs.javaFile);
+    }
+}
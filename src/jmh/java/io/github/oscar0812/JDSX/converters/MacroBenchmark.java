@@ -0,0 +1,185 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs full conversion pipelines on a {@link CorpusGenerator corpus} and reports their throughput and memory use.
+ * <p>
+ * Every pipeline runs in a fresh JVM started with the same options as this one, so the peak resident set size
+ * ({@code VmHWM}) belongs to that pipeline alone and the timings include class loading and JIT warm-up, like a real
+ * job would. The conversions go through {@link Batch}, the same path as the command line.
+ * </p>
+ * Arguments: {@code <corpusDir> <reportFile> [pipeline...]}, by default every pipeline is run.
+ */
+public class MacroBenchmark {
+
+    private static final Map<String, Pipeline> PIPELINES = new LinkedHashMap<>();
+
+    static {
+        PIPELINES.put("apk-to-java", new Pipeline(TargetFormat.JAVA, corpus -> List.of(corpus.getApk())));
+        PIPELINES.put("apk-to-smali", new Pipeline(TargetFormat.SMALI, corpus -> List.of(corpus.getApk())));
+        PIPELINES.put("dex-to-classes", new Pipeline(TargetFormat.CLASSES, CorpusGenerator.Corpus::getDexPaths));
+        PIPELINES.put("jar-to-dex", new Pipeline(TargetFormat.DEX, corpus -> List.of(corpus.getClassJar())));
+        PIPELINES.put("jar-to-java", new Pipeline(TargetFormat.JAVA, corpus -> List.of(corpus.getClassJar())));
+    }
+
+    private MacroBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && "--run".equals(args[0])) {
+            // a forked pipeline run: --run <pipeline> <corpusDir>
+            System.out.println(run(args[1], Paths.get(args[2])));
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: MacroBenchmark <corpusDir> <reportFile> [" +
+                    String.join("|", PIPELINES.keySet()) + "]...");
+            System.exit(2);
+        }
+
+        Path corpusDir = Paths.get(args[0]);
+        Path reportFile = Paths.get(args[1]);
+        List<String> pipelines = args.length > 2 ? Arrays.asList(args).subList(2, args.length)
+                : new ArrayList<>(PIPELINES.keySet());
+
+        List<String> results = new ArrayList<>();
+        for (String pipeline : pipelines) {
+            if (!PIPELINES.containsKey(pipeline)) {
+                throw new IllegalArgumentException("Unknown pipeline: " + pipeline);
+            }
+            String result = fork(pipeline, corpusDir);
+            System.out.println(result);
+            results.add(result);
+        }
+
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, "[" + String.join(",\n", results) + "]\n");
+        System.out.println("Macro-benchmark report: " + reportFile);
+    }
+
+    /**
+     * Runs a pipeline in a new JVM with the options and class path of this one.
+     *
+     * @return the JSON result printed by the forked JVM
+     */
+    private static String fork(String pipeline, Path corpusDir) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MacroBenchmark.class.getName());
+        command.add("--run");
+        command.add(pipeline);
+        command.add(corpusDir.toAbsolutePath().toString());
+
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IOException("Pipeline " + pipeline + " failed with exit code " + process.exitValue());
+        }
+
+        return output.strip();
+    }
+
+    /**
+     * Runs a pipeline in this JVM.
+     *
+     * @return the result as a JSON object
+     */
+    static String run(String name, Path corpusDir) throws IOException {
+        Pipeline pipeline = PIPELINES.get(name);
+        if (pipeline == null) {
+            throw new IllegalArgumentException("Unknown pipeline: " + name);
+        }
+
+        CorpusGenerator.Corpus corpus = CorpusGenerator.Corpus.open(corpusDir);
+        List<Path> inputs = pipeline.inputs.apply(corpus);
+        Path outputDir = Files.createTempDirectory("jdsx-macro-" + name);
+        try {
+            long inputBytes = 0;
+            for (Path input : inputs) {
+                inputBytes += Files.size(input);
+            }
+
+            long start = System.nanoTime();
+            BatchReport report = Batch.convert(inputs, pipeline.target, outputDir, ForkJoinPool.commonPool());
+            long elapsedNanos = System.nanoTime() - start;
+            if (!report.isSuccess()) {
+                throw new IOException("Pipeline " + name + " failed: " + report.getFailed().get(0).getFailure(),
+                        report.getFailed().get(0).getFailure());
+            }
+
+            List<Path> outputFiles = listFiles(outputDir);
+            long outputBytes = 0;
+            for (Path file : outputFiles) {
+                outputBytes += Files.size(file);
+            }
+
+            double seconds = elapsedNanos / 1e9;
+            return "{\"pipeline\":" + Json.quote(name) +
+                    ",\"classes\":" + corpus.getClassCount() +
+                    ",\"elapsedMillis\":" + elapsedNanos / 1_000_000 +
+                    ",\"inputBytes\":" + inputBytes +
+                    ",\"outputFiles\":" + outputFiles.size() +
+                    ",\"outputBytes\":" + outputBytes +
+                    ",\"filesPerSecond\":" + String.format(Locale.ROOT, "%.1f", outputFiles.size() / seconds) +
+                    ",\"inputMegabytesPerSecond\":" + String.format(Locale.ROOT, "%.3f", inputBytes / 1e6 / seconds) +
+                    ",\"peakRssKilobytes\":" + peakRssKilobytes() + "}";
+        } finally {
+            FileUtils.deleteDirectory(outputDir);
+        }
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            return stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return the peak resident set size of this process in kilobytes, or -1 if the platform does not report it
+     */
+    static long peakRssKilobytes() {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.substring("VmHWM:".length()).replace("kB", "").strip());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    private static class Pipeline {
+        final TargetFormat target;
+        final Function<CorpusGenerator.Corpus, List<Path>> inputs;
+
+        Pipeline(TargetFormat target, Function<CorpusGenerator.Corpus, List<Path>> inputs) {
+            this.target = target;
+            this.inputs = inputs;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Smali}: assembling the Smali code of the primary DEX file in memory and from files, and the full
+ * Smali to Java path for a single class.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SmaliBenchmark {
+
+    @Benchmark
+    public byte[] assembleSmaliToDex(BenchmarkInputs inputs) {
+        return Smali.assembleSmaliToDex(inputs.smaliSources, Parallel.defaultExecutor());
+    }
+
+    @Benchmark
+    public Path convertSmaliToDex(BenchmarkInputs inputs) throws IOException {
+        return Smali.convertSmaliToDex(inputs.smaliDir);
+    }
+
+    @Benchmark
+    public Path convertSmaliToJava(BenchmarkInputs inputs) throws IOException {
+        return Smali.convertSmaliToJava(inputs.firstSmali);
+    }
+}
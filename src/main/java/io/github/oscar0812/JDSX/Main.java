@@ -0,0 +1,269 @@
+package io.github.oscar0812.JDSX;
+
+import io.github.oscar0812.JDSX.converters.Batch;
+import io.github.oscar0812.JDSX.converters.BatchReport;
+import io.github.oscar0812.JDSX.converters.ConversionDaemon;
+import io.github.oscar0812.JDSX.converters.Metrics;
+import io.github.oscar0812.JDSX.converters.TargetFormat;
+import io.github.oscar0812.JDSX.converters.WarmUp;
+import io.github.oscar0812.JDSX.converters.WarmUpReport;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The command-line entry point of the jar.
+ * <p>
+ * Converts any number of inputs in a single JVM, so the converters are loaded and JIT-compiled once for the whole list
+ * instead of once per file. Prints the {@link BatchReport#toJson() batch report} as the timing summary and exits with 1
+ * if any input failed.
+ * </p>
+ * The {@code jdsx} launcher is built by {@code gradle installDist}:
+ * <pre>
+ * jdsx --target java --output out --jobs 8 app.apk lib.jar classes.dex
+ * jdsx --target smali --output out --input-list inputs.txt
+ * jdsx daemon --port 7655
+ * jdsx warm-up --iterations 3
+ * </pre>
+ */
+public class Main {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: jdsx --target <java|smali|classes|dex> --output <dir> [options] <input>...",
+            "       jdsx daemon [--port N] [--max-concurrent N] [--max-queued N]",
+            "       jdsx warm-up [--iterations N]",
+            "",
+            "Inputs may be DEX, JAR, APK, .class, .smali or .java files, or directories of .class files.",
+            "",
+            "Options:",
+            "  -t, --target <format>     the format to convert to",
+            "  -o, --output <dir>        the directory the outputs are written below, one directory per input",
+            "  -j, --jobs <n>            the number of conversion threads (default: available processors)",
+            "  -l, --input-list <file>   read further inputs from a file, one path per line, '-' for stdin",
+            "  -r, --report <file>       write the JSON summary to a file instead of stdout",
+            "  -m, --metrics <file>      write the per-stage metrics as JSON to a file",
+            "  -h, --help                print this help");
+
+    private Main() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "daemon".equals(args[0])) {
+            ConversionDaemon.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs a batch conversion or the warm-up.
+     *
+     * @return the exit code
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length > 0 && "warm-up".equals(args[0])) {
+            return warmUp(Arrays.copyOfRange(args, 1, args.length), out, err);
+        }
+
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException | IOException e) {
+            err.println("jdsx: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (options.help) {
+            out.println(USAGE);
+            return EXIT_OK;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(options.jobs);
+        BatchReport report;
+        try {
+            report = Batch.convert(options.inputs, options.target, options.outputDir, pool);
+        } catch (IOException e) {
+            err.println("jdsx: " + e.getMessage());
+            return EXIT_FAILED;
+        } finally {
+            pool.shutdown();
+        }
+
+        for (BatchReport.Result result : report.getFailed()) {
+            err.println("jdsx: " + result.getInput() + ": " + result.getFailure());
+        }
+
+        if (options.metricsPath != null) {
+            try {
+                Files.writeString(options.metricsPath, Metrics.getRegistry().toJson() + System.lineSeparator());
+            } catch (IOException e) {
+                err.println("jdsx: cannot write metrics: " + e.getMessage());
+                return EXIT_FAILED;
+            }
+        }
+
+        String json = report.toJson();
+        if (options.reportPath == null) {
+            out.println(json);
+        } else {
+            try {
+                Files.writeString(options.reportPath, json + System.lineSeparator());
+            } catch (IOException e) {
+                err.println("jdsx: cannot write report: " + e.getMessage());
+                return EXIT_FAILED;
+            }
+        }
+        return report.isSuccess() ? EXIT_OK : EXIT_FAILED;
+    }
+
+    /**
+     * Runs the synthetic warm-up conversion and prints its report, e.g. as the training run of a class data sharing
+     * archive.
+     */
+    private static int warmUp(String[] args, PrintStream out, PrintStream err) {
+        int iterations = 1;
+        try {
+            if (args.length == 2 && "--iterations".equals(args[0])) {
+                iterations = Options.parsePositive(args[1], "iterations");
+            } else if (args.length != 0) {
+                throw new IllegalArgumentException("unknown warm-up arguments: " + String.join(" ", args));
+            }
+        } catch (IllegalArgumentException e) {
+            err.println("jdsx: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        WarmUpReport report = WarmUp.run(iterations);
+        for (WarmUpReport.Stage stage : report.getStages()) {
+            if (!stage.isSuccess()) {
+                err.println("jdsx: warm-up stage " + stage.getName() + ": " + stage.getFailure());
+            }
+        }
+        out.println(report.toJson());
+        return report.isSuccess() ? EXIT_OK : EXIT_FAILED;
+    }
+
+    /**
+     * The parsed command line.
+     */
+    static class Options {
+        TargetFormat target;
+        Path outputDir;
+        int jobs = Runtime.getRuntime().availableProcessors();
+        Path reportPath;
+        Path metricsPath;
+        boolean help;
+        final List<Path> inputs = new ArrayList<>();
+
+        static Options parse(String[] args) throws IOException {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "-h":
+                    case "--help":
+                        options.help = true;
+                        return options;
+                    case "-t":
+                    case "--target":
+                        options.target = parseTarget(value(args, ++i, arg));
+                        break;
+                    case "-o":
+                    case "--output":
+                        options.outputDir = Paths.get(value(args, ++i, arg));
+                        break;
+                    case "-j":
+                    case "--jobs":
+                        options.jobs = parsePositive(value(args, ++i, arg), "jobs");
+                        break;
+                    case "-l":
+                    case "--input-list":
+                        options.inputs.addAll(readInputList(value(args, ++i, arg)));
+                        break;
+                    case "-r":
+                    case "--report":
+                        options.reportPath = Paths.get(value(args, ++i, arg));
+                        break;
+                    case "-m":
+                    case "--metrics":
+                        options.metricsPath = Paths.get(value(args, ++i, arg));
+                        break;
+                    default:
+                        if (arg.startsWith("-") && arg.length() > 1) {
+                            throw new IllegalArgumentException("unknown option: " + arg);
+                        }
+                        options.inputs.add(Paths.get(arg));
+                }
+            }
+
+            if (options.target == null) {
+                throw new IllegalArgumentException("missing --target");
+            }
+            if (options.outputDir == null) {
+                throw new IllegalArgumentException("missing --output");
+            }
+            if (options.inputs.isEmpty()) {
+                throw new IllegalArgumentException("no inputs given");
+            }
+            return options;
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("missing value for " + option);
+            }
+            return args[index];
+        }
+
+        private static TargetFormat parseTarget(String value) {
+            try {
+                return TargetFormat.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown target format: " + value);
+            }
+        }
+
+        static int parsePositive(String value, String name) {
+            int number;
+            try {
+                number = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid number of " + name + ": " + value);
+            }
+            if (number < 1) {
+                throw new IllegalArgumentException("the number of " + name + " must be at least 1");
+            }
+            return number;
+        }
+
+        private static List<Path> readInputList(String listPath) throws IOException {
+            List<String> lines = "-".equals(listPath)
+                    ? Arrays.asList(new String(System.in.readAllBytes(), StandardCharsets.UTF_8).split("\\R"))
+                    : Files.readAllLines(Paths.get(listPath));
+
+            List<Path> inputs = new ArrayList<>();
+            for (String line : lines) {
+                String trimmed = line.strip();
+                if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                    inputs.add(Paths.get(trimmed));
+                }
+            }
+            return inputs;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Utility class for converting APK files.
+ * <p>
+ * The `classes.dex`, `classes2.dex`, ... entries are read straight out of the APK, resources and assets are
+ * never extracted. All DEX files are converted in parallel into one merged output tree.
+ * </p>
+ */
+public class Apk {
+
+    /**
+     * Reads the `classes*.dex` entries of an APK file into memory.
+     *
+     * @param apkPath the path to the APK file
+     * @return the DEX bytes keyed by entry name, ordered by file index (`classes.dex`, `classes2.dex`, ...)
+     * @throws IllegalArgumentException if {@code apkPath} is null or the APK does not contain `classes.dex`
+     * @throws IOException              if the file does not exist or cannot be read
+     */
+    public static Map<String, byte[]> readDexFiles(Path apkPath) throws IOException {
+        FileUtils.validateFilePath(apkPath, "APK path");
+
+        JarIndex index = JarIndex.open(apkPath);
+        Map<String, byte[]> dexFiles = new TreeMap<>(Comparator.comparingInt(DexFiles::fileIndex));
+        try (JarIndex.Reader reader = index.newReader()) {
+            for (JarIndex.Entry entry : findDexEntries(index)) {
+                dexFiles.put(entry.getName(), reader.read(entry));
+            }
+        }
+        return dexFiles;
+    }
+
+    /**
+     * Converts all DEX files of an APK to Smali files in a sibling folder named `smali_out`.
+     * APK -> Dex -> Smali
+     *
+     * @param apkPath the path to the APK file
+     * @return the path to the directory containing the generated Smali files
+     * @throws IllegalArgumentException if {@code apkPath} is null or the APK does not contain `classes.dex`
+     * @throws RuntimeException         if an error occurs during the conversion
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertApkToSmali(Path apkPath) throws IOException {
+        FileUtils.validateFilePath(apkPath, "APK path");
+
+        return convertApkToSmali(apkPath, FileUtils.getSiblingDirectory(apkPath, "smali_out"));
+    }
+
+    /**
+     * Converts all DEX files of an APK to Smali files in the given directory.
+     * APK -> Dex -> Smali
+     *
+     * @param apkPath   the path to the APK file
+     * @param outputDir the directory where the Smali files will be written
+     * @return the path to the directory containing the generated Smali files
+     * @throws IllegalArgumentException if {@code apkPath} or {@code outputDir} is null
+     *                                  or the APK does not contain `classes.dex`
+     * @throws RuntimeException         if an error occurs during the conversion
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertApkToSmali(Path apkPath, Path outputDir) throws IOException {
+        return convertApkToSmali(apkPath, outputDir, Parallel.defaultExecutor(), ClassFilter.all());
+    }
+
+    /**
+     * Converts the classes of an APK accepted by a filter to Smali files in the given directory.
+     * The DEX files are read and disassembled one after another on the calling thread, so only one DEX file is in
+     * memory, and the classes of each are disassembled in parallel on the executor.
+     * APK -> Dex -> Smali
+     *
+     * @param apkPath   the path to the APK file
+     * @param outputDir the directory where the Smali files will be written
+     * @param executor  the executor the classes are disassembled on
+     * @param filter    selects the classes to disassemble
+     * @return the path to the directory containing the generated Smali files
+     * @throws IllegalArgumentException if any argument is null or the APK does not contain `classes.dex`
+     * @throws RuntimeException         if an error occurs during the conversion
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertApkToSmali(Path apkPath, Path outputDir, Executor executor, ClassFilter filter)
+            throws IOException {
+        JarIndex index = openApk(apkPath, outputDir, executor, filter);
+
+        return ConversionCache.cached(ConversionCache.conversion("apk-to-smali", filter), readDexFilesForCache(index),
+                outputDir, output -> {
+                    Files.createDirectories(output);
+                    SmaliFileNames fileNames = new SmaliFileNames();
+                    forEachDexFile(index, (name, dexBytes) ->
+                            Dex.writeSmali(dexBytes, executor, filter, output, fileNames));
+                });
+    }
+
+    /**
+     * Converts the classes of an APK accepted by a filter to `.class` bytes.
+     * The DEX files are read and translated in parallel and their classes merged.
+     * APK -> Dex -> Class
+     *
+     * @param apkPath  the path to the APK file
+     * @param executor the executor the DEX files are translated on
+     * @param filter   selects the classes to convert
+     * @return the `.class` bytes keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IllegalArgumentException if any argument is null or the APK does not contain `classes.dex`
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Map<String, byte[]> convertApkToClassBytes(Path apkPath, Executor executor, ClassFilter filter)
+            throws IOException {
+        FileUtils.validateFilePath(apkPath, "APK path");
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+
+        return convertApkToClassBytes(JarIndex.open(apkPath), executor, filter);
+    }
+
+    private static Map<String, byte[]> convertApkToClassBytes(JarIndex index, Executor executor, ClassFilter filter)
+            throws IOException {
+        Map<String, byte[]> classes = new ConcurrentHashMap<>();
+        forEachDexFile(index, executor, (name, dexBytes) -> Dex.convertDexBytesToClassBytes(dexBytes, filter, classes::put));
+        return new TreeMap<>(classes);
+    }
+
+    /**
+     * Converts all DEX files of an APK to Java source code in a sibling folder named `java_out`.
+     * APK -> Dex -> Class -> Java
+     *
+     * @param apkPath the path to the APK file
+     * @return the path to the directory containing the generated Java source files
+     * @throws IllegalArgumentException if {@code apkPath} is null or the APK does not contain `classes.dex`
+     * @throws IOException              if an error occurs during the conversion process
+     */
+    public static Path convertApkToJava(Path apkPath) throws IOException {
+        FileUtils.validateFilePath(apkPath, "APK path");
+
+        return convertApkToJava(apkPath, FileUtils.getSiblingDirectory(apkPath, "java_out"));
+    }
+
+    /**
+     * Converts all DEX files of an APK to Java source code in the given directory.
+     * APK -> Dex -> Class -> Java
+     *
+     * @param apkPath   the path to the APK file
+     * @param outputDir the directory where the `.java` files will be written
+     * @return the path to the directory containing the generated Java source files
+     * @throws IllegalArgumentException if {@code apkPath} or {@code outputDir} is null
+     *                                  or the APK does not contain `classes.dex`
+     * @throws IOException              if an error occurs during the conversion process
+     */
+    public static Path convertApkToJava(Path apkPath, Path outputDir) throws IOException {
+        return convertApkToJava(apkPath, outputDir, Parallel.defaultExecutor(), ClassFilter.all());
+    }
+
+    /**
+     * Converts the classes of an APK accepted by a filter to Java source code in the given directory.
+     * The DEX files are translated in parallel and all classes are decompiled together,
+     * so classes that reference each other across DEX files are resolved.
+     * APK -> Dex -> Class -> Java
+     *
+     * @param apkPath   the path to the APK file
+     * @param outputDir the directory where the `.java` files will be written
+     * @param executor  the executor the DEX files are translated and the classes decompiled on
+     * @param filter    selects the classes to convert
+     * @return the path to the directory containing the generated Java source files
+     * @throws IllegalArgumentException if any argument is null or the APK does not contain `classes.dex`
+     * @throws IOException              if an error occurs during the conversion process
+     */
+    public static Path convertApkToJava(Path apkPath, Path outputDir, Executor executor, ClassFilter filter)
+            throws IOException {
+        JarIndex index = openApk(apkPath, outputDir, executor, filter);
+
+        return ConversionCache.cached(ConversionCache.conversion("apk-to-java", filter), readDexFilesForCache(index),
+                outputDir, output -> {
+                    Map<String, byte[]> classes = convertApkToClassBytes(index, executor, filter);
+                    if (classes.isEmpty()) {
+                        // the filter rejected every class
+                        Files.createDirectories(output);
+                    } else {
+                        Map<String, String> sources = Class.convertClassBytesToJava(classes, executor, Parallel.defaultParallelism());
+                        FileUtils.writeFiles(output, sources, ".java");
+                    }
+                });
+    }
+
+    private static JarIndex openApk(Path apkPath, Path outputDir, Executor executor, ClassFilter filter) throws IOException {
+        FileUtils.validateFilePath(apkPath, "APK path");
+
+        if (outputDir == null) {
+            throw new IllegalArgumentException("Output directory path cannot be null or empty");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+
+        JarIndex index = JarIndex.open(apkPath);
+        findDexEntries(index);
+        return index;
+    }
+
+    /**
+     * @return the top-level `classes*.dex` entries of an APK, largest first
+     */
+    private static List<JarIndex.Entry> findDexEntries(JarIndex index) {
+        List<JarIndex.Entry> entries = new ArrayList<>();
+        boolean hasPrimary = false;
+        for (JarIndex.Entry entry : index.getEntries()) {
+            int fileIndex = DexFiles.fileIndex(entry.getName());
+            if (fileIndex > 0) {
+                entries.add(entry);
+                hasPrimary |= fileIndex == 1;
+            }
+        }
+
+        if (!hasPrimary) {
+            throw new IllegalArgumentException("The provided APK does not contain `classes.dex`: " + index.getPath());
+        }
+        entries.sort(Comparator.comparingLong(JarIndex.Entry::getSize).reversed());
+        return entries;
+    }
+
+    /**
+     * Reads the DEX files for the cache key. Nothing is read if no cache is installed.
+     */
+    private static Map<String, byte[]> readDexFilesForCache(JarIndex index) throws IOException {
+        Map<String, byte[]> dexFiles = new TreeMap<>();
+        if (ConversionCache.getInstalled() != null) {
+            try (JarIndex.Reader reader = index.newReader()) {
+                for (JarIndex.Entry entry : findDexEntries(index)) {
+                    dexFiles.put(entry.getName(), reader.read(entry));
+                }
+            }
+        }
+        return dexFiles;
+    }
+
+    /**
+     * Reads every DEX file on the calling thread and hands it to the consumer, starting with the largest file.
+     */
+    private static void forEachDexFile(JarIndex index, DexFileConsumer consumer) throws IOException {
+        try (JarIndex.Reader reader = index.newReader()) {
+            for (JarIndex.Entry entry : findDexEntries(index)) {
+                consumer.accept(entry.getName(), reader.read(entry));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads every DEX file on its own task and hands it to the consumer, starting with the largest file.
+     * The consumer runs on the executor and must not wait for other tasks on it.
+     */
+    private static void forEachDexFile(JarIndex index, Executor executor, DexFileConsumer consumer) throws IOException {
+        List<Runnable> tasks = new ArrayList<>();
+        for (JarIndex.Entry entry : findDexEntries(index)) {
+            tasks.add(() -> {
+                try (JarIndex.Reader reader = index.newReader()) {
+                    consumer.accept(entry.getName(), reader.read(entry));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error converting: " + entry.getName(), e);
+                }
+            });
+        }
+
+        try {
+            Parallel.runAll(tasks, executor);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface DexFileConsumer {
+        void accept(String name, byte[] dexBytes) throws IOException;
+    }
+}
@@ -0,0 +1,576 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking facade over the static converters.
+ * <p>
+ * Every conversion returns a {@link CompletableFuture} instead of blocking the calling thread. Two executors are used:
+ * </p>
+ * <ul>
+ *     <li>an I/O executor that drives conversions which mostly wait for the file system, such as extracting a JAR or
+ *     streaming Smali files to disk. On Java 21 and later it starts a virtual thread per conversion, on older
+ *     runtimes it is a bounded pool of daemon threads.</li>
+ *     <li>a bounded {@link ForkJoinPool} of platform threads, one per processor by default, for CPU-heavy stages
+ *     such as D8, dex2jar, disassembly and decompilation. Conversions that accept an executor hand it this pool.</li>
+ * </ul>
+ * Invalid arguments and conversion errors complete the future exceptionally with the exception the blocking
+ * method would have thrown.
+ * <pre>{@code
+ * try (AsyncConverter converter = AsyncConverter.create()) {
+ *     CompletableFuture<Path> smali = converter.convertDexToSmali(dexPath);
+ *     CompletableFuture<Path> java = converter.convertDexToJava(dexPath);
+ *     CompletableFuture.allOf(smali, java).join();
+ * }
+ * }</pre>
+ */
+public class AsyncConverter implements AutoCloseable {
+
+    private static final int MAX_PLATFORM_IO_THREADS = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
+    private final ExecutorService ioExecutor;
+    private final ForkJoinPool cpuPool;
+    private final boolean virtualThreads;
+    private final boolean ownsExecutors;
+
+    private AsyncConverter(ExecutorService ioExecutor, ForkJoinPool cpuPool, boolean virtualThreads, boolean ownsExecutors) {
+        this.ioExecutor = ioExecutor;
+        this.cpuPool = cpuPool;
+        this.virtualThreads = virtualThreads;
+        this.ownsExecutors = ownsExecutors;
+    }
+
+    /**
+     * Creates a converter with its own executors: virtual threads (or a bounded daemon pool before Java 21) for I/O
+     * and a fork/join pool with one platform thread per processor for CPU-heavy stages.
+     * The executors are shut down by {@link #close()}.
+     *
+     * @return a new converter
+     */
+    public static AsyncConverter create() {
+        return create(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a converter with its own executors and a CPU pool of the given size.
+     * The executors are shut down by {@link #close()}.
+     *
+     * @param cpuParallelism the number of platform threads running CPU-heavy stages
+     * @return a new converter
+     * @throws IllegalArgumentException if {@code cpuParallelism} is less than 1
+     */
+    public static AsyncConverter create(int cpuParallelism) {
+        if (cpuParallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+
+        ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+        ExecutorService ioExecutor = virtualThreadExecutor != null ? virtualThreadExecutor : newPlatformIoExecutor();
+        return new AsyncConverter(ioExecutor, new ForkJoinPool(cpuParallelism), virtualThreadExecutor != null, true);
+    }
+
+    /**
+     * Creates a converter on caller supplied executors. {@link #close()} does not shut them down.
+     *
+     * @param ioExecutor the executor driving I/O-bound conversions
+     * @param cpuPool    the pool running CPU-heavy stages
+     * @return a new converter
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public static AsyncConverter using(ExecutorService ioExecutor, ForkJoinPool cpuPool) {
+        if (ioExecutor == null) {
+            throw new IllegalArgumentException("I/O executor cannot be null.");
+        }
+        if (cpuPool == null) {
+            throw new IllegalArgumentException("CPU pool cannot be null.");
+        }
+        return new AsyncConverter(ioExecutor, cpuPool, false, false);
+    }
+
+    /**
+     * Virtual threads are only available from Java 21 on, while the library targets Java 17,
+     * so the factory method is looked up reflectively.
+     *
+     * @return a virtual thread per task executor, or {@code null} if the runtime does not support virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformIoExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "jdsx-io-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_PLATFORM_IO_THREADS, MAX_PLATFORM_IO_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @return true if I/O-bound conversions run on virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @return the pool CPU-heavy stages run on
+     */
+    public ForkJoinPool getCpuPool() {
+        return cpuPool;
+    }
+
+    // Smali
+
+    /**
+     * @see Smali#convertSmaliToDex(Path)
+     */
+    public CompletableFuture<Path> convertSmaliToDex(Path smaliPath) {
+        return cpu(() -> Smali.convertSmaliToDex(smaliPath));
+    }
+
+    /**
+     * @see Smali#convertSmaliToDex(Path, Path)
+     */
+    public CompletableFuture<Path> convertSmaliToDex(Path smaliPath, Path dexPath) {
+        return cpu(() -> Smali.convertSmaliToDex(smaliPath, dexPath));
+    }
+
+    /**
+     * @see Smali#convertSmaliToDex(String)
+     */
+    public CompletableFuture<Path> convertSmaliToDex(String smaliCode) {
+        return cpu(() -> Smali.convertSmaliToDex(smaliCode));
+    }
+
+    /**
+     * @see Smali#convertSmaliToDex(String, Path)
+     */
+    public CompletableFuture<Path> convertSmaliToDex(String smaliCode, Path dexPath) {
+        return cpu(() -> Smali.convertSmaliToDex(smaliCode, dexPath));
+    }
+
+    /**
+     * @see Smali#convertSmaliToClassJar(Path)
+     */
+    public CompletableFuture<Path> convertSmaliToClassJar(Path smaliPath) {
+        return cpu(() -> Smali.convertSmaliToClassJar(smaliPath));
+    }
+
+    /**
+     * @see Smali#convertSmaliToClassJar(String)
+     */
+    public CompletableFuture<Path> convertSmaliToClassJar(String smaliCode) {
+        return cpu(() -> Smali.convertSmaliToClassJar(smaliCode));
+    }
+
+    /**
+     * @see Smali#convertSmaliToClassJar(String, Path)
+     */
+    public CompletableFuture<Path> convertSmaliToClassJar(String smaliCode, Path jarPath) {
+        return cpu(() -> Smali.convertSmaliToClassJar(smaliCode, jarPath));
+    }
+
+    /**
+     * @see Smali#convertSmaliToClasses(Path)
+     */
+    public CompletableFuture<Path> convertSmaliToClasses(Path smaliPath) {
+        return cpu(() -> Smali.convertSmaliToClasses(smaliPath));
+    }
+
+    /**
+     * @see Smali#convertSmaliToClasses(String)
+     */
+    public CompletableFuture<Path> convertSmaliToClasses(String smaliCode) {
+        return cpu(() -> Smali.convertSmaliToClasses(smaliCode));
+    }
+
+    /**
+     * @see Smali#convertSmaliToJava(Path)
+     */
+    public CompletableFuture<Path> convertSmaliToJava(Path smaliPath) {
+        return cpu(() -> Smali.convertSmaliToJava(smaliPath));
+    }
+
+    /**
+     * @see Smali#convertSmaliToJava(String)
+     */
+    public CompletableFuture<Path> convertSmaliToJava(String smaliCode) {
+        return cpu(() -> Smali.convertSmaliToJava(smaliCode));
+    }
+
+    // Dex
+
+    /**
+     * @see Dex#convertDexToClassJar(Path)
+     */
+    public CompletableFuture<Path> convertDexToClassJar(Path dexPath) {
+        return cpu(() -> Dex.convertDexToClassJar(dexPath));
+    }
+
+    /**
+     * @see Dex#convertDexToClassJar(Path, Path)
+     */
+    public CompletableFuture<Path> convertDexToClassJar(Path dexPath, Path jarPath) {
+        return cpu(() -> Dex.convertDexToClassJar(dexPath, jarPath));
+    }
+
+    /**
+     * @see Dex#convertDexToClasses(Path)
+     */
+    public CompletableFuture<Path> convertDexToClasses(Path dexPath) {
+        return cpu(() -> Dex.convertDexToClasses(dexPath));
+    }
+
+    /**
+     * @see Dex#convertDexToClasses(Path, Path)
+     */
+    public CompletableFuture<Path> convertDexToClasses(Path dexPath, Path outputDir) {
+        return cpu(() -> Dex.convertDexToClasses(dexPath, outputDir));
+    }
+
+    /**
+     * Disassembles the classes on the CPU pool.
+     *
+     * @see Dex#convertDexToSmali(Path)
+     */
+    public CompletableFuture<Path> convertDexToSmali(Path dexPath) {
+        return io(() -> {
+            FileUtils.validateFilePath(dexPath, "Dex path");
+            return Dex.convertDexToSmali(dexPath, FileUtils.getSiblingDirectory(dexPath, "smali_out"), cpuPool);
+        });
+    }
+
+    /**
+     * Disassembles the classes on the CPU pool.
+     *
+     * @see Dex#convertDexToSmali(Path, Path)
+     */
+    public CompletableFuture<Path> convertDexToSmali(Path dexPath, Path outputDir) {
+        return io(() -> Dex.convertDexToSmali(dexPath, outputDir, cpuPool));
+    }
+
+    /**
+     * Disassembles the classes on the CPU pool.
+     *
+     * @see Dex#convertDexToSmaliIncremental(Path, Path, java.util.concurrent.Executor)
+     */
+    public CompletableFuture<IncrementalResult> convertDexToSmaliIncremental(Path dexPath, Path outputDir) {
+        return io(() -> Dex.convertDexToSmaliIncremental(dexPath, outputDir, cpuPool));
+    }
+
+    /**
+     * Decompiles the classes on the CPU pool.
+     *
+     * @see Dex#convertDexToJava(Path, ClassFilter, java.util.concurrent.Executor)
+     */
+    public CompletableFuture<Path> convertDexToJava(Path dexPath) {
+        return cpu(() -> Dex.convertDexToJava(dexPath, ClassFilter.all(), cpuPool));
+    }
+
+    /**
+     * Decompiles the classes on the CPU pool.
+     *
+     * @see Dex#convertDexToJava(Path, ClassFilter, java.util.concurrent.Executor)
+     */
+    public CompletableFuture<Path> convertDexToJava(Path dexPath, ClassFilter filter) {
+        return cpu(() -> Dex.convertDexToJava(dexPath, filter, cpuPool));
+    }
+
+    // Jar
+
+    /**
+     * @see Jar#extractJar(Path)
+     */
+    public CompletableFuture<Path> extractJar(Path jarPath) {
+        return io(() -> Jar.extractJar(jarPath));
+    }
+
+    /**
+     * @see Jar#extractJar(Path, Path, int)
+     */
+    public CompletableFuture<ExtractionReport> extractJar(Path jarPath, Path destinationDir) {
+        return io(() -> Jar.extractJar(jarPath, destinationDir, Parallel.defaultParallelism()));
+    }
+
+    /**
+     * Decompiles the classes in shards on the CPU pool.
+     *
+     * @see Jar#convertClassJarToJavaJar(JarIndex, java.util.concurrent.Executor, int, ClassFilter)
+     */
+    public CompletableFuture<Path> convertClassJarToJavaJar(Path jarPath) {
+        return io(() -> Jar.convertClassJarToJavaJar(JarIndex.open(jarPath), cpuPool, cpuPool.getParallelism(),
+                ClassFilter.all()));
+    }
+
+    /**
+     * Decompiles the classes in shards on the CPU pool.
+     *
+     * @see Jar#convertClassJarToJava(JarIndex, java.util.concurrent.Executor, int, ClassFilter)
+     */
+    public CompletableFuture<Path> convertClassJarToJava(Path jarPath) {
+        return convertClassJarToJava(jarPath, ClassFilter.all());
+    }
+
+    /**
+     * Decompiles the classes in shards on the CPU pool.
+     *
+     * @see Jar#convertClassJarToJava(JarIndex, java.util.concurrent.Executor, int, ClassFilter)
+     */
+    public CompletableFuture<Path> convertClassJarToJava(Path jarPath, ClassFilter filter) {
+        return io(() -> Jar.convertClassJarToJava(JarIndex.open(jarPath), cpuPool, cpuPool.getParallelism(), filter));
+    }
+
+    /**
+     * Decompiles the added and changed classes in shards on the CPU pool.
+     *
+     * @see Jar#convertClassJarToJavaIncremental(Path, Path, java.util.concurrent.Executor, int)
+     */
+    public CompletableFuture<IncrementalResult> convertClassJarToJavaIncremental(Path jarPath, Path outputDir) {
+        return io(() -> Jar.convertClassJarToJavaIncremental(jarPath, outputDir, cpuPool, cpuPool.getParallelism()));
+    }
+
+    /**
+     * @see Jar#convertClassJarToDex(Path)
+     */
+    public CompletableFuture<Path> convertClassJarToDex(Path jarPath) {
+        return cpu(() -> Jar.convertClassJarToDex(jarPath));
+    }
+
+    /**
+     * @see Jar#convertClassJarToSmali(Path)
+     */
+    public CompletableFuture<Path> convertClassJarToSmali(Path jarPath) {
+        return cpu(() -> Jar.convertClassJarToSmali(jarPath));
+    }
+
+    // Class
+
+    /**
+     * @see Class#convertClassFilesToDex(Path)
+     */
+    public CompletableFuture<Path> convertClassFilesToDex(Path inputPath) {
+        return cpu(() -> Class.convertClassFilesToDex(inputPath));
+    }
+
+    /**
+     * @see Class#convertClassFilesToDexFiles(Path)
+     */
+    public CompletableFuture<DexFiles> convertClassFilesToDexFiles(Path inputPath) {
+        return cpu(() -> Class.convertClassFilesToDexFiles(inputPath));
+    }
+
+    /**
+     * Runs D8 and disassembles the generated `.dex` files on the CPU pool.
+     *
+     * @see Class#convertClassFilesToSmali(Path, java.util.concurrent.Executor)
+     */
+    public CompletableFuture<Path> convertClassFilesToSmali(Path inputPath) {
+        return cpu(() -> Class.convertClassFilesToSmali(inputPath, cpuPool));
+    }
+
+    /**
+     * Runs D8 and translates the generated `.dex` files on the CPU pool.
+     *
+     * @see Class#convertClassFilesToClassJar(Path, java.util.concurrent.Executor)
+     */
+    public CompletableFuture<Path> convertClassFilesToClassJar(Path inputPath) {
+        return cpu(() -> Class.convertClassFilesToClassJar(inputPath, cpuPool));
+    }
+
+    /**
+     * Runs D8, translates the generated `.dex` files and decompiles the classes on the CPU pool.
+     *
+     * @see Class#convertClassFilesToJava(Path, java.util.concurrent.Executor)
+     */
+    public CompletableFuture<Path> convertClassFilesToJava(Path inputPath) {
+        return cpu(() -> Class.convertClassFilesToJava(inputPath, cpuPool));
+    }
+
+    /**
+     * Decompiles the classes in shards on the CPU pool.
+     *
+     * @see Class#convertClassBytesToJava(Map, java.util.concurrent.Executor, int)
+     */
+    public CompletableFuture<Map<String, String>> convertClassBytesToJava(Map<String, byte[]> classes) {
+        return cpu(() -> Class.convertClassBytesToJava(classes, cpuPool, cpuPool.getParallelism()));
+    }
+
+    // Java
+
+    /**
+     * @see Java#compileJavaToClass(Path)
+     */
+    public CompletableFuture<Path> compileJavaToClass(Path javaFile) {
+        return cpu(() -> Java.compileJavaToClass(javaFile));
+    }
+
+    /**
+     * @see Java#compileJavaToClassBytes(Map)
+     */
+    public CompletableFuture<CompilationResult> compileJavaToClassBytes(Map<String, String> sources) {
+        return cpu(() -> Java.compileJavaToClassBytes(sources));
+    }
+
+    /**
+     * @see Java#compileJavaToClassBytes(String)
+     */
+    public CompletableFuture<CompilationResult> compileJavaToClassBytes(String javaCode) {
+        return cpu(() -> Java.compileJavaToClassBytes(javaCode));
+    }
+
+    /**
+     * @see Java#convertJavaToSmali(Path)
+     */
+    public CompletableFuture<Path> convertJavaToSmali(Path javaFilePath) {
+        return cpu(() -> Java.convertJavaToSmali(javaFilePath));
+    }
+
+    /**
+     * @see Java#convertJavaToSmali(String)
+     */
+    public CompletableFuture<Path> convertJavaToSmali(String javaCode) {
+        return cpu(() -> Java.convertJavaToSmali(javaCode));
+    }
+
+    // Apk
+
+    /**
+     * Reads and disassembles the DEX files on the CPU pool.
+     *
+     * @see Apk#convertApkToSmali(Path)
+     */
+    public CompletableFuture<Path> convertApkToSmali(Path apkPath) {
+        return io(() -> {
+            FileUtils.validateFilePath(apkPath, "APK path");
+            return Apk.convertApkToSmali(apkPath, FileUtils.getSiblingDirectory(apkPath, "smali_out"), cpuPool,
+                    ClassFilter.all());
+        });
+    }
+
+    /**
+     * Reads and disassembles the DEX files on the CPU pool.
+     *
+     * @see Apk#convertApkToSmali(Path, Path)
+     */
+    public CompletableFuture<Path> convertApkToSmali(Path apkPath, Path outputDir) {
+        return io(() -> Apk.convertApkToSmali(apkPath, outputDir, cpuPool, ClassFilter.all()));
+    }
+
+    /**
+     * Translates the DEX files and decompiles the classes on the CPU pool.
+     *
+     * @see Apk#convertApkToJava(Path)
+     */
+    public CompletableFuture<Path> convertApkToJava(Path apkPath) {
+        return io(() -> {
+            FileUtils.validateFilePath(apkPath, "APK path");
+            return Apk.convertApkToJava(apkPath, FileUtils.getSiblingDirectory(apkPath, "java_out"), cpuPool,
+                    ClassFilter.all());
+        });
+    }
+
+    /**
+     * Translates the DEX files and decompiles the classes on the CPU pool.
+     *
+     * @see Apk#convertApkToJava(Path, Path)
+     */
+    public CompletableFuture<Path> convertApkToJava(Path apkPath, Path outputDir) {
+        return io(() -> Apk.convertApkToJava(apkPath, outputDir, cpuPool, ClassFilter.all()));
+    }
+
+    // Batch
+
+    /**
+     * Converts the inputs on the CPU pool.
+     *
+     * @see Batch#convert(List, TargetFormat, Path, ForkJoinPool)
+     */
+    public CompletableFuture<BatchReport> convert(List<Path> inputs, TargetFormat target, Path outputDir) {
+        return io(() -> Batch.convert(inputs, target, outputDir, cpuPool));
+    }
+
+    /**
+     * Runs any other blocking conversion on the I/O executor.
+     *
+     * @param conversion the conversion to run
+     * @return a future completed with the result of the conversion
+     */
+    public <T> CompletableFuture<T> submit(Conversion<T> conversion) {
+        if (conversion == null) {
+            throw new IllegalArgumentException("Conversion cannot be null.");
+        }
+        return io(conversion);
+    }
+
+    /**
+     * Shuts down the executors this converter created. Running conversions are allowed to finish,
+     * new conversions are rejected. Executors supplied through {@link #using} are left running.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutors) {
+            ioExecutor.shutdown();
+            cpuPool.shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> io(Conversion<T> conversion) {
+        return submit(ioExecutor, conversion);
+    }
+
+    private <T> CompletableFuture<T> cpu(Conversion<T> conversion) {
+        return submit(cpuPool, conversion);
+    }
+
+    private static <T> CompletableFuture<T> submit(ExecutorService executor, Conversion<T> conversion) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(conversion.convert());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * A blocking conversion.
+     */
+    @FunctionalInterface
+    public interface Conversion<T> {
+        /**
+         * @return the result of the conversion
+         * @throws Exception if the conversion fails
+         */
+        T convert() throws Exception;
+    }
+}
@@ -0,0 +1,383 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Converts many inputs to one target format on a fork/join pool.
+ * <p>
+ * Inputs may be DEX files, JAR files, APK files, `.class` files, directories of `.class` files, Smali files or Java
+ * files. The inputs are
+ * ordered largest first and recursively split into halves of roughly equal size, so idle workers steal the remaining
+ * halves and the large inputs do not end up as the tail of the batch. An input larger than its fair share of the
+ * batch also spreads its own work (disassembly, translation, decompilation) over the pool, while smaller inputs are
+ * converted on a single worker to avoid oversubscribing the machine.
+ * </p>
+ * A failing input is recorded in the {@link BatchReport} and does not abort the other inputs.
+ * <pre>{@code
+ * BatchReport report = Batch.convert(dexFiles, TargetFormat.JAVA, Paths.get("out"));
+ * report.getFailed().forEach(result -> log(result.getInput(), result.getFailure()));
+ * }</pre>
+ */
+public class Batch {
+
+    private Batch() {
+    }
+
+    private enum InputType {DEX, JAR, APK, CLASSES, SMALI, JAVA}
+
+    /**
+     * Converts every input on the common fork/join pool.
+     *
+     * @see #convert(List, TargetFormat, Path, ForkJoinPool)
+     */
+    public static BatchReport convert(List<Path> inputs, TargetFormat target, Path outputDir) throws IOException {
+        return convert(inputs, target, outputDir, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts every input on the given fork/join pool.
+     * The output of every input is written to a directory below {@code outputDir} named after the input's file name;
+     * inputs with the same file name get a numeric suffix.
+     *
+     * @param inputs    the DEX, JAR or APK files, `.class` files, directories of `.class` files, Smali or Java files
+     *                  to convert
+     * @param target    the format to convert to
+     * @param outputDir the directory the outputs are written below
+     * @param pool      the pool the inputs are converted on
+     * @return the result of every input, in input order
+     * @throws IllegalArgumentException if any argument or input is null
+     * @throws IOException              if {@code outputDir} cannot be created
+     */
+    public static BatchReport convert(List<Path> inputs, TargetFormat target, Path outputDir, ForkJoinPool pool)
+            throws IOException {
+        if (inputs == null || inputs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Inputs cannot be null.");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Target format cannot be null.");
+        }
+        if (outputDir == null) {
+            throw new IllegalArgumentException("Output directory path cannot be null or empty");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null.");
+        }
+
+        long start = System.nanoTime();
+        Files.createDirectories(outputDir);
+
+        List<Job> jobs = new ArrayList<>(inputs.size());
+        Set<String> outputNames = new HashSet<>();
+        long totalSize = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            Path input = inputs.get(i);
+            String baseName = input.getFileName() == null ? "input" : input.getFileName().toString();
+            String outputName = baseName;
+            for (int suffix = 2; !outputNames.add(outputName); suffix++) {
+                outputName = baseName + "-" + suffix;
+            }
+
+            Job job = new Job(i, input, sizeOf(input), outputDir.resolve(outputName));
+            jobs.add(job);
+            totalSize += job.size;
+        }
+
+        // an input that is larger than an even share of the pool is split further by its converter
+        long fairShare = totalSize / pool.getParallelism();
+        BatchReport.Result[] results = new BatchReport.Result[jobs.size()];
+        jobs.sort(Comparator.comparingLong((Job job) -> job.size).reversed());
+        if (!jobs.isEmpty()) {
+            pool.invoke(new ConvertTask(jobs, 0, jobs.size(), target, pool, fairShare, results));
+        }
+
+        return new BatchReport(target, Arrays.asList(results), System.nanoTime() - start);
+    }
+
+    private static class Job {
+        final int index;
+        final Path input;
+        final long size;
+        final Path output;
+
+        Job(int index, Path input, long size, Path output) {
+            this.index = index;
+            this.input = input;
+            this.size = size;
+            this.output = output;
+        }
+    }
+
+    /**
+     * Converts a range of jobs, splitting it into two halves of about the same total size until a single job remains.
+     */
+    private static class ConvertTask extends RecursiveAction {
+        private final List<Job> jobs;
+        private final int from;
+        private final int to;
+        private final TargetFormat target;
+        private final ForkJoinPool pool;
+        private final long fairShare;
+        private final BatchReport.Result[] results;
+
+        ConvertTask(List<Job> jobs, int from, int to, TargetFormat target, ForkJoinPool pool, long fairShare,
+                    BatchReport.Result[] results) {
+            this.jobs = jobs;
+            this.from = from;
+            this.to = to;
+            this.target = target;
+            this.pool = pool;
+            this.fairShare = fairShare;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                Job job = jobs.get(from);
+                results[job.index] = run(job);
+                return;
+            }
+
+            long half = 0;
+            for (int i = from; i < to; i++) {
+                half += jobs.get(i).size;
+            }
+            half /= 2;
+
+            int middle = from + 1;
+            long leftSize = jobs.get(from).size;
+            while (middle < to - 1 && leftSize + jobs.get(middle).size <= half) {
+                leftSize += jobs.get(middle++).size;
+            }
+
+            invokeAll(new ConvertTask(jobs, from, middle, target, pool, fairShare, results),
+                    new ConvertTask(jobs, middle, to, target, pool, fairShare, results));
+        }
+
+        private BatchReport.Result run(Job job) {
+            long start = System.nanoTime();
+            try {
+                boolean split = job.size > fairShare && pool.getParallelism() > 1;
+                Executor executor = split ? pool : Runnable::run;
+                int parallelism = split ? pool.getParallelism() : 1;
+
+                Path output = convert(job.input, target, job.output, executor, parallelism);
+                return new BatchReport.Result(job.input, job.size, output, null, System.nanoTime() - start);
+            } catch (Exception e) {
+                return new BatchReport.Result(job.input, job.size, null, e, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static Path convert(Path input, TargetFormat target, Path outputDir, Executor executor, int parallelism)
+            throws IOException {
+        if (!Files.exists(input)) {
+            throw new IOException("Input does not exist: " + input);
+        }
+
+        switch (typeOf(input)) {
+            case DEX:
+                return convertDex(input, target, outputDir, executor, parallelism);
+            case APK:
+                return convertApk(input, target, outputDir, executor);
+            case JAR:
+                if (target == TargetFormat.CLASSES) {
+                    return writeBytes(outputDir, Jar.readClasses(input), ".class");
+                }
+                return convertClasses(Jar.readClasses(input), target, outputDir, executor, parallelism);
+            case SMALI:
+                return convertSmali(input, target, outputDir, executor, parallelism);
+            case JAVA:
+                return convertJava(input, target, outputDir, executor, parallelism);
+            default:
+                return convertClasses(readClassFiles(input), target, outputDir, executor, parallelism);
+        }
+    }
+
+    private static Path convertDex(Path input, TargetFormat target, Path outputDir, Executor executor, int parallelism)
+            throws IOException {
+        switch (target) {
+            case JAVA:
+                return writeJava(Dex.convertDexToClassBytes(input), outputDir, executor, parallelism);
+            case SMALI:
+                return Dex.convertDexToSmali(input, outputDir, executor);
+            case CLASSES:
+                return Dex.convertDexToClasses(input, outputDir);
+            default:
+                throw unsupported(input, target);
+        }
+    }
+
+    private static Path convertApk(Path input, TargetFormat target, Path outputDir, Executor executor) throws IOException {
+        switch (target) {
+            case JAVA:
+                return Apk.convertApkToJava(input, outputDir, executor, ClassFilter.all());
+            case SMALI:
+                return Apk.convertApkToSmali(input, outputDir, executor, ClassFilter.all());
+            case CLASSES:
+                return writeBytes(outputDir, Apk.convertApkToClassBytes(input, executor, ClassFilter.all()), ".class");
+            default:
+                return writeBytes(outputDir, Apk.readDexFiles(input), "");
+        }
+    }
+
+    private static Path convertSmali(Path input, TargetFormat target, Path outputDir, Executor executor, int parallelism)
+            throws IOException {
+        if (target == TargetFormat.SMALI) {
+            throw new IllegalArgumentException("The input already consists of Smali code.");
+        }
+
+        byte[] dexBytes = Smali.assembleSmaliFilesToDex(List.of(input), executor);
+        switch (target) {
+            case JAVA:
+                return writeJava(Dex.convertDexBytesToClassBytes(dexBytes), outputDir, executor, parallelism);
+            case CLASSES:
+                return writeBytes(outputDir, Dex.convertDexBytesToClassBytes(dexBytes), ".class");
+            default:
+                return writeBytes(outputDir, Map.of("classes.dex", dexBytes), "");
+        }
+    }
+
+    private static Path convertJava(Path input, TargetFormat target, Path outputDir, Executor executor, int parallelism)
+            throws IOException {
+        if (target == TargetFormat.JAVA) {
+            throw new IllegalArgumentException("The input already consists of Java code.");
+        }
+
+        CompilationResult result = Java.compileJavaToClassBytes(
+                Map.of(input.getFileName().toString(), Files.readString(input)));
+        if (!result.isSuccess()) {
+            throw new CompilationException(result.getDiagnostics());
+        }
+        if (target == TargetFormat.CLASSES) {
+            return writeBytes(outputDir, result.getClasses(), ".class");
+        }
+        return convertClasses(result.getClasses(), target, outputDir, executor, parallelism);
+    }
+
+    private static Path convertClasses(Map<String, byte[]> classes, TargetFormat target, Path outputDir,
+                                       Executor executor, int parallelism) throws IOException {
+        if (classes.isEmpty()) {
+            throw new IllegalArgumentException("The input does not contain `.class` files.");
+        }
+
+        switch (target) {
+            case JAVA:
+                return writeJava(classes, outputDir, executor, parallelism);
+            case SMALI:
+                Files.createDirectories(outputDir);
+                SmaliFileNames fileNames = new SmaliFileNames();
+                for (byte[] dexBytes : Class.convertClassBytesToDexFiles(classes)) {
+                    Dex.writeSmali(dexBytes, executor, ClassFilter.all(), outputDir, fileNames);
+                }
+                return outputDir;
+            case DEX:
+                List<byte[]> dexFiles = Class.convertClassBytesToDexFiles(classes);
+                Map<String, byte[]> named = new TreeMap<>();
+                for (int i = 0; i < dexFiles.size(); i++) {
+                    named.put(i == 0 ? "classes.dex" : "classes" + (i + 1) + ".dex", dexFiles.get(i));
+                }
+                return writeBytes(outputDir, named, "");
+            default:
+                throw new IllegalArgumentException("The input already consists of `.class` files.");
+        }
+    }
+
+    private static InputType typeOf(Path input) {
+        if (Files.isDirectory(input)) {
+            return InputType.CLASSES;
+        }
+
+        String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".apk")) {
+            return InputType.APK;
+        }
+        if (name.endsWith(".jar")) {
+            return InputType.JAR;
+        }
+        if (name.endsWith(".class")) {
+            return InputType.CLASSES;
+        }
+        if (name.endsWith(".smali")) {
+            return InputType.SMALI;
+        }
+        if (name.endsWith(".java")) {
+            return InputType.JAVA;
+        }
+        if (name.endsWith(".dex") || Dex.isValidDexFile(input)) {
+            return InputType.DEX;
+        }
+        throw new IllegalArgumentException("Unsupported input: " + input);
+    }
+
+    private static Map<String, byte[]> readClassFiles(Path input) throws IOException {
+        Map<String, byte[]> classes = new TreeMap<>();
+        if (Files.isRegularFile(input)) {
+            classes.put(FileUtils.toInternalClassName(input.getParent(), input), Files.readAllBytes(input));
+            return classes;
+        }
+
+        for (Path classFile : FileUtils.findFilesByExtension(input, ".class")) {
+            classes.put(FileUtils.toInternalClassName(input, classFile), Files.readAllBytes(classFile));
+        }
+        return classes;
+    }
+
+    private static Path writeJava(Map<String, byte[]> classes, Path outputDir, Executor executor, int parallelism)
+            throws IOException {
+        return FileUtils.writeFiles(outputDir, Class.convertClassBytesToJava(classes, executor, parallelism), ".java");
+    }
+
+    private static Path writeBytes(Path outputDir, Map<String, byte[]> files, String extension) throws IOException {
+        Metrics.Recording recording = Metrics.start(Metrics.WRITE, 0);
+        try {
+            Files.createDirectories(outputDir);
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                Path path = FileUtils.resolveInside(outputDir, file.getKey() + extension);
+                Files.createDirectories(path.getParent());
+                Files.write(path, file.getValue());
+                recording.filesWritten(1).bytesOut(file.getValue().length);
+            }
+            recording.finish();
+        } catch (IOException e) {
+            throw recording.fail(e);
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
+        }
+        return outputDir;
+    }
+
+    private static long sizeOf(Path input) {
+        try {
+            if (!Files.isDirectory(input)) {
+                return Files.size(input);
+            }
+            try (Stream<Path> stream = Files.walk(input)) {
+                return stream.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+            }
+        } catch (IOException e) {
+            // a missing input is reported as a failure when it is converted
+            return 0;
+        }
+    }
+
+    private static IllegalArgumentException unsupported(Path input, TargetFormat target) {
+        return new IllegalArgumentException("Cannot convert " + input + " to " + target);
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The outcome of a {@link Batch} conversion: one {@link Result} per input, in input order.
+ */
+public class BatchReport {
+
+    private final TargetFormat target;
+    private final List<Result> results;
+    private final long elapsedNanos;
+
+    BatchReport(TargetFormat target, List<Result> results, long elapsedNanos) {
+        this.target = target;
+        this.results = Collections.unmodifiableList(results);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the format the inputs were converted to
+     */
+    public TargetFormat getTarget() {
+        return target;
+    }
+
+    /**
+     * @return the result of every input, in the order the inputs were given
+     */
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * @return the results of the inputs that were converted
+     */
+    public List<Result> getSucceeded() {
+        return results.stream().filter(Result::isSuccess).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the results of the inputs that could not be converted
+     */
+    public List<Result> getFailed() {
+        return results.stream().filter(result -> !result.isSuccess()).collect(Collectors.toList());
+    }
+
+    /**
+     * @return true if every input was converted
+     */
+    public boolean isSuccess() {
+        return results.stream().allMatch(Result::isSuccess);
+    }
+
+    /**
+     * @return the wall clock time of the whole batch in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the report as a JSON object with the totals and one entry per input
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder()
+                .append("{\"target\":").append(Json.quote(target.name()))
+                .append(",\"elapsedMillis\":").append(elapsedNanos / 1_000_000)
+                .append(",\"succeeded\":").append(getSucceeded().size())
+                .append(",\"failed\":").append(getFailed().size())
+                .append(",\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            results.get(i).appendJson(json);
+        }
+        return json.append("]}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchReport{target=" + target +
+                ", inputs=" + results.size() +
+                ", succeeded=" + getSucceeded().size() +
+                ", failed=" + getFailed().size() +
+                ", elapsedMillis=" + elapsedNanos / 1_000_000 + "}";
+    }
+
+    /**
+     * The outcome of a single input.
+     */
+    public static class Result {
+        private final Path input;
+        private final long inputSize;
+        private final Path output;
+        private final Throwable failure;
+        private final long elapsedNanos;
+
+        Result(Path input, long inputSize, Path output, Throwable failure, long elapsedNanos) {
+            this.input = input;
+            this.inputSize = inputSize;
+            this.output = output;
+            this.failure = failure;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return the input file or directory
+         */
+        public Path getInput() {
+            return input;
+        }
+
+        /**
+         * @return the size of the input in bytes, used to schedule the batch
+         */
+        public long getInputSize() {
+            return inputSize;
+        }
+
+        /**
+         * @return the output file or directory, or {@code null} if the conversion failed
+         */
+        public Path getOutput() {
+            return output;
+        }
+
+        /**
+         * @return the exception the conversion failed with, or {@code null} if it succeeded
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * @return true if the input was converted
+         */
+        public boolean isSuccess() {
+            return failure == null;
+        }
+
+        /**
+         * @return the time spent converting this input in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        private void appendJson(StringBuilder json) {
+            json.append("{\"input\":").append(Json.quote(input))
+                    .append(",\"inputSize\":").append(inputSize)
+                    .append(",\"success\":").append(isSuccess())
+                    .append(",\"elapsedMillis\":").append(elapsedNanos / 1_000_000);
+            if (isSuccess()) {
+                json.append(",\"output\":").append(Json.quote(output));
+            } else {
+                json.append(",\"error\":").append(Json.quote(failure));
+            }
+            json.append('}');
+        }
+
+        @Override
+        public String toString() {
+            return "Result{input=" + input +
+                    (isSuccess() ? ", output=" + output : ", failure=" + failure) +
+                    ", elapsedMillis=" + elapsedNanos / 1_000_000 + "}";
+        }
+    }
+}
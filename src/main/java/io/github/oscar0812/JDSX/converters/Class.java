@@ -4,25 +4,59 @@ import com.android.tools.r8.CompilationFailedException;
 import com.android.tools.r8.D8;
 import com.android.tools.r8.D8Command;
 import com.android.tools.r8.OutputMode;
+import com.android.tools.r8.origin.PathOrigin;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
 
 public class Class {
 
+    /**
+     * Android 5.0, the first release that loads several `.dex` files natively. Below it, D8 refuses to split inputs
+     * over the 64K reference limit unless it is given a main dex list. Only the conversions that return every
+     * generated `.dex` file set it; the single `.dex` conversions keep D8's default.
+     */
+    private static final int MULTI_DEX_MIN_API_LEVEL = 21;
+
     /**
      * Converts `.class` files to a `.dex` file using an auto-generated sibling output path.
-     * Uses android R8/D8
+     * Uses android R8/D8 with its default minimum API level
      * Class -> Dex
+     * <p>
+     * D8 fails on inputs that exceed the limits of a single `.dex` file; use {@link #convertClassFilesToDexFiles(Path)}
+     * to split them.
+     * </p>
      *
      * @param inputPath the path to a directory containing `.class` files or a single `.class` file
-     * @return the path to the generated `.dex` file
+     * @return the path to the generated primary `classes.dex` file
      * @throws IllegalArgumentException if the input path is invalid or doesn't contain `.class` files
      * @throws IOException              if an error occurs while accessing the file system
      */
     public static Path convertClassFilesToDex(Path inputPath) throws IOException {
+        return convertClassFilesToDexFiles(inputPath, false).getPrimary();
+    }
+
+    /**
+     * Converts `.class` files to one or more `.dex` files in a sibling folder named `dex_out`.
+     * Uses android R8/D8 with a minimum API level of 21, so inputs over the limits of a single `.dex` file are split.
+     * Class -> Dex
+     *
+     * @param inputPath the path to a directory containing `.class` files or a single `.class` file
+     * @return all generated `.dex` files, ordered by file index
+     * @throws IllegalArgumentException if the input path is invalid or doesn't contain `.class` files
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static DexFiles convertClassFilesToDexFiles(Path inputPath) throws IOException {
+        return convertClassFilesToDexFiles(inputPath, true);
+    }
+
+    private static DexFiles convertClassFilesToDexFiles(Path inputPath, boolean multiDex) throws IOException {
         inputPath = FileUtils.copyToTempDir(inputPath);
 
         List<Path> paths;
@@ -33,28 +67,130 @@ public class Class {
         }
 
         Path dexDir = Files.createDirectories(FileUtils.getSiblingDirectory(inputPath, "dex_out"));
+        DexFiles.deleteAll(dexDir);
+
+        Map<String, byte[]> classFiles = new TreeMap<>();
+        if (ConversionCache.getInstalled() != null) {
+            Path root = Files.isRegularFile(inputPath) ? inputPath.getParent() : inputPath;
+            for (Path path : paths) {
+                classFiles.put(FileUtils.toInternalClassName(root, path), Files.readAllBytes(path));
+            }
+        }
+
+        ConversionCache.cached(multiDex ? "class-to-dex-files" : "class-to-dex", classFiles, dexDir, output -> {
+            long bytesIn = 0;
+            for (Path path : paths) {
+                bytesIn += Files.size(path);
+            }
+            Metrics.Recording recording = Metrics.start(Metrics.D8, bytesIn).classes(paths.size());
+            try {
+                D8Command.Builder builder = D8Command.builder()
+                        .addProgramFiles(paths)
+                        .setOutput(Files.createDirectories(output), OutputMode.DexIndexed);
+                if (multiDex) {
+                    builder.setMinApiLevel(MULTI_DEX_MIN_API_LEVEL);
+                }
+
+                D8.run(builder.build());
+            } catch (CompilationFailedException e) {
+                throw recording.fail(new RuntimeException(e));
+            } catch (RuntimeException e) {
+                throw recording.fail(e);
+            }
+
+            if (Files.notExists(output.resolve("classes.dex"))) {
+                throw recording.fail(new IOException("Dex was not generated"));
+            }
+            for (Path dexFile : DexFiles.scan(output).getPaths()) {
+                recording.filesWritten(1).bytesOut(Files.size(dexFile));
+            }
+            recording.finish();
+        });
+        return DexFiles.scan(dexDir);
+    }
+
+    /**
+     * Converts `.class` bytes to `.dex` bytes without using the file system.
+     * The classes are handed to D8 as in-memory program resources and the output is captured in memory.
+     * Uses android R8/D8 with its default minimum API level
+     * Class -> Dex
+     *
+     * @param classes the `.class` bytes keyed by internal class name (e.g. {@code com/example/Foo})
+     * @return the bytes of the generated `.dex` file
+     * @throws IllegalArgumentException if {@code classes} is null or empty
+     * @throws IOException              if D8 did not generate a dex file
+     * @throws RuntimeException         if D8 fails, e.g. because the classes do not fit into a single dex file
+     *                                  (see {@link #convertClassBytesToDexFiles(Map)})
+     */
+    public static byte[] convertClassBytesToDex(Map<String, byte[]> classes) throws IOException {
+        List<byte[]> dexFiles = convertClassBytesToDexFiles(classes, false);
+        if (dexFiles.size() > 1) {
+            throw new IOException("The classes do not fit into a single dex file, D8 generated " + dexFiles.size());
+        }
+
+        return dexFiles.get(0);
+    }
+
+    /**
+     * Converts `.class` bytes to one or more `.dex` files without using the file system.
+     * The classes are handed to D8 as in-memory program resources and the output is captured in memory.
+     * Uses android R8/D8 with a minimum API level of 21, so inputs over the limits of a single `.dex` file are split.
+     * Class -> Dex
+     *
+     * @param classes the `.class` bytes keyed by internal class name (e.g. {@code com/example/Foo})
+     * @return the bytes of every generated `.dex` file, ordered by file index (`classes.dex`, `classes2.dex`, ...)
+     * @throws IllegalArgumentException if {@code classes} is null or empty
+     * @throws IOException              if D8 did not generate a dex file
+     */
+    public static List<byte[]> convertClassBytesToDexFiles(Map<String, byte[]> classes) throws IOException {
+        return convertClassBytesToDexFiles(classes, true);
+    }
+
+    private static List<byte[]> convertClassBytesToDexFiles(Map<String, byte[]> classes, boolean multiDex)
+            throws IOException {
+        if (classes == null || classes.isEmpty()) {
+            throw new IllegalArgumentException("Class bytes cannot be null or empty.");
+        }
+
+        InMemoryDexConsumer dexConsumer = new InMemoryDexConsumer();
+        long bytesIn = 0;
+        for (byte[] classBytes : classes.values()) {
+            bytesIn += classBytes.length;
+        }
+        Metrics.Recording recording = Metrics.start(Metrics.D8, bytesIn).classes(classes.size());
 
         try {
-            D8Command command = D8Command.builder()
-                    .addProgramFiles(paths)
-                    .setOutput(dexDir, OutputMode.DexIndexed)
-                    .build();
+            D8Command.Builder builder = D8Command.builder()
+                    .setProgramConsumer(dexConsumer);
+            if (multiDex) {
+                builder.setMinApiLevel(MULTI_DEX_MIN_API_LEVEL);
+            }
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                builder.addClassProgramData(entry.getValue(), new PathOrigin(Paths.get(entry.getKey() + ".class")));
+            }
 
-            D8.run(command);
+            D8.run(builder.build());
         } catch (CompilationFailedException e) {
-            throw new RuntimeException(e);
+            throw recording.fail(new RuntimeException(e));
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
         }
 
-        List<Path> outputDexPaths = FileUtils.findFilesByExtension(dexDir, ".dex");
-        if (outputDexPaths.isEmpty()) {
-            throw new IOException("Dex was not generated");
+        List<byte[]> dexFiles = dexConsumer.getDexFiles();
+        if (dexFiles.isEmpty()) {
+            throw recording.fail(new IOException("Dex was not generated"));
         }
 
-        return outputDexPaths.get(0);
+        for (byte[] dexBytes : dexFiles) {
+            recording.bytesOut(dexBytes.length);
+        }
+        recording.finish();
+        return dexFiles;
     }
 
     /**
      * Converts `.class` files to Smali code.
+     * All generated `.dex` files are disassembled concurrently into the same directory.
      * Class -> Dex -> Smali
      *
      * @param inputPath the path to a directory containing `.class` files or a single `.class` file
@@ -62,12 +198,32 @@ public class Class {
      * @throws IOException if an error occurs during the conversion process
      */
     public static Path convertClassFilesToSmali(Path inputPath) throws IOException {
-        Path dexPath = convertClassFilesToDex(inputPath);
-        return Dex.convertDexToSmali(dexPath);
+        return convertClassFilesToSmali(inputPath, Parallel.defaultExecutor());
+    }
+
+    /**
+     * Converts `.class` files to Smali code, disassembling the generated `.dex` files on the given executor.
+     * Class -> Dex -> Smali
+     *
+     * @param inputPath the path to a directory containing `.class` files or a single `.class` file
+     * @param executor  the executor the `.dex` files and their classes are disassembled on
+     * @return the path to the generated Smali file
+     * @throws IllegalArgumentException if {@code executor} is null
+     * @throws IOException if an error occurs during the conversion process
+     */
+    public static Path convertClassFilesToSmali(Path inputPath, Executor executor) throws IOException {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+
+        DexFiles dexFiles = convertClassFilesToDexFiles(inputPath);
+        Path outputDir = FileUtils.getSiblingDirectory(dexFiles.getPrimary(), "smali_out");
+        return Dex.convertDexFilesToSmali(dexFiles, outputDir, executor);
     }
 
     /**
      * Converts `.class` files to a `.class.jar` file.
+     * All generated `.dex` files are translated concurrently and merged into one JAR.
      * Class -> Dex -> ClassJar
      *
      * @param inputPath the path to a directory containing `.class` files or a single `.class` file
@@ -75,21 +231,135 @@ public class Class {
      * @throws IOException if an error occurs during the conversion process
      */
     public static Path convertClassFilesToClassJar(Path inputPath) throws IOException {
-        Path dexPath = convertClassFilesToDex(inputPath);
-        return Dex.convertDexToClassJar(dexPath);
+        return convertClassFilesToClassJar(inputPath, Parallel.defaultExecutor());
+    }
+
+    /**
+     * Converts `.class` files to a `.class.jar` file, translating the generated `.dex` files on the given executor.
+     * Class -> Dex -> ClassJar
+     *
+     * @param inputPath the path to a directory containing `.class` files or a single `.class` file
+     * @param executor  the executor the `.dex` files are translated on
+     * @return the path to the generated `.class.jar` file
+     * @throws IllegalArgumentException if {@code executor} is null
+     * @throws IOException if an error occurs during the conversion process
+     */
+    public static Path convertClassFilesToClassJar(Path inputPath, Executor executor) throws IOException {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+
+        DexFiles dexFiles = convertClassFilesToDexFiles(inputPath);
+        Path jarPath = FileUtils.getSiblingPath(dexFiles.getPrimary(), ".jar");
+        return Dex.convertDexFilesToClassJar(dexFiles, jarPath, executor);
     }
 
     /**
      * Converts `.class` files to Java code.
-     * Class -> Dex -> ClassJar -> Java
+     * All generated `.dex` files are translated concurrently and decompiled together,
+     * so classes split over several `.dex` files still resolve each other.
+     * Class -> Dex -> Class -> Java
      *
      * @param inputPath the path to a directory containing `.class` files or a single `.class` file
      * @return the path to the generated Java file
      * @throws IOException if an error occurs during the conversion process
      */
     public static Path convertClassFilesToJava(Path inputPath) throws IOException {
-        Path dexPath = convertClassFilesToDex(inputPath);
-        Path classJar = Dex.convertDexToClassJar(dexPath);
-        return Jar.convertClassJarToJava(classJar);
+        return convertClassFilesToJava(inputPath, Parallel.defaultExecutor());
+    }
+
+    /**
+     * Converts `.class` files to Java code, translating the generated `.dex` files and decompiling the classes
+     * on the given executor.
+     * Class -> Dex -> Class -> Java
+     *
+     * @param inputPath the path to a directory containing `.class` files or a single `.class` file
+     * @param executor  the executor the `.dex` files are translated and the classes decompiled on
+     * @return the path to the generated Java file
+     * @throws IllegalArgumentException if {@code executor} is null
+     * @throws IOException if an error occurs during the conversion process
+     */
+    public static Path convertClassFilesToJava(Path inputPath, Executor executor) throws IOException {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+
+        DexFiles dexFiles = convertClassFilesToDexFiles(inputPath);
+        Path outputDir = FileUtils.getSiblingDirectory(dexFiles.getPrimary(), "java_out");
+        return Dex.convertDexFilesToJava(dexFiles, outputDir, executor);
+    }
+
+    /**
+     * Decompiles `.class` bytes to Java source code in memory using Fernflower.
+     * Inner classes are decompiled into the source of their outer class.
+     * The classes are decompiled in parallel on the common fork/join pool.
+     * Class -> Java
+     *
+     * @param classes the `.class` bytes keyed by internal class name (e.g. {@code com/example/Foo})
+     * @return the Java source of every top-level class, keyed and sorted by internal class name
+     * @throws IllegalArgumentException if {@code classes} is null or empty
+     */
+    public static Map<String, String> convertClassBytesToJava(Map<String, byte[]> classes) {
+        return convertClassBytesToJava(classes, Parallel.defaultExecutor(), Parallel.defaultParallelism());
+    }
+
+    /**
+     * Decompiles `.class` bytes to Java source code in memory using Fernflower, spread over several threads.
+     * The classes are split into shards that keep outer and inner classes together, every shard is decompiled
+     * with its own Fernflower context, and the results are merged in class name order.
+     * If a {@link ClassStore} is installed, only classes it does not know yet are decompiled.
+     * Class -> Java
+     *
+     * @param classes     the `.class` bytes keyed by internal class name (e.g. {@code com/example/Foo})
+     * @param executor    the executor the shards are decompiled on
+     * @param parallelism the maximum number of shards decompiled at the same time, 1 decompiles everything in one context
+     * @return the Java source of every top-level class, keyed and sorted by internal class name
+     * @throws IllegalArgumentException if {@code classes} is null or empty, {@code executor} is null
+     *                                  or {@code parallelism} is less than 1
+     */
+    public static Map<String, String> convertClassBytesToJava(Map<String, byte[]> classes, Executor executor, int parallelism) {
+        if (classes == null || classes.isEmpty()) {
+            throw new IllegalArgumentException("Class bytes cannot be null or empty.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+
+        long bytesIn = 0;
+        for (byte[] classBytes : classes.values()) {
+            bytesIn += classBytes.length;
+        }
+        Metrics.Recording recording = Metrics.start(Metrics.FERNFLOWER, bytesIn).classes(classes.size());
+        try {
+            Map<String, String> sources = ClassStore.decompile(classes, executor, parallelism);
+            for (String source : sources.values()) {
+                recording.bytesOut(source.length());
+            }
+            recording.finish();
+            return sources;
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
+        }
+    }
+
+    /**
+     * Decompiles `.class` bytes to Java source files using Fernflower, without creating an intermediate JAR.
+     * Class -> Java
+     *
+     * @param classes   the `.class` bytes keyed by internal class name (e.g. {@code com/example/Foo})
+     * @param outputDir the directory where the `.java` files will be written
+     * @return the path to the directory containing the decompiled Java source files
+     * @throws IllegalArgumentException if {@code classes} is null or empty, or {@code outputDir} is null
+     * @throws IOException              if an I/O error occurs while writing the source files
+     */
+    public static Path convertClassBytesToJava(Map<String, byte[]> classes, Path outputDir) throws IOException {
+        if (outputDir == null) {
+            throw new IllegalArgumentException("Output directory path cannot be null or empty");
+        }
+
+        return FileUtils.writeFiles(outputDir, convertClassBytesToJava(classes), ".java");
     }
 }
\ No newline at end of file
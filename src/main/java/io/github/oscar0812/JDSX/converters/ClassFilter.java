@@ -0,0 +1,200 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the classes a conversion works on.
+ * <p>
+ * Filters are applied as early as possible, so excluded classes are never disassembled, translated or decompiled.
+ * A filter always looks at the outermost class, so inner classes are kept or dropped together with their outer class.
+ * Class names are given in dotted form, e.g. {@code com.example.Foo}.
+ * </p>
+ * Patterns:
+ * <ul>
+ *     <li>{@code com.example} matches the class {@code com.example} and everything in package {@code com.example}
+ *     and its sub-packages</li>
+ *     <li>{@code *} matches any part of a single name segment, e.g. {@code com.example.*Activity}</li>
+ *     <li>{@code **} matches across segments, e.g. {@code com.**.internal.**}</li>
+ *     <li>{@code ?} matches a single character other than {@code .}</li>
+ * </ul>
+ * A class is accepted if it matches any include pattern (or no include patterns were given),
+ * matches no exclude pattern and passes every predicate.
+ * <pre>{@code
+ * ClassFilter filter = ClassFilter.include("com.target").exclude("com.target.generated");
+ * }</pre>
+ */
+public class ClassFilter {
+
+    private static final ClassFilter ALL = new ClassFilter(List.of(), List.of(), List.of());
+
+    private final List<String> includes;
+    private final List<String> excludes;
+    private final List<Predicate<String>> predicates;
+    private final List<Pattern> includePatterns;
+    private final List<Pattern> excludePatterns;
+
+    private ClassFilter(List<String> includes, List<String> excludes, List<Predicate<String>> predicates) {
+        this.includes = Collections.unmodifiableList(includes);
+        this.excludes = Collections.unmodifiableList(excludes);
+        this.predicates = Collections.unmodifiableList(predicates);
+        this.includePatterns = compile(includes);
+        this.excludePatterns = compile(excludes);
+    }
+
+    /**
+     * @return a filter accepting every class
+     */
+    public static ClassFilter all() {
+        return ALL;
+    }
+
+    /**
+     * @param patterns the package prefixes, class names or globs of the classes to keep
+     * @return a filter accepting only classes matching one of the patterns
+     * @throws IllegalArgumentException if no pattern is given or a pattern is null or empty
+     */
+    public static ClassFilter include(String... patterns) {
+        return ALL.andInclude(patterns);
+    }
+
+    /**
+     * @param predicate receives the dotted name of the outermost class and returns true to keep it
+     * @return a filter accepting only classes the predicate accepts
+     * @throws IllegalArgumentException if the predicate is null
+     */
+    public static ClassFilter matching(Predicate<String> predicate) {
+        return ALL.and(predicate);
+    }
+
+    /**
+     * @param patterns additional package prefixes, class names or globs of the classes to keep
+     * @return a new filter additionally accepting classes matching one of the patterns
+     * @throws IllegalArgumentException if no pattern is given or a pattern is null or empty
+     */
+    public ClassFilter andInclude(String... patterns) {
+        return new ClassFilter(concat(includes, validate(patterns)), excludes, predicates);
+    }
+
+    /**
+     * @param patterns the package prefixes, class names or globs of the classes to drop
+     * @return a new filter rejecting classes matching one of the patterns
+     * @throws IllegalArgumentException if no pattern is given or a pattern is null or empty
+     */
+    public ClassFilter exclude(String... patterns) {
+        return new ClassFilter(includes, concat(excludes, validate(patterns)), predicates);
+    }
+
+    /**
+     * @param predicate receives the dotted name of the outermost class and returns true to keep it
+     * @return a new filter additionally requiring the predicate to accept a class
+     * @throws IllegalArgumentException if the predicate is null
+     */
+    public ClassFilter and(Predicate<String> predicate) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Predicate cannot be null.");
+        }
+        return new ClassFilter(includes, excludes, concat(predicates, List.of(predicate)));
+    }
+
+    /**
+     * @return true if this filter accepts every class
+     */
+    public boolean acceptsAll() {
+        return includes.isEmpty() && excludes.isEmpty() && predicates.isEmpty();
+    }
+
+    /**
+     * @param className a class name in internal ({@code com/example/Foo$Bar}) or dotted ({@code com.example.Foo$Bar}) form
+     * @return true if the class, or rather its outermost class, is accepted
+     */
+    public boolean accepts(String className) {
+        if (acceptsAll()) {
+            return true;
+        }
+
+        String outerClassName = InMemoryDecompiler.getOuterClassName(className.replace('.', '/')).replace('/', '.');
+        if (!includePatterns.isEmpty() && includePatterns.stream().noneMatch(p -> p.matcher(outerClassName).matches())) {
+            return false;
+        }
+        if (excludePatterns.stream().anyMatch(p -> p.matcher(outerClassName).matches())) {
+            return false;
+        }
+        for (Predicate<String> predicate : predicates) {
+            if (!predicate.test(outerClassName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Describes the filter for cache keys.
+     *
+     * @return a stable description, or {@code null} if the filter uses predicates and cannot be described
+     */
+    String describe() {
+        if (!predicates.isEmpty()) {
+            return null;
+        }
+        return acceptsAll() ? "" : "include" + includes + "exclude" + excludes;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFilter{includes=" + includes + ", excludes=" + excludes + ", predicates=" + predicates.size() + "}";
+    }
+
+    private static List<Pattern> compile(List<String> patterns) {
+        List<Pattern> compiled = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            compiled.add(toRegex(pattern));
+        }
+        return compiled;
+    }
+
+    private static Pattern toRegex(String pattern) {
+        if (pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0) {
+            // a plain name matches itself and everything below it
+            return Pattern.compile(Pattern.quote(pattern) + "(\\..*)?");
+        }
+
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' && i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else if (c == '*') {
+                regex.append("[^.]*");
+            } else if (c == '?') {
+                regex.append("[^.]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static List<String> validate(String[] patterns) {
+        if (patterns == null || patterns.length == 0) {
+            throw new IllegalArgumentException("Patterns cannot be null or empty.");
+        }
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern cannot be null or empty.");
+            }
+        }
+        return Arrays.asList(patterns);
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        List<T> result = new ArrayList<>(first);
+        result.addAll(second);
+        return result;
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in, class-granular store of decompiled Java sources shared across artifacts.
+ * <p>
+ * Many artifacts embed identical copies of the same libraries. Once a store is {@link #install(Path) installed},
+ * every outer class is hashed together with its inner classes, and the Java source decompiled for it is reused
+ * by any later conversion that contains the same bytes, no matter which JAR or DEX file it comes from.
+ * Only classes that were never seen before are handed to the decompiler.
+ * </p>
+ * <p>
+ * Entries are written to a temporary file and published with an atomic move, so several processes can share
+ * one store directory.
+ * </p>
+ */
+public class ClassStore {
+
+    private static final String FORMAT_VERSION = "1";
+
+    private static volatile ClassStore installed;
+
+    private final Path directory;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    private ClassStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Enables the class store for all decompiling conversions, storing the sources below the given directory.
+     *
+     * @param directory the store directory, created if it does not exist; it may be shared between processes
+     * @return the installed store
+     * @throws IllegalArgumentException if {@code directory} is null
+     * @throws IOException              if the store directory cannot be created
+     */
+    public static ClassStore install(Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Store directory cannot be null.");
+        }
+
+        ClassStore store = new ClassStore(directory.toAbsolutePath());
+        Files.createDirectories(store.directory);
+        installed = store;
+        return store;
+    }
+
+    /**
+     * Disables the class store. The store directory is left untouched.
+     */
+    public static void uninstall() {
+        installed = null;
+    }
+
+    /**
+     * @return the installed store, or {@code null} if the store is disabled
+     */
+    public static ClassStore getInstalled() {
+        return installed;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the number of outer classes whose sources were taken from this store since it was installed
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of outer classes that had to be decompiled since this store was installed
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Decompiles the given classes, reusing the sources of every outer class already in the installed store.
+     * Without an installed store all classes are decompiled.
+     *
+     * @see InMemoryDecompiler#decompile(Map, Executor, int)
+     */
+    static Map<String, String> decompile(Map<String, byte[]> classes, Executor executor, int parallelism) {
+        ClassStore store = installed;
+        if (store == null) {
+            return InMemoryDecompiler.decompile(classes, executor, parallelism);
+        }
+        return store.decompileNovel(classes, executor, parallelism);
+    }
+
+    private Map<String, String> decompileNovel(Map<String, byte[]> classes, Executor executor, int parallelism) {
+        Map<String, String> sources = new TreeMap<>();
+        Map<String, String> novelKeys = new TreeMap<>();
+        Map<String, byte[]> novelClasses = new TreeMap<>();
+
+        for (Map.Entry<String, Map<String, byte[]>> group : InMemoryDecompiler.groupByOuterClass(classes).entrySet()) {
+            String key = key(group.getValue());
+            Map<String, String> stored = read(key);
+            if (stored != null) {
+                hitCount.incrementAndGet();
+                sources.putAll(stored);
+            } else {
+                missCount.incrementAndGet();
+                novelKeys.put(group.getKey(), key);
+                novelClasses.putAll(group.getValue());
+            }
+        }
+
+        if (novelClasses.isEmpty()) {
+            return sources;
+        }
+
+        Map<String, String> decompiled = InMemoryDecompiler.decompile(novelClasses, executor, parallelism);
+        sources.putAll(decompiled);
+
+        Map<String, Map<String, String>> decompiledByGroup = new TreeMap<>();
+        for (String outerClassName : novelKeys.keySet()) {
+            decompiledByGroup.put(outerClassName, new TreeMap<>());
+        }
+        for (Map.Entry<String, String> source : decompiled.entrySet()) {
+            Map<String, String> groupSources = decompiledByGroup.get(InMemoryDecompiler.getOuterClassName(source.getKey()));
+            if (groupSources != null) {
+                groupSources.put(source.getKey(), source.getValue());
+            }
+        }
+        for (Map.Entry<String, Map<String, String>> group : decompiledByGroup.entrySet()) {
+            write(novelKeys.get(group.getKey()), group.getValue());
+        }
+
+        return sources;
+    }
+
+    private Map<String, String> read(String key) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(entryPath(key));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading class store entry: " + key, e);
+        }
+
+        Map<String, String> sources = new TreeMap<>();
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String className = input.readUTF();
+                byte[] source = new byte[input.readInt()];
+                input.readFully(source);
+                sources.put(className, new String(source, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            // truncated or foreign file, decompile again and overwrite it
+            return null;
+        }
+        return sources;
+    }
+
+    private void write(String key, Map<String, String> sources) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(sources.size());
+            for (Map.Entry<String, String> source : sources.entrySet()) {
+                byte[] sourceBytes = source.getValue().getBytes(StandardCharsets.UTF_8);
+                output.writeUTF(source.getKey());
+                output.writeInt(sourceBytes.length);
+                output.write(sourceBytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Path entryPath = entryPath(key);
+        try {
+            Files.createDirectories(entryPath.getParent());
+            Path tempPath = entryPath.resolveSibling(key + "." + UUID.randomUUID() + ".tmp");
+            Files.write(tempPath, bytes.toByteArray());
+            Files.move(tempPath, entryPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing class store entry: " + key, e);
+        }
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static String key(Map<String, byte[]> classes) {
+        return ContentHash.of(FORMAT_VERSION + "\0" + ConversionCache.getToolVersions(), classes);
+    }
+}
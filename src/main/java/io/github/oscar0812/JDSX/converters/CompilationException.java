@@ -0,0 +1,41 @@
+package io.github.oscar0812.JDSX.converters;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown when Java source code fails to compile.
+ * The compiler diagnostics are kept so callers can inspect them individually.
+ */
+public class CompilationException extends IOException {
+
+    private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+    public CompilationException(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        super("javac compilation failed:" + System.lineSeparator() + format(diagnostics));
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
+    }
+
+    /**
+     * @return the diagnostics reported by the compiler
+     */
+    public List<Diagnostic<? extends JavaFileObject>> getDiagnostics() {
+        return diagnostics;
+    }
+
+    private static String format(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> String.format("%s:%d:%d: %s",
+                        diagnostic.getSource() == null ? "<unknown>" : diagnostic.getSource().getName(),
+                        diagnostic.getLineNumber(),
+                        diagnostic.getColumnNumber(),
+                        diagnostic.getMessage(Locale.ROOT)))
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
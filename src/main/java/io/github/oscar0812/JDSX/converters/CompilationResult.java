@@ -0,0 +1,67 @@
+package io.github.oscar0812.JDSX.converters;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of an in-process Java compilation.
+ * Holds the generated `.class` bytes keyed by internal class name (e.g. {@code com/example/Foo})
+ * together with the diagnostics reported by the compiler.
+ */
+public class CompilationResult {
+
+    private final boolean success;
+    private final Map<String, byte[]> classes;
+    private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+    CompilationResult(boolean success, Map<String, byte[]> classes,
+                      List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        this.success = success;
+        this.classes = Collections.unmodifiableMap(classes);
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
+    }
+
+    /**
+     * @return {@code true} if the compiler reported no errors
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * @return the compiled classes, keyed by internal class name (e.g. {@code com/example/Foo$Inner})
+     */
+    public Map<String, byte[]> getClasses() {
+        return classes;
+    }
+
+    /**
+     * @return the warnings and errors reported by the compiler
+     */
+    public List<Diagnostic<? extends JavaFileObject>> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Writes the compiled classes to the given directory, creating package directories as needed.
+     *
+     * @param outputDir the directory to write the `.class` files into
+     * @return the output directory
+     * @throws IOException if an I/O error occurs while writing the files
+     */
+    public Path writeTo(Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            Path classFile = FileUtils.resolveInside(outputDir, entry.getKey() + ".class");
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, entry.getValue());
+        }
+        return outputDir;
+    }
+}
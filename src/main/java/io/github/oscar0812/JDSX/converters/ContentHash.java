@@ -0,0 +1,57 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SHA-256 hashes identifying conversion inputs by content.
+ */
+class ContentHash {
+
+    private ContentHash() {
+    }
+
+    /**
+     * Hashes a single input.
+     *
+     * @return the hex encoded SHA-256 of the bytes
+     */
+    static String of(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    /**
+     * Hashes named inputs in name order, so the result does not depend on the iteration order of the map.
+     *
+     * @param prefix  a value mixed into the hash, e.g. the conversion type and tool versions
+     * @param entries the input bytes keyed by name; the names are part of the hash
+     * @return the hex encoded SHA-256 of the prefix, names and bytes
+     */
+    static String of(String prefix, Map<String, byte[]> entries) {
+        MessageDigest digest = newDigest();
+        update(digest, prefix);
+        for (Map.Entry<String, byte[]> entry : new TreeMap<>(entries).entrySet()) {
+            update(digest, entry.getKey());
+            update(digest, Integer.toString(entry.getValue().length));
+            digest.update(entry.getValue());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package io.github.oscar0812.JDSX.converters;
+
+import com.android.tools.r8.D8;
+import com.googlecode.d2j.dex.Dex2jar;
+import org.jetbrains.java.decompiler.main.decompiler.BaseDecompiler;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Opt-in, content-addressed on-disk cache for conversion results.
+ * <p>
+ * Results are keyed by a SHA-256 hash of the input bytes, the conversion type and the versions of the tools doing
+ * the conversion (D8, dex2jar, Fernflower, the Java runtime). Once a cache is {@link #install(Path, long) installed},
+ * the file based conversions in {@link Dex}, {@link Jar}, {@link Smali}, {@link Class} and {@link Java} copy a cached
+ * result to their output location instead of converting again.
+ * </p>
+ * <p>
+ * Entries are first written to a private staging directory and then published with an atomic move, so several
+ * processes can share one cache directory without seeing half-written entries. When the cache grows beyond its
+ * size limit, the least recently used entries are removed until it is back to 90% of the limit, so the next few
+ * entries can be published without listing the whole cache again.
+ * </p>
+ */
+public class ConversionCache {
+
+    private static final String FORMAT_VERSION = "1";
+    private static final String STAGING_DIRECTORY = "staging";
+    private static final String RESULT = "result";
+    private static final int LOW_WATER_MARK_PERCENT = 90;
+
+    private static volatile ConversionCache installed;
+    private static volatile String toolVersions;
+
+    private final Path directory;
+    private final long maxSize;
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    private ConversionCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Produces a conversion result at the given path.
+     */
+    @FunctionalInterface
+    interface Producer {
+        void produce(Path output) throws IOException;
+    }
+
+    /**
+     * Enables caching for all conversions, storing the results below the given directory.
+     *
+     * @param directory the cache directory, created if it does not exist; it may be shared between processes
+     * @param maxSize   the size in bytes the cache may grow to before it is trimmed to 90% of it
+     * @return the installed cache
+     * @throws IllegalArgumentException if {@code directory} is null or {@code maxSize} is not positive
+     * @throws IOException              if the cache directory cannot be created or read
+     */
+    public static ConversionCache install(Path directory, long maxSize) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Cache directory cannot be null.");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+
+        ConversionCache cache = new ConversionCache(directory.toAbsolutePath(), maxSize);
+        Files.createDirectories(cache.directory.resolve(STAGING_DIRECTORY));
+        cache.size.set(cache.computeSize());
+        installed = cache;
+        return cache;
+    }
+
+    /**
+     * Disables caching. The cache directory is left untouched.
+     */
+    public static void uninstall() {
+        installed = null;
+    }
+
+    /**
+     * @return the installed cache, or {@code null} if caching is disabled
+     */
+    public static ConversionCache getInstalled() {
+        return installed;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of conversions answered from this cache since it was installed
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of conversions that had to be computed since this cache was installed
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Removes all entries from the cache.
+     *
+     * @throws IOException if an entry cannot be deleted
+     */
+    public void clear() throws IOException {
+        for (Path entry : listEntries()) {
+            remove(entry);
+        }
+        size.set(computeSize());
+    }
+
+    /**
+     * Returns a cached result for an input file, or produces and caches it.
+     * The input file is only read when a cache is installed.
+     *
+     * @see #cached(String, Map, Path, Producer)
+     */
+    static Path cached(String conversion, Path input, Path output, Producer producer) throws IOException {
+        if (installed == null || conversion == null) {
+            producer.produce(output);
+            return output;
+        }
+        return cached(conversion, Files.readAllBytes(input), output, producer);
+    }
+
+    /**
+     * Returns a cached result for a single input, or produces and caches it.
+     *
+     * @see #cached(String, Map, Path, Producer)
+     */
+    static Path cached(String conversion, byte[] input, Path output, Producer producer) throws IOException {
+        return cached(conversion, Map.of("", input), output, producer);
+    }
+
+    /**
+     * Copies a cached result to {@code output}, or produces it there and caches it.
+     * Without an installed cache the producer simply writes to {@code output}.
+     *
+     * @param conversion the conversion type, including any option that changes the result,
+     *                   or {@code null} if the result cannot be cached
+     * @param inputs     the input bytes keyed by a name that is part of the key (e.g. a relative path)
+     * @param output     the file or directory the result is written to
+     * @param producer   writes the result to the path it is given
+     * @return {@code output}
+     * @throws IOException if the result cannot be produced or copied
+     */
+    static Path cached(String conversion, Map<String, byte[]> inputs, Path output, Producer producer) throws IOException {
+        ConversionCache cache = installed;
+        if (cache == null || conversion == null) {
+            producer.produce(output);
+            return output;
+        }
+        return cache.getOrProduce(key(conversion, inputs), output, producer);
+    }
+
+    /**
+     * Builds the conversion type of a filtered conversion.
+     *
+     * @param conversion the conversion type without a filter
+     * @param filter     the filter applied to the classes
+     * @return the conversion type including the filter, or {@code null} if the filter uses predicates
+     * and the result cannot be cached
+     */
+    static String conversion(String conversion, ClassFilter filter) {
+        String description = filter.describe();
+        if (description == null) {
+            return null;
+        }
+        return description.isEmpty() ? conversion : conversion + ":" + description;
+    }
+
+    private Path getOrProduce(String key, Path output, Producer producer) throws IOException {
+        Path entry = directory.resolve(key.substring(0, 2)).resolve(key);
+        Path cachedOutput = entry.resolve(RESULT);
+
+        if (Files.exists(cachedOutput)) {
+            try {
+                copy(cachedOutput, output);
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+                hitCount.incrementAndGet();
+                return output;
+            } catch (IOException e) {
+                // the entry was evicted by another process while it was copied, fall back to converting
+            }
+        }
+
+        missCount.incrementAndGet();
+        Path staging = Files.createDirectories(directory.resolve(STAGING_DIRECTORY).resolve(UUID.randomUUID().toString()));
+        try {
+            // produce under the real file name, some tools derive sibling names from it
+            Path stagedOutput = staging.resolve(output.getFileName().toString());
+            producer.produce(stagedOutput);
+            copy(stagedOutput, output);
+            Files.move(stagedOutput, staging.resolve(RESULT));
+            publish(staging, entry);
+        } finally {
+            FileUtils.deleteDirectory(staging);
+        }
+        return output;
+    }
+
+    private void publish(Path staging, Path entry) throws IOException {
+        long entrySize = sizeOf(staging);
+        Files.createDirectories(entry.getParent());
+        try {
+            Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+            // another thread or process published the same entry first
+            return;
+        } catch (IOException e) {
+            if (Files.exists(entry)) {
+                return;
+            }
+            throw e;
+        }
+
+        if (size.addAndGet(entrySize) > maxSize) {
+            evict();
+        }
+    }
+
+    private synchronized void evict() throws IOException {
+        List<Path> entries = listEntries();
+        Map<Path, FileTime> lastUsed = new TreeMap<>();
+        long total = 0;
+        for (Path entry : entries) {
+            lastUsed.put(entry, Files.getLastModifiedTime(entry));
+            total += sizeOf(entry);
+        }
+
+        entries.sort(Comparator.comparing(lastUsed::get));
+        // trim below the limit, so the next entries do not each trigger another eviction; split to avoid overflow
+        long lowWaterMark = maxSize / 100 * LOW_WATER_MARK_PERCENT + maxSize % 100 * LOW_WATER_MARK_PERCENT / 100;
+        for (Path entry : entries) {
+            if (total <= lowWaterMark) {
+                break;
+            }
+            long entrySize = sizeOf(entry);
+            remove(entry);
+            total -= entrySize;
+        }
+        size.set(total);
+    }
+
+    /**
+     * Moves an entry out of the way before deleting it, so other processes never see a partially deleted entry.
+     */
+    private void remove(Path entry) throws IOException {
+        Path trash = directory.resolve(STAGING_DIRECTORY).resolve(UUID.randomUUID().toString());
+        try {
+            Files.move(entry, trash, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // already removed by another process
+            return;
+        }
+        FileUtils.deleteDirectory(trash);
+    }
+
+    private List<Path> listEntries() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path prefix : prefixes) {
+                if (prefix.getFileName().toString().equals(STAGING_DIRECTORY)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> prefixEntries = Files.newDirectoryStream(prefix)) {
+                    prefixEntries.forEach(entries::add);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private long computeSize() throws IOException {
+        long total = 0;
+        for (Path entry : listEntries()) {
+            total += sizeOf(entry);
+        }
+        return total;
+    }
+
+    private static long sizeOf(Path path) throws IOException {
+        try (Stream<Path> stream = Files.walk(path)) {
+            return stream.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static void copy(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+
+        try (Stream<Path> stream = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                Path targetPath = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(targetPath);
+                } else {
+                    Files.copy(path, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    private static String key(String conversion, Map<String, byte[]> inputs) {
+        return ContentHash.of(FORMAT_VERSION + "\0" + getToolVersions() + "\0" + conversion, inputs);
+    }
+
+    /**
+     * Describes the tools that produce conversion results, so upgrading any of them invalidates old entries.
+     */
+    static String getToolVersions() {
+        if (toolVersions == null) {
+            toolVersions = String.join(";",
+                    describeCodeSource(D8.class),
+                    describeCodeSource(Dex2jar.class),
+                    describeCodeSource(BaseDecompiler.class),
+                    describeCodeSource(ConversionCache.class),
+                    "java " + Runtime.version().feature());
+        }
+        return toolVersions;
+    }
+
+    private static String describeCodeSource(java.lang.Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return type.getName();
+        }
+
+        try {
+            Path location = Paths.get(codeSource.getLocation().toURI());
+            if (Files.isRegularFile(location)) {
+                return location.getFileName() + ":" + Files.size(location);
+            }
+        } catch (Exception e) {
+            // not a local file, fall back to the location itself
+        }
+        return codeSource.getLocation().toString();
+    }
+}
@@ -0,0 +1,454 @@
+package io.github.oscar0812.JDSX.converters;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A long-running conversion server that keeps the converters loaded and the JIT warm between requests.
+ * <p>
+ * The daemon only listens on the loopback interface and speaks plain HTTP, see {@link DaemonClient}:
+ * </p>
+ * <ul>
+ *     <li>{@code POST /convert?target=JAVA&output=/path/to/out} with one input path per line converts the inputs
+ *     like {@link Batch#convert(List, TargetFormat, Path, ForkJoinPool)} and responds with
+ *     {@link BatchReport#toJson()}. The {@value #FAILED_HEADER} header holds the number of failed inputs.</li>
+ *     <li>{@code GET /status} reports the active, queued, completed and rejected requests.</li>
+ *     <li>{@code GET /metrics} exports the {@link Metrics#getRegistry() per-stage metrics} in the Prometheus text
+ *     format, {@code GET /metrics?format=json} as JSON.</li>
+ *     <li>{@code POST /shutdown} stops the daemon.</li>
+ * </ul>
+ * At most {@code maxConcurrent} conversion requests run at the same time, all of them sharing one fork/join pool.
+ * Up to {@code maxQueued} further requests wait for a slot, any request beyond that is rejected with status 503.
+ * <p>
+ * Every request has to carry the token the daemon writes to its {@link #tokenFile(int) token file} on startup as
+ * {@code Authorization: Bearer <token>}. Requests with an {@code Origin} header or a {@code Host} other than a loopback
+ * address are rejected, and {@code POST} requests must use {@value #CONTENT_TYPE}, so web pages cannot reach the daemon
+ * with simple cross-origin requests.
+ * </p>
+ */
+public class ConversionDaemon implements AutoCloseable {
+
+    /**
+     * The port the daemon listens on by default.
+     */
+    public static final int DEFAULT_PORT = 7655;
+
+    /**
+     * The response header holding the number of inputs that failed to convert.
+     */
+    public static final String FAILED_HEADER = "X-JDSX-Failed";
+
+    /**
+     * The content type of {@code POST} requests, one that browsers cannot send without a CORS preflight.
+     */
+    public static final String CONTENT_TYPE = "application/vnd.jdsx+text; charset=utf-8";
+
+    private static final List<String> SIMPLE_CONTENT_TYPES =
+            List.of("text/plain", "application/x-www-form-urlencoded", "multipart/form-data");
+
+    private final HttpServer server;
+    private final byte[] token;
+    private final Path tokenFile;
+    private final ExecutorService handlerExecutor;
+    private final ForkJoinPool pool;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private ConversionDaemon(HttpServer server, String token, Path tokenFile, int maxConcurrent, int maxQueued,
+                             int parallelism) {
+        this.server = server;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.tokenFile = tokenFile;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.pool = new ForkJoinPool(parallelism);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.handlerExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "jdsx-daemon-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server.setExecutor(handlerExecutor);
+        server.createContext("/convert", exchange -> handle(exchange, "POST", this::convert));
+        server.createContext("/status", exchange -> handle(exchange, "GET", this::status));
+        server.createContext("/metrics", exchange -> handle(exchange, "GET", this::metrics));
+        server.createContext("/shutdown", exchange -> handle(exchange, "POST", this::shutdown));
+    }
+
+    /**
+     * Starts a daemon on the default port with one conversion slot per processor.
+     *
+     * @see #start(int, int, int)
+     */
+    public static ConversionDaemon start() throws IOException {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return start(DEFAULT_PORT, processors, 4 * processors);
+    }
+
+    /**
+     * Starts a daemon on the loopback interface and writes a new random token to its {@link #tokenFile(int) token file},
+     * readable by the current user only.
+     *
+     * @param port          the port to listen on, 0 picks a free port
+     * @param maxConcurrent the maximum number of conversion requests running at the same time
+     * @param maxQueued     the maximum number of conversion requests waiting for a slot
+     * @return the running daemon
+     * @throws IllegalArgumentException if {@code port} is out of range, {@code maxConcurrent} is less than 1
+     *                                  or {@code maxQueued} is negative
+     * @throws IOException              if the port cannot be bound or the token file cannot be written
+     */
+    public static ConversionDaemon start(int port, int maxConcurrent, int maxQueued) throws IOException {
+        if (port < 0 || port > 0xFFFF) {
+            throw new IllegalArgumentException("Port out of range: " + port);
+        }
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Max concurrent requests must be at least 1.");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("Max queued requests cannot be negative.");
+        }
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        Path tokenFile = tokenFile(server.getAddress().getPort());
+        try {
+            writeTokenFile(tokenFile, token);
+        } catch (IOException e) {
+            server.stop(0);
+            throw e;
+        }
+
+        ConversionDaemon daemon = new ConversionDaemon(server, token, tokenFile, maxConcurrent, maxQueued,
+                Runtime.getRuntime().availableProcessors());
+        server.start();
+        return daemon;
+    }
+
+    /**
+     * @param port the port the daemon listens on
+     * @return the file holding the token of the daemon on {@code port}: {@code ~/.jdsx/daemon-<port>.token}
+     */
+    public static Path tokenFile(int port) {
+        return Paths.get(System.getProperty("user.home"), ".jdsx", "daemon-" + port + ".token");
+    }
+
+    private static void writeTokenFile(Path tokenFile, String token) throws IOException {
+        Files.createDirectories(tokenFile.getParent());
+        Files.deleteIfExists(tokenFile);
+        if (tokenFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(tokenFile);
+        }
+        Files.writeString(tokenFile, token);
+    }
+
+    /**
+     * Runs a daemon until it receives a shutdown request. The converters are {@link WarmUp warmed up} in the background
+     * while the first requests are already accepted.
+     * Arguments: {@code [--port N] [--max-concurrent N] [--max-queued N]}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int port = DEFAULT_PORT;
+        int maxConcurrent = processors;
+        int maxQueued = 4 * processors;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-concurrent":
+                    maxConcurrent = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-queued":
+                    maxQueued = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        try (ConversionDaemon daemon = start(port, maxConcurrent, maxQueued)) {
+            System.out.println("JDSX daemon listening on 127.0.0.1:" + daemon.getPort() + ", token in " + daemon.getTokenFile());
+            WarmUp.runInBackground().thenAccept(report -> System.out.println("JDSX warm-up: " + report.toJson()));
+            daemon.awaitShutdown();
+        }
+    }
+
+    /**
+     * @return the port the daemon listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the file holding the token requests have to carry, deleted when the daemon stops
+     */
+    public Path getTokenFile() {
+        return tokenFile;
+    }
+
+    /**
+     * Blocks until the daemon has been stopped by {@link #close()} or a shutdown request.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void awaitShutdown() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Stops accepting requests, waits up to a second for running exchanges and releases the threads.
+     */
+    @Override
+    public void close() {
+        if (stopped.getCount() == 0) {
+            return;
+        }
+        server.stop(1);
+        handlerExecutor.shutdown();
+        pool.shutdown();
+        try {
+            Files.deleteIfExists(tokenFile);
+        } catch (IOException e) {
+            // the token is useless once the daemon stopped
+        }
+        stopped.countDown();
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, String method, Handler handler) throws IOException {
+        try {
+            if (exchange.getRequestHeaders().containsKey("Origin")) {
+                respond(exchange, 403, error("Cross-origin requests are not allowed"));
+                return;
+            }
+            if (!isLoopbackHost(exchange.getRequestHeaders().getFirst("Host"))) {
+                respond(exchange, 403, error("Host not allowed"));
+                return;
+            }
+            if (!isAuthorized(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                respond(exchange, 401, error("Missing or invalid token, see " + tokenFile));
+                return;
+            }
+            if (!method.equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Method not allowed, use " + method));
+                return;
+            }
+            if ("POST".equals(method) && !isPreflightedContentType(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+                respond(exchange, 415, error("Unsupported content type, use " + CONTENT_TYPE));
+                return;
+            }
+            handler.handle(exchange);
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(e.toString()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean isAuthorized(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        byte[] presented = authorization.substring("Bearer ".length()).strip().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(token, presented);
+    }
+
+    /**
+     * @return true if the {@code Host} header names the loopback interface, which rules out DNS rebinding
+     */
+    static boolean isLoopbackHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        String name = host.strip().toLowerCase(Locale.ROOT);
+        if (name.startsWith("[")) {
+            int end = name.indexOf(']');
+            name = end < 0 ? name : name.substring(1, end);
+        } else if (name.indexOf(':') >= 0) {
+            name = name.substring(0, name.indexOf(':'));
+        }
+        return name.equals("localhost") || name.equals("::1") || name.equals("0:0:0:0:0:0:0:1")
+                || name.matches("127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}");
+    }
+
+    /**
+     * @return true if the content type is set and not one of the types a browser sends cross-origin without a preflight
+     */
+    static boolean isPreflightedContentType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int semicolon = contentType.indexOf(';');
+        String mediaType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).strip()
+                .toLowerCase(Locale.ROOT);
+        return !mediaType.isEmpty() && !SIMPLE_CONTENT_TYPES.contains(mediaType);
+    }
+
+    private void convert(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        TargetFormat target;
+        try {
+            target = TargetFormat.valueOf(query.getOrDefault("target", "").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, error("Unknown target format: " + query.get("target")));
+            return;
+        }
+        String output = query.get("output");
+        if (output == null || output.isEmpty()) {
+            respond(exchange, 400, error("Missing output directory"));
+            return;
+        }
+        List<Path> inputs = new ArrayList<>();
+        for (String line : body.split("\\R")) {
+            if (!line.isBlank()) {
+                inputs.add(Paths.get(line.strip()));
+            }
+        }
+
+        if (!acquire()) {
+            rejected.incrementAndGet();
+            respond(exchange, 503, error("Too many queued requests"));
+            return;
+        }
+        try {
+            BatchReport report = Batch.convert(inputs, target, Paths.get(output), pool);
+            exchange.getResponseHeaders().set(FAILED_HEADER, String.valueOf(report.getFailed().size()));
+            respond(exchange, 200, report.toJson());
+        } catch (IllegalArgumentException | IOException e) {
+            respond(exchange, 400, error(e.toString()));
+        } finally {
+            permits.release();
+            completed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Takes a conversion slot, waiting in the queue if none is free.
+     *
+     * @return false if the queue is full
+     */
+    private boolean acquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            permits.acquireUninterruptibly();
+            return true;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void status(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, "{\"active\":" + (maxConcurrent - permits.availablePermits()) +
+                ",\"queued\":" + queued.get() +
+                ",\"completed\":" + completed.get() +
+                ",\"rejected\":" + rejected.get() +
+                ",\"maxConcurrent\":" + maxConcurrent +
+                ",\"maxQueued\":" + maxQueued +
+                ",\"parallelism\":" + pool.getParallelism() + "}");
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        if ("json".equals(query.get("format"))) {
+            respond(exchange, 200, Metrics.getRegistry().toJson());
+        } else {
+            respond(exchange, 200, "text/plain; version=0.0.4; charset=utf-8", Metrics.getRegistry().toPrometheus());
+        }
+    }
+
+    private void shutdown(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, "{\"stopping\":true}");
+        // the exchange has to finish before the server can stop
+        Thread stopper = new Thread(this::close, "jdsx-daemon-shutdown");
+        stopper.setDaemon(true);
+        stopper.start();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals < 0 ? parameter : parameter.substring(0, equals);
+            String value = equals < 0 ? "" : parameter.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + Json.quote(message) + "}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        respond(exchange, status, "application/json; charset=utf-8", json);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.oscar0812.JDSX.converters;
+
+/**
+ * Receives an event whenever a stage of a conversion starts and finishes, e.g. dex2jar translating a DEX file or
+ * Fernflower decompiling a set of classes. Register with {@link Metrics#addListener(ConversionListener)}.
+ * <p>
+ * Stages run concurrently and nest, e.g. the {@value Metrics#WRITE} stage runs while {@value Metrics#BAKSMALI} still
+ * disassembles, so the methods are called from many threads and must be thread-safe. They are called on the thread
+ * running the stage and should return quickly. Exceptions thrown by a listener are ignored.
+ * </p>
+ */
+public interface ConversionListener {
+
+    /**
+     * @param event the stage that started; only the stage name and start time are set
+     */
+    default void stageStarted(StageEvent event) {
+    }
+
+    /**
+     * @param event the stage that finished, successfully or with a failure
+     */
+    default void stageFinished(StageEvent event) {
+    }
+}
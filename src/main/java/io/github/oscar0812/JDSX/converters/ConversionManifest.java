@@ -0,0 +1,151 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Records which input hash every output of an incremental conversion was produced from.
+ * <p>
+ * The manifest is stored as a properties file inside the output directory. Every entry maps a class
+ * (or a group of classes converted together) to the hash of its input and the output files generated for it,
+ * relative to the output directory.
+ * </p>
+ * <p>
+ * Lookups may run concurrently, modifications must not overlap with any other access.
+ * </p>
+ */
+class ConversionManifest {
+
+    static final String FILE_NAME = ".jdsx-manifest.properties";
+
+    private static final String SEPARATOR = "\n";
+
+    private final Path outputDir;
+    private final Map<String, String> hashes = new TreeMap<>();
+    private final Map<String, List<String>> outputs = new TreeMap<>();
+
+    private ConversionManifest(Path outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * Loads the manifest of an output directory. A directory without a manifest yields an empty manifest.
+     */
+    static ConversionManifest load(Path outputDir) throws IOException {
+        ConversionManifest manifest = new ConversionManifest(outputDir);
+        Path manifestPath = outputDir.resolve(FILE_NAME);
+        if (Files.notExists(manifestPath)) {
+            return manifest;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(manifestPath)) {
+            properties.load(inputStream);
+        }
+        for (String name : properties.stringPropertyNames()) {
+            List<String> values = Arrays.asList(properties.getProperty(name).split(SEPARATOR));
+            manifest.hashes.put(name, values.get(0));
+            manifest.outputs.put(name, new ArrayList<>(values.subList(1, values.size())));
+        }
+        return manifest;
+    }
+
+    boolean contains(String name) {
+        return hashes.containsKey(name);
+    }
+
+    Set<String> names() {
+        return new TreeSet<>(hashes.keySet());
+    }
+
+    /**
+     * @return true if the entry was produced from an input with the given hash and all of its outputs still exist
+     */
+    boolean isUpToDate(String name, String hash) {
+        if (!hash.equals(hashes.get(name))) {
+            return false;
+        }
+        for (String output : outputs.get(name)) {
+            if (Files.notExists(outputDir.resolve(output))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void put(String name, String hash, List<String> entryOutputs) {
+        hashes.put(name, hash);
+        outputs.put(name, new ArrayList<>(entryOutputs));
+    }
+
+    /**
+     * Deletes the outputs of an entry and removes it from the manifest.
+     */
+    void remove(String name) throws IOException {
+        List<String> entryOutputs = outputs.remove(name);
+        hashes.remove(name);
+        if (entryOutputs == null) {
+            return;
+        }
+        for (String output : entryOutputs) {
+            Files.deleteIfExists(outputDir.resolve(output));
+        }
+    }
+
+    /**
+     * Compares the recorded hashes with the hashes of the current inputs.
+     *
+     * @param currentHashes the input hash of every entry of the current conversion
+     * @return the added, changed, removed and unchanged entries
+     */
+    IncrementalResult diff(Map<String, String> currentHashes) {
+        Set<String> added = new TreeSet<>();
+        Set<String> changed = new TreeSet<>();
+        Set<String> unchanged = new TreeSet<>();
+        for (Map.Entry<String, String> entry : currentHashes.entrySet()) {
+            if (!hashes.containsKey(entry.getKey())) {
+                added.add(entry.getKey());
+            } else if (isUpToDate(entry.getKey(), entry.getValue())) {
+                unchanged.add(entry.getKey());
+            } else {
+                changed.add(entry.getKey());
+            }
+        }
+
+        Set<String> removed = new TreeSet<>(hashes.keySet());
+        removed.removeAll(currentHashes.keySet());
+        return new IncrementalResult(outputDir, added, changed, removed, unchanged);
+    }
+
+    /**
+     * Writes the manifest to the output directory, replacing the previous one atomically.
+     */
+    void save() throws IOException {
+        Properties properties = new Properties();
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            List<String> values = new ArrayList<>();
+            values.add(entry.getValue());
+            values.addAll(outputs.get(entry.getKey()));
+            properties.setProperty(entry.getKey(), String.join(SEPARATOR, values));
+        }
+
+        Path manifestPath = outputDir.resolve(FILE_NAME);
+        Path tempPath = outputDir.resolve(FILE_NAME + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+            properties.store(outputStream, "JDSXTool incremental conversion manifest");
+        }
+        Files.move(tempPath, manifestPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
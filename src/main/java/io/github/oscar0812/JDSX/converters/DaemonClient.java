@@ -0,0 +1,205 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * A thin client for a {@link ConversionDaemon} running on this machine.
+ * Every request carries the token read from the daemon's {@link ConversionDaemon#tokenFile(int) token file}.
+ * <pre>{@code
+ * DaemonClient client = new DaemonClient(ConversionDaemon.DEFAULT_PORT);
+ * DaemonClient.Response response = client.convert(List.of(dexPath), TargetFormat.JAVA, outputDir);
+ * }</pre>
+ */
+public class DaemonClient {
+
+    private final URI baseUri;
+    private final Path tokenFile;
+    private final HttpClient httpClient;
+
+    /**
+     * @param port the port the daemon listens on
+     * @throws IllegalArgumentException if {@code port} is out of range
+     */
+    public DaemonClient(int port) {
+        if (port < 1 || port > 0xFFFF) {
+            throw new IllegalArgumentException("Port out of range: " + port);
+        }
+        this.baseUri = URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + port);
+        this.tokenFile = ConversionDaemon.tokenFile(port);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Converts the inputs on the daemon. Relative paths are resolved against this process's working directory,
+     * since the daemon may run in a different one.
+     *
+     * @param inputs    the DEX, JAR or APK files, `.class` files, directories of `.class` files, Smali or Java files
+     *                  to convert
+     * @param target    the format to convert to
+     * @param outputDir the directory the outputs are written below
+     * @return the response, holding the {@link BatchReport#toJson() batch report} on success
+     * @throws IllegalArgumentException if any argument is null
+     * @throws IOException              if the daemon cannot be reached or its token cannot be read
+     * @throws InterruptedException     if the thread is interrupted while waiting for the response
+     */
+    public Response convert(List<Path> inputs, TargetFormat target, Path outputDir) throws IOException, InterruptedException {
+        if (inputs == null || target == null || outputDir == null) {
+            throw new IllegalArgumentException("Inputs, target format and output directory cannot be null.");
+        }
+
+        List<String> lines = new ArrayList<>(inputs.size());
+        for (Path input : inputs) {
+            lines.add(input.toAbsolutePath().toString());
+        }
+        URI uri = baseUri.resolve("/convert?target=" + target.name() +
+                "&output=" + URLEncoder.encode(outputDir.toAbsolutePath().toString(), StandardCharsets.UTF_8));
+
+        return send(HttpRequest.newBuilder(uri)
+                .header("Content-Type", ConversionDaemon.CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofString(String.join("\n", lines), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return the response holding the daemon's request counters
+     * @throws IOException          if the daemon cannot be reached or its token cannot be read
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    public Response status() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(baseUri.resolve("/status")).GET());
+    }
+
+    /**
+     * @return the response holding the daemon's per-stage metrics as JSON, see {@link MetricsRegistry#toJson()}
+     * @throws IOException          if the daemon cannot be reached or its token cannot be read
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    public Response metrics() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(baseUri.resolve("/metrics?format=json")).GET());
+    }
+
+    /**
+     * Asks the daemon to stop.
+     *
+     * @return the response
+     * @throws IOException          if the daemon cannot be reached or its token cannot be read
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    public Response shutdown() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(baseUri.resolve("/shutdown"))
+                .header("Content-Type", ConversionDaemon.CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private Response send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        String token;
+        try {
+            token = Files.readString(tokenFile).strip();
+        } catch (NoSuchFileException e) {
+            throw new IOException("No daemon token found, is the daemon running? " + tokenFile, e);
+        }
+        request.header("Authorization", "Bearer " + token);
+
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        int failed = response.headers().firstValue(ConversionDaemon.FAILED_HEADER).map(Integer::parseInt).orElse(0);
+        return new Response(response.statusCode(), response.body(), failed);
+    }
+
+    /**
+     * Converts inputs on a running daemon and prints the JSON report.
+     * Arguments: {@code [--port N] <target> <outputDir> <input>...}. Exits with 1 if any input failed,
+     * or 2 if the request was rejected.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = ConversionDaemon.DEFAULT_PORT;
+        int first = 0;
+        if (args.length > 1 && "--port".equals(args[0])) {
+            port = Integer.parseInt(args[1]);
+            first = 2;
+        }
+        if (args.length - first < 3) {
+            System.err.println("Usage: DaemonClient [--port N] <target> <outputDir> <input>...");
+            System.exit(2);
+        }
+
+        TargetFormat target = TargetFormat.valueOf(args[first].toUpperCase(Locale.ROOT));
+        Path outputDir = Path.of(args[first + 1]);
+        List<Path> inputs = List.of(args).subList(first + 2, args.length).stream()
+                .map(Path::of)
+                .collect(Collectors.toList());
+
+        Response response = new DaemonClient(port).convert(inputs, target, outputDir);
+        System.out.println(response.getBody());
+        if (!response.isOk()) {
+            System.exit(2);
+        }
+        if (response.getFailedCount() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * A response from the daemon.
+     */
+    public static class Response {
+        private final int statusCode;
+        private final String body;
+        private final int failedCount;
+
+        Response(int statusCode, String body, int failedCount) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.failedCount = failedCount;
+        }
+
+        /**
+         * @return the HTTP status code: 200 on success, 400 for invalid requests, 401 for a stale token,
+         *         503 if the daemon's queue is full
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * @return true if the request was accepted and processed
+         */
+        public boolean isOk() {
+            return statusCode == 200;
+        }
+
+        /**
+         * @return the JSON body
+         */
+        public String getBody() {
+            return body;
+        }
+
+        /**
+         * @return the number of inputs that failed to convert
+         */
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Response{statusCode=" + statusCode + ", failed=" + failedCount + ", body=" + body + "}";
+        }
+    }
+}
@@ -1,11 +1,28 @@
 package io.github.oscar0812.JDSX.converters;
 
+import com.googlecode.d2j.dex.BaseDexExceptionHandler;
+import com.googlecode.d2j.dex.Dex2jar;
+import com.googlecode.d2j.reader.DexFileReader;
 import com.googlecode.d2j.smali.BaksmaliCmd;
 import com.googlecode.dex2jar.tools.Dex2jarCmd;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 /**
  * Utility class for converting between DEX, JAR, and Smali formats.
@@ -49,9 +66,224 @@ public class Dex {
             throw new IllegalArgumentException("The provided file is not a valid DEX file: " + dexPath);
         }
 
-        Dex2jarCmd.main(dexPath.toString(), "-o", jarPath.toString(), "--force");
+        return ConversionCache.cached("dex-to-class-jar", dexPath, jarPath, output -> {
+            Metrics.Recording recording = Metrics.start(Metrics.DEX2JAR, Files.size(dexPath));
+            try {
+                Dex2jarCmd.main(dexPath.toString(), "-o", output.toString(), "--force");
+                recording.bytesOut(Files.size(output)).filesWritten(1).finish();
+            } catch (IOException e) {
+                throw recording.fail(e);
+            } catch (RuntimeException e) {
+                throw recording.fail(e);
+            }
+        });
+    }
+
+    /**
+     * Converts a DEX file to `.class` files in a sibling folder named `classes_out`, without creating a JAR.
+     * Dex -> Class
+     *
+     * @param dexPath the path to the input DEX file
+     * @return the path to the directory containing the generated `.class` files
+     * @throws IllegalArgumentException if {@code dexPath} is invalid or the file is not a valid DEX file
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertDexToClasses(Path dexPath) throws IOException {
+        FileUtils.validateFilePath(dexPath, "Dex path");
+
+        Path outputDir = FileUtils.getSiblingDirectory(dexPath, "classes_out");
+        return convertDexToClasses(dexPath, outputDir);
+    }
+
+    /**
+     * Converts a DEX file to `.class` files in the given directory, without creating a JAR.
+     * Dex -> Class
+     *
+     * @param dexPath   the path to the input DEX file
+     * @param outputDir the directory where the `.class` files will be written
+     * @return the path to the directory containing the generated `.class` files
+     * @throws IllegalArgumentException if {@code dexPath} is invalid, {@code outputDir} is null
+     *                                  or the file is not a valid DEX file
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertDexToClasses(Path dexPath, Path outputDir) throws IOException {
+        return convertDexToClasses(dexPath, outputDir, ClassFilter.all());
+    }
+
+    /**
+     * Converts the classes of a DEX file accepted by a filter to `.class` files in the given directory.
+     * Rejected classes are dropped before the translation and never translated.
+     * Dex -> Class
+     *
+     * @param dexPath   the path to the input DEX file
+     * @param outputDir the directory where the `.class` files will be written
+     * @param filter    selects the classes to convert
+     * @return the path to the directory containing the generated `.class` files
+     * @throws IllegalArgumentException if {@code dexPath} is invalid, {@code outputDir} or {@code filter} is null
+     *                                  or the file is not a valid DEX file
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertDexToClasses(Path dexPath, Path outputDir, ClassFilter filter) throws IOException {
+        FileUtils.validateFilePath(dexPath, "Dex path");
+
+        if (outputDir == null) {
+            throw new IllegalArgumentException("Output directory path cannot be null or empty");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+
+        if (!isValidDexFile(dexPath)) {
+            throw new IllegalArgumentException("The provided file is not a valid DEX file: " + dexPath);
+        }
+
+        byte[] dexBytes = Files.readAllBytes(dexPath);
+        return ConversionCache.cached(ConversionCache.conversion("dex-to-classes", filter), dexBytes, outputDir, output -> {
+            Files.createDirectories(output);
+            Metrics.Recording recording = Metrics.start(Metrics.DEX2JAR, dexBytes.length);
+            try {
+                translateDexToClasses(dexBytes, filter, output);
+                for (Path classFile : FileUtils.findFilesByExtension(output, ".class")) {
+                    recording.classes(1).filesWritten(1).bytesOut(Files.size(classFile));
+                }
+                recording.finish();
+            } catch (IOException e) {
+                throw recording.fail(e);
+            } catch (RuntimeException e) {
+                throw recording.fail(e);
+            }
+        });
+    }
+
+    /**
+     * Converts a DEX file to `.class` bytes, without creating a JAR.
+     * Dex -> Class
+     *
+     * @param dexPath the path to the input DEX file
+     * @return the `.class` bytes keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IllegalArgumentException if {@code dexPath} is invalid or the file is not a valid DEX file
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Map<String, byte[]> convertDexToClassBytes(Path dexPath) throws IOException {
+        return convertDexToClassBytes(dexPath, ClassFilter.all());
+    }
+
+    /**
+     * Converts the classes of a DEX file accepted by a filter to `.class` bytes, without creating a JAR.
+     * Dex -> Class
+     *
+     * @param dexPath the path to the input DEX file
+     * @param filter  selects the classes to convert
+     * @return the `.class` bytes keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IllegalArgumentException if {@code dexPath} is invalid, {@code filter} is null
+     *                                  or the file is not a valid DEX file
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Map<String, byte[]> convertDexToClassBytes(Path dexPath, ClassFilter filter) throws IOException {
+        FileUtils.validateFilePath(dexPath, "Dex path");
+
+        if (!isValidDexFile(dexPath)) {
+            throw new IllegalArgumentException("The provided file is not a valid DEX file: " + dexPath);
+        }
+
+        return convertDexBytesToClassBytes(Files.readAllBytes(dexPath), filter);
+    }
+
+    /**
+     * Converts DEX bytes to `.class` bytes, without creating a JAR.
+     * Dex -> Class
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @return the `.class` bytes keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IllegalArgumentException if {@code dexBytes} is null
+     * @throws IOException              if an error occurs during the translation
+     */
+    public static Map<String, byte[]> convertDexBytesToClassBytes(byte[] dexBytes) throws IOException {
+        return convertDexBytesToClassBytes(dexBytes, ClassFilter.all());
+    }
+
+    /**
+     * Converts the classes of DEX bytes accepted by a filter to `.class` bytes, without creating a JAR.
+     * Dex -> Class
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @param filter   selects the classes to convert
+     * @return the `.class` bytes keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IllegalArgumentException if any argument is null
+     * @throws IOException              if an error occurs during the translation
+     */
+    public static Map<String, byte[]> convertDexBytesToClassBytes(byte[] dexBytes, ClassFilter filter) throws IOException {
+        Map<String, byte[]> classes = new TreeMap<>();
+        convertDexBytesToClassBytes(dexBytes, filter, classes::put);
+        return classes;
+    }
+
+    /**
+     * Converts DEX bytes to `.class` bytes, handing every class to the consumer instead of creating a JAR.
+     * Dex -> Class
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @param consumer receives the internal class name (e.g. {@code com/example/Foo}) and the bytes of every class
+     * @throws IllegalArgumentException if any argument is null
+     * @throws IOException              if an error occurs during the translation
+     */
+    public static void convertDexBytesToClassBytes(byte[] dexBytes, BiConsumer<String, byte[]> consumer) throws IOException {
+        convertDexBytesToClassBytes(dexBytes, ClassFilter.all(), consumer);
+    }
+
+    /**
+     * Converts the classes of DEX bytes accepted by a filter to `.class` bytes, handing every class to the consumer.
+     * Rejected classes are dropped before the translation and never translated.
+     * Dex -> Class
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @param filter   selects the classes to convert
+     * @param consumer receives the internal class name (e.g. {@code com/example/Foo}) and the bytes of every class
+     * @throws IllegalArgumentException if any argument is null
+     * @throws IOException              if an error occurs during the translation
+     */
+    public static void convertDexBytesToClassBytes(byte[] dexBytes, ClassFilter filter, BiConsumer<String, byte[]> consumer)
+            throws IOException {
+        if (dexBytes == null) {
+            throw new IllegalArgumentException("Dex bytes cannot be null.");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Class consumer cannot be null.");
+        }
+
+        Metrics.Recording recording = Metrics.start(Metrics.DEX2JAR, dexBytes.length);
+        try {
+            DexTranslator.translate(dexBytes, filter, (className, classBytes) -> {
+                recording.classes(1).bytesOut(classBytes.length);
+                consumer.accept(className, classBytes);
+            });
+            recording.finish();
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
+        }
+    }
 
-        return jarPath;
+    /**
+     * Translates DEX bytes with dex2jar into loose `.class` files below an existing directory.
+     * Debug information is skipped and the IR is topologically sorted without reusing registers;
+     * {@link DexTranslator} translates the same way in memory.
+     * Classes rejected by the filter are removed from the DEX file first, so dex2jar never sees them.
+     */
+    private static void translateDexToClasses(byte[] dexBytes, ClassFilter filter, Path outputDir) throws IOException {
+        byte[] filteredBytes = DexRewriter.retainClasses(dexBytes, filter);
+        if (filteredBytes == null) {
+            return;
+        }
+
+        Dex2jar.from(filteredBytes)
+                .withExceptionHandler(new BaseDexExceptionHandler())
+                .reUseReg(false)
+                .topoLogicalSort()
+                .skipDebug(true)
+                .to(outputDir);
     }
 
     /**
@@ -76,6 +308,7 @@ public class Dex {
 
     /**
      * Converts a DEX file to Smali files.
+     * The classes are disassembled in parallel on the common fork/join pool.
      *
      * @param dexFilePath the path to the input DEX file
      * @param outputDir   the directory where the Smali files will be written
@@ -85,39 +318,553 @@ public class Dex {
      * @throws IOException              if an error occurs while accessing the file system
      */
     public static Path convertDexToSmali(Path dexFilePath, Path outputDir) throws IOException {
+        return convertDexToSmali(dexFilePath, outputDir, Parallel.defaultExecutor());
+    }
+
+    /**
+     * Converts a DEX file to Smali files, disassembling the classes in parallel on the given executor.
+     * Inputs that are not plain DEX files (e.g. zip archives of DEX files) are handed to the baksmali command instead.
+     *
+     * @param dexFilePath the path to the input DEX file
+     * @param outputDir   the directory where the Smali files will be written
+     * @param executor    the executor the classes are disassembled on
+     * @return the path to the directory containing the generated Smali files
+     * @throws IllegalArgumentException if {@code dexFilePath}, {@code outputDir} or {@code executor} is invalid
+     * @throws RuntimeException         if an error occurs during the conversion
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertDexToSmali(Path dexFilePath, Path outputDir, Executor executor) throws IOException {
+        return convertDexToSmali(dexFilePath, outputDir, executor, ClassFilter.all());
+    }
+
+    /**
+     * Converts the classes of a DEX file accepted by a filter to Smali files,
+     * disassembling them in parallel on the given executor. Rejected classes are never read.
+     * Inputs that are not plain DEX files (e.g. zip archives of DEX files) are handed to the baksmali command instead,
+     * which does not support filtering.
+     *
+     * @param dexFilePath the path to the input DEX file
+     * @param outputDir   the directory where the Smali files will be written
+     * @param executor    the executor the classes are disassembled on
+     * @param filter      selects the classes to disassemble
+     * @return the path to the directory containing the generated Smali files
+     * @throws IllegalArgumentException if {@code dexFilePath}, {@code outputDir}, {@code executor} or {@code filter}
+     *                                  is invalid, or a filter is given for an input that is not a plain DEX file
+     * @throws RuntimeException         if an error occurs during the conversion
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertDexToSmali(Path dexFilePath, Path outputDir, Executor executor, ClassFilter filter)
+            throws IOException {
+        FileUtils.validateFilePath(dexFilePath, "Dex path");
+
+        if (outputDir == null) {
+            throw new IllegalArgumentException("Output directory path cannot be null or empty");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+
+        byte[] dexBytes = Files.readAllBytes(dexFilePath);
+        if (!hasDexMagic(dexBytes)) {
+            if (!filter.acceptsAll()) {
+                throw new IllegalArgumentException("Class filters are only supported for plain DEX files: " + dexFilePath);
+            }
+            String[] args = {dexFilePath.toString(), "-o", outputDir.toString(), "--force"};
+            Metrics.Recording recording = Metrics.start(Metrics.BAKSMALI, dexBytes.length);
+            try {
+                BaksmaliCmd.main(args);
+                recording.finish();
+            } catch (Exception e) {
+                throw recording.fail(new RuntimeException("Error converting DEX to Smali", e));
+            }
+            return outputDir;
+        }
+
+        return ConversionCache.cached(ConversionCache.conversion("dex-to-smali", filter), dexBytes, outputDir, output -> {
+            Files.createDirectories(output);
+            try {
+                writeSmali(dexBytes, executor, filter, output);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    /**
+     * Disassembles DEX bytes and writes every class's Smali code below {@code outputDir} as soon as it is disassembled.
+     * The write stage only counts the time spent writing, not disassembling.
+     *
+     * @throws UncheckedIOException if a file cannot be written
+     * @throws SecurityException    if a class name points outside {@code outputDir}
+     * @see SmaliFileNames
+     */
+    static void writeSmali(byte[] dexBytes, Executor executor, ClassFilter filter, Path outputDir) {
+        writeSmali(dexBytes, executor, filter, outputDir, new SmaliFileNames());
+    }
+
+    /**
+     * Disassembles DEX bytes and writes every class's Smali code below {@code outputDir}, taking the file names from
+     * {@code fileNames}, which may be shared by several DEX files written to the same directory.
+     * The class names are registered before disassembling, so they are named in class definition order.
+     *
+     * @throws UncheckedIOException if a file cannot be written
+     * @throws SecurityException    if a class name points outside {@code outputDir}
+     */
+    static void writeSmali(byte[] dexBytes, Executor executor, ClassFilter filter, Path outputDir,
+                           SmaliFileNames fileNames) {
+        fileNames.register(readClassNames(dexBytes, filter));
+        Metrics.Recording recording = Metrics.start(Metrics.WRITE, 0);
+        try {
+            convertDexBytesToSmali(dexBytes, executor, filter, (className, smali) -> {
+                Path smaliPath = fileNames.resolve(outputDir, className);
+                byte[] smaliBytes = smali.getBytes(StandardCharsets.UTF_8);
+                long start = System.nanoTime();
+                try {
+                    Files.createDirectories(smaliPath.getParent());
+                    Files.write(smaliPath, smaliBytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error writing: " + smaliPath, e);
+                } finally {
+                    recording.partNanos(System.nanoTime() - start);
+                }
+                recording.filesWritten(1).bytesOut(smaliBytes.length);
+            });
+            recording.finish();
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
+        }
+    }
+
+    /**
+     * Reads the internal names of the classes accepted by a filter in class definition order.
+     */
+    static List<String> readClassNames(byte[] dexBytes, ClassFilter filter) {
+        List<String> classNames = new ArrayList<>();
+        for (String descriptor : new DexFileReader(dexBytes).getClassNames()) {
+            String className = SmaliDisassembler.toInternalName(descriptor);
+            if (filter.accepts(className)) {
+                classNames.add(className);
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Converts a DEX file to Smali files, reusing the output of a previous conversion into the same directory.
+     * <p>
+     * The directory keeps a manifest with the hash of every class's DEX data, which also covers the disassembler
+     * version. The classes are hashed without being disassembled; only classes that were added or changed since the
+     * previous conversion, or every class after a disassembler upgrade, are disassembled and written, and the Smali
+     * files of removed classes are deleted. A directory without a manifest is converted in full.
+     * </p>
+     *
+     * @param dexFilePath the path to the input DEX file
+     * @param outputDir   the directory holding the previous output, created if it does not exist
+     * @return the output directory and the added, changed, removed and unchanged classes
+     * @throws IllegalArgumentException if {@code dexFilePath} or {@code outputDir} is invalid
+     *                                  or the file is not a valid DEX file
+     * @throws RuntimeException         if an error occurs during the conversion
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static IncrementalResult convertDexToSmaliIncremental(Path dexFilePath, Path outputDir) throws IOException {
+        return convertDexToSmaliIncremental(dexFilePath, outputDir, Parallel.defaultExecutor());
+    }
+
+    /**
+     * Converts a DEX file to Smali files, reusing the output of a previous conversion into the same directory and
+     * disassembling the classes on the given executor.
+     *
+     * @param dexFilePath the path to the input DEX file
+     * @param outputDir   the directory holding the previous output, created if it does not exist
+     * @param executor    the executor the classes are disassembled on
+     * @return the output directory and the added, changed, removed and unchanged classes
+     * @throws IllegalArgumentException if {@code dexFilePath}, {@code outputDir} or {@code executor} is invalid
+     *                                  or the file is not a valid DEX file
+     * @throws RuntimeException         if an error occurs during the conversion
+     * @throws IOException              if an error occurs while accessing the file system
+     * @see #convertDexToSmaliIncremental(Path, Path)
+     */
+    public static IncrementalResult convertDexToSmaliIncremental(Path dexFilePath, Path outputDir, Executor executor)
+            throws IOException {
         FileUtils.validateFilePath(dexFilePath, "Dex path");
 
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+
         if (outputDir == null) {
             throw new IllegalArgumentException("Output directory path cannot be null or empty");
         }
 
-        String[] args = {dexFilePath.toString(), "-o", outputDir.toString(), "--force"};
+        byte[] dexBytes = Files.readAllBytes(dexFilePath);
+        if (!hasDexMagic(dexBytes)) {
+            throw new IllegalArgumentException("The provided file is not a valid DEX file: " + dexFilePath);
+        }
+
+        Files.createDirectories(outputDir);
+        ConversionManifest manifest = ConversionManifest.load(outputDir);
+        List<String> classNames = readClassNames(dexBytes, ClassFilter.all());
+        SmaliFileNames fileNames = new SmaliFileNames();
+        fileNames.register(classNames);
+
+        // like a cache key, the hash covers the disassembler, so upgrading it converts every class again
+        String hashPrefix = "dex-to-smali\0" + ConversionCache.getToolVersions();
+        int parallelism = Parallel.defaultParallelism();
+        Map<String, String> hashes = SmaliDisassembler.hashClasses(dexBytes, executor, parallelism, hashPrefix);
+        Set<String> added = new TreeSet<>();
+        Set<String> changed = new TreeSet<>();
+        Set<String> unchanged = new TreeSet<>();
+        Set<String> outdated = new HashSet<>();
+        for (String className : classNames) {
+            if (manifest.isUpToDate(className, hashes.get(className))) {
+                unchanged.add(className);
+            } else {
+                (manifest.contains(className) ? changed : added).add(className);
+                outdated.add(className);
+            }
+        }
+
+        try {
+            convertDexBytesToSmali(dexBytes, executor, ClassFilter.matching(outdated::contains), (className, smali) -> {
+                Path smaliPath = fileNames.resolve(outputDir, className);
+                try {
+                    Files.createDirectories(smaliPath.getParent());
+                    Files.writeString(smaliPath, smali);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error writing: " + smaliPath, e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Set<String> removed = manifest.names();
+        removed.removeAll(hashes.keySet());
+        for (String className : removed) {
+            manifest.remove(className);
+        }
+        for (String className : added) {
+            manifest.put(className, hashes.get(className), List.of(fileNames.getFileName(className)));
+        }
+        for (String className : changed) {
+            manifest.put(className, hashes.get(className), List.of(fileNames.getFileName(className)));
+        }
+        manifest.save();
+
+        return new IncrementalResult(outputDir, added, changed, removed, unchanged);
+    }
+
+    /**
+     * Disassembles DEX bytes to Smali code in memory.
+     * The classes are disassembled in parallel on the given executor.
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @param executor the executor the classes are disassembled on
+     * @return the Smali code of every class, keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IllegalArgumentException if {@code dexBytes} or {@code executor} is null
+     * @throws RuntimeException         if an error occurs during the conversion
+     */
+    public static Map<String, String> convertDexBytesToSmali(byte[] dexBytes, Executor executor) {
+        return convertDexBytesToSmali(dexBytes, executor, ClassFilter.all());
+    }
+
+    /**
+     * Disassembles the classes of DEX bytes accepted by a filter to Smali code in memory.
+     * The classes are disassembled in parallel on the given executor, rejected classes are never read.
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @param executor the executor the classes are disassembled on
+     * @param filter   selects the classes to disassemble
+     * @return the Smali code of every class, keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IllegalArgumentException if any argument is null
+     * @throws RuntimeException         if an error occurs during the conversion
+     */
+    public static Map<String, String> convertDexBytesToSmali(byte[] dexBytes, Executor executor, ClassFilter filter) {
+        Map<String, String> smaliClasses = new ConcurrentHashMap<>();
+        convertDexBytesToSmali(dexBytes, executor, filter, smaliClasses::put);
+        return new TreeMap<>(smaliClasses);
+    }
+
+    /**
+     * Disassembles DEX bytes to Smali code, streaming every class into the given sink as soon as it is ready.
+     * The classes are disassembled in parallel on the given executor.
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @param executor the executor the classes are disassembled on
+     * @param sink     receives the internal class name (e.g. {@code com/example/Foo}) and the Smali code of every class;
+     *                 it is called concurrently from the executor threads and must be thread-safe
+     * @throws IllegalArgumentException if any argument is null
+     * @throws RuntimeException         if an error occurs during the conversion
+     */
+    public static void convertDexBytesToSmali(byte[] dexBytes, Executor executor, BiConsumer<String, String> sink) {
+        convertDexBytesToSmali(dexBytes, executor, ClassFilter.all(), sink);
+    }
+
+    /**
+     * Disassembles the classes of DEX bytes accepted by a filter to Smali code,
+     * streaming every class into the given sink as soon as it is ready.
+     * The classes are disassembled in parallel on the given executor, rejected classes are never read.
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @param executor the executor the classes are disassembled on
+     * @param filter   selects the classes to disassemble
+     * @param sink     receives the internal class name (e.g. {@code com/example/Foo}) and the Smali code of every class;
+     *                 it is called concurrently from the executor threads and must be thread-safe
+     * @throws IllegalArgumentException if any argument is null
+     * @throws RuntimeException         if an error occurs during the conversion
+     */
+    public static void convertDexBytesToSmali(byte[] dexBytes, Executor executor, ClassFilter filter,
+                                              BiConsumer<String, String> sink) {
+        if (dexBytes == null) {
+            throw new IllegalArgumentException("Dex bytes cannot be null.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("Smali sink cannot be null.");
+        }
+
+        Metrics.Recording recording = Metrics.start(Metrics.BAKSMALI, dexBytes.length);
         try {
-            BaksmaliCmd.main(args);
-        } catch (Exception e) {
-            throw new RuntimeException("Error converting DEX to Smali", e);
+            SmaliDisassembler.disassemble(dexBytes, executor, Parallel.defaultParallelism(), filter, (className, smali) -> {
+                recording.classes(1).bytesOut(smali.length());
+                sink.accept(className, smali);
+            });
+            recording.finish();
+        } catch (UncheckedIOException e) {
+            throw recording.fail(e);
+        } catch (RuntimeException e) {
+            throw recording.fail(new RuntimeException("Error converting DEX to Smali", e));
         }
-        return outputDir;
     }
 
     /**
-     * Converts a DEX file to Java source code.
-     * Dex -> Class Jar -> Java
+     * Converts a DEX file to Java source code in a sibling folder named `java_out`.
+     * The translated classes are decompiled in memory, no intermediate JAR is written.
+     * Dex -> Class -> Java
      *
      * @param dexFilePath the path to the input DEX file
-     * @return the path to the generated Java source code file
+     * @return the path to the directory containing the generated Java source files
      * @throws IOException if an error occurs during the conversion process
      */
     public static Path convertDexToJava(Path dexFilePath) throws IOException {
-        Path classJar = Dex.convertDexToClassJar(dexFilePath);
-        return Jar.convertClassJarToJava(classJar);
+        return convertDexToJava(dexFilePath, ClassFilter.all());
+    }
+
+    /**
+     * Converts the classes of a DEX file accepted by a filter to Java source code in a sibling folder named `java_out`.
+     * Rejected classes are dropped before the translation, so they are neither translated nor decompiled.
+     * Dex -> Class -> Java
+     *
+     * @param dexFilePath the path to the input DEX file
+     * @param filter      selects the classes to convert
+     * @return the path to the directory containing the generated Java source files
+     * @throws IllegalArgumentException if {@code dexFilePath} is invalid or {@code filter} is null
+     * @throws IOException              if an error occurs during the conversion process
+     */
+    public static Path convertDexToJava(Path dexFilePath, ClassFilter filter) throws IOException {
+        return convertDexToJava(dexFilePath, filter, Parallel.defaultExecutor());
+    }
+
+    /**
+     * Converts the classes of a DEX file accepted by a filter to Java source code in a sibling folder named `java_out`,
+     * decompiling the translated classes on the given executor.
+     * Dex -> Class -> Java
+     *
+     * @param dexFilePath the path to the input DEX file
+     * @param filter      selects the classes to convert
+     * @param executor    the executor the classes are decompiled on
+     * @return the path to the directory containing the generated Java source files
+     * @throws IllegalArgumentException if {@code dexFilePath} is invalid or {@code filter} or {@code executor} is null
+     * @throws IOException              if an error occurs during the conversion process
+     */
+    public static Path convertDexToJava(Path dexFilePath, ClassFilter filter, Executor executor) throws IOException {
+        FileUtils.validateFilePath(dexFilePath, "Dex path");
+
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+
+        Path outputDir = FileUtils.getSiblingDirectory(dexFilePath, "java_out");
+        return ConversionCache.cached(ConversionCache.conversion("dex-to-java", filter), dexFilePath, outputDir, output -> {
+            Map<String, byte[]> classes = convertDexToClassBytes(dexFilePath, filter);
+            if (classes.isEmpty() && !filter.acceptsAll()) {
+                // the filter rejected every class
+                Files.createDirectories(output);
+            } else {
+                Map<String, String> sources = Class.convertClassBytesToJava(classes, executor, Parallel.defaultParallelism());
+                FileUtils.writeFiles(output, sources, ".java");
+            }
+        });
+    }
+
+    /**
+     * Converts several DEX files, e.g. the `classes.dex`, `classes2.dex`, ... of a multi-dex conversion,
+     * to Smali files in one directory. The DEX files are disassembled one after another on the calling thread and
+     * the classes of each in parallel on the executor, so a bounded executor never waits on itself.
+     *
+     * @param dexFiles  the DEX files to convert
+     * @param outputDir the directory where the Smali files will be written
+     * @param executor  the executor the classes are disassembled on
+     * @return the path to the directory containing the generated Smali files
+     * @throws IllegalArgumentException if any argument is null or a file is not a valid DEX file
+     * @throws RuntimeException         if an error occurs during the conversion
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertDexFilesToSmali(DexFiles dexFiles, Path outputDir, Executor executor) throws IOException {
+        validateDexFiles(dexFiles, executor);
+        if (outputDir == null) {
+            throw new IllegalArgumentException("Output directory path cannot be null or empty");
+        }
+
+        return ConversionCache.cached("dex-files-to-smali", readDexFiles(dexFiles), outputDir, output -> {
+            Files.createDirectories(output);
+            SmaliFileNames fileNames = new SmaliFileNames();
+            for (Path dexPath : dexFiles.getPaths()) {
+                byte[] dexBytes = Files.readAllBytes(dexPath);
+                if (!hasDexMagic(dexBytes)) {
+                    throw new IllegalArgumentException("The provided file is not a valid DEX file: " + dexPath);
+                }
+                try {
+                    writeSmali(dexBytes, executor, ClassFilter.all(), output, fileNames);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
+    /**
+     * Converts several DEX files to `.class` bytes. The DEX files are translated concurrently and the classes merged.
+     * Every DEX file is translated on a single executor thread, nothing is forked from it.
+     * Dex -> Class
+     *
+     * @param dexFiles the DEX files to convert
+     * @param executor the executor the DEX files are translated on
+     * @return the `.class` bytes of all DEX files keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IllegalArgumentException if any argument is null or a file is not a valid DEX file
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Map<String, byte[]> convertDexFilesToClassBytes(DexFiles dexFiles, Executor executor) throws IOException {
+        validateDexFiles(dexFiles, executor);
+
+        Map<String, byte[]> classes = new ConcurrentHashMap<>();
+        List<Runnable> tasks = new ArrayList<>(dexFiles.size());
+        for (Path dexPath : dexFiles.getPaths()) {
+            tasks.add(() -> {
+                try {
+                    classes.putAll(convertDexToClassBytes(dexPath));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error converting: " + dexPath, e);
+                }
+            });
+        }
+        runAll(tasks, executor);
+        return new TreeMap<>(classes);
+    }
+
+    /**
+     * Converts several DEX files to a single JAR file.
+     * The DEX files are translated concurrently and their classes merged into the JAR.
+     *
+     * @param dexFiles the DEX files to convert
+     * @param jarPath  the path to the output JAR file
+     * @param executor the executor the DEX files are translated on
+     * @return the path to the generated JAR file
+     * @throws IllegalArgumentException if any argument is null or a file is not a valid DEX file
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertDexFilesToClassJar(DexFiles dexFiles, Path jarPath, Executor executor) throws IOException {
+        validateDexFiles(dexFiles, executor);
+        if (jarPath == null) {
+            throw new IllegalArgumentException("JAR output path cannot be null.");
+        }
+
+        return ConversionCache.cached("dex-files-to-class-jar", readDexFiles(dexFiles), jarPath, output -> {
+            Map<String, byte[]> classes = convertDexFilesToClassBytes(dexFiles, executor);
+            try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(output))) {
+                for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                    jar.putNextEntry(new JarEntry(entry.getKey() + ".class"));
+                    jar.write(entry.getValue());
+                    jar.closeEntry();
+                }
+            }
+        });
+    }
+
+    /**
+     * Converts several DEX files to Java source code in one directory.
+     * The DEX files are translated concurrently and all classes are decompiled together,
+     * so classes that reference each other across DEX files are resolved.
+     * Dex -> Class -> Java
+     *
+     * @param dexFiles  the DEX files to convert
+     * @param outputDir the directory where the `.java` files will be written
+     * @param executor  the executor the DEX files are translated and the classes decompiled on; the translation
+     *                  finishes before decompiling starts, so no task waits for another on the executor
+     * @return the path to the directory containing the generated Java source files
+     * @throws IllegalArgumentException if any argument is null or a file is not a valid DEX file
+     * @throws IOException              if an error occurs while accessing the file system
+     */
+    public static Path convertDexFilesToJava(DexFiles dexFiles, Path outputDir, Executor executor) throws IOException {
+        validateDexFiles(dexFiles, executor);
+        if (outputDir == null) {
+            throw new IllegalArgumentException("Output directory path cannot be null or empty");
+        }
+
+        return ConversionCache.cached("dex-files-to-java", readDexFiles(dexFiles), outputDir, output -> {
+            Map<String, byte[]> classes = convertDexFilesToClassBytes(dexFiles, executor);
+            Map<String, String> sources = Class.convertClassBytesToJava(classes, executor, Parallel.defaultParallelism());
+            FileUtils.writeFiles(output, sources, ".java");
+        });
+    }
+
+    private static void validateDexFiles(DexFiles dexFiles, Executor executor) {
+        if (dexFiles == null) {
+            throw new IllegalArgumentException("Dex files cannot be null.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+    }
+
+    /**
+     * Reads the DEX files for the cache key, keyed by file name. Nothing is read if no cache is installed.
+     */
+    private static Map<String, byte[]> readDexFiles(DexFiles dexFiles) throws IOException {
+        Map<String, byte[]> inputs = new TreeMap<>();
+        if (ConversionCache.getInstalled() != null) {
+            for (Path dexPath : dexFiles.getPaths()) {
+                inputs.put(dexPath.getFileName().toString(), Files.readAllBytes(dexPath));
+            }
+        }
+        return inputs;
+    }
+
+    private static void runAll(List<Runnable> tasks, Executor executor) throws IOException {
+        try {
+            Parallel.runAll(tasks, executor);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean hasDexMagic(byte[] bytes) {
+        return DexHeader.hasValidMagic(bytes);
     }
 
     /**
-     * Checks if the given file is a valid DEX file by reading its magic header.
+     * Checks if the given file is a valid DEX file by reading its header.
      * <p>
-     * This method reads the first 8 bytes of the file and checks if it matches one of the valid
-     * DEX file magic headers ("dex\n035\0" or "dex\n036\0").
+     * Only the fixed size header is memory-mapped and checked (see {@link DexHeader}): the magic must be
+     * {@code "dex\n"} followed by one of the supported versions 035 to 041, and the endian tag must match.
      * </p>
      *
      * @param filePath the path to the file to check
@@ -130,18 +877,9 @@ public class Dex {
         }
 
         try {
-            // Read the first 8 bytes of the file
-            byte[] header = new byte[8];
-            try (var inputStream = Files.newInputStream(filePath)) {
-                if (inputStream.read(header) != 8) {
-                    return false; // File is too small to be a valid DEX file
-                }
-            }
-
-            // DEX magic header is "dex\n035\0" or "dex\n036\0"
-            String headerString = new String(header, 0, 8);
-            return "dex\n035\0".equals(headerString) || "dex\n036\0".equals(headerString);
-        } catch (IOException e) {
+            DexHeader.read(filePath);
+            return true;
+        } catch (IllegalArgumentException | IOException e) {
             return false;
         }
     }
@@ -0,0 +1,123 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The `.dex` files produced for one input.
+ * <p>
+ * D8 splits its output into `classes.dex`, `classes2.dex`, ... once the classes no longer fit into a single
+ * file (64K method or field references), so a conversion can produce more than one file.
+ * </p>
+ */
+public class DexFiles {
+
+    private static final Pattern DEX_FILE_NAME = Pattern.compile("classes(\\d*)\\.dex");
+
+    private final Path directory;
+    private final List<Path> paths;
+
+    DexFiles(Path directory, List<Path> paths) {
+        this.directory = directory;
+        this.paths = Collections.unmodifiableList(new ArrayList<>(paths));
+    }
+
+    /**
+     * Collects the `classes*.dex` files of a D8 output directory.
+     *
+     * @param directory the D8 output directory
+     * @return the `.dex` files ordered by file index
+     * @throws IOException if the directory cannot be read or contains no `classes.dex`
+     */
+    static DexFiles scan(Path directory) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> stream = Files.list(directory)) {
+            paths = stream.filter(path -> fileIndex(path) > 0)
+                    .sorted(Comparator.comparingInt(DexFiles::fileIndex))
+                    .collect(Collectors.toList());
+        }
+
+        if (paths.isEmpty() || fileIndex(paths.get(0)) != 1) {
+            throw new IOException("Dex was not generated");
+        }
+        return new DexFiles(directory, paths);
+    }
+
+    /**
+     * Deletes the `classes*.dex` files of a previous conversion, so they cannot be mistaken for new output.
+     */
+    static void deleteAll(Path directory) throws IOException {
+        if (Files.notExists(directory)) {
+            return;
+        }
+        try (Stream<Path> stream = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) stream.filter(path -> fileIndex(path) > 0)::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * @return the 1-based index of a `classes*.dex` file name (`classes.dex` is 1), or 0 for other names
+     */
+    static int fileIndex(String fileName) {
+        Matcher matcher = DEX_FILE_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            return 0;
+        }
+        return matcher.group(1).isEmpty() ? 1 : Integer.parseInt(matcher.group(1));
+    }
+
+    private static int fileIndex(Path path) {
+        return Files.isDirectory(path) ? 0 : fileIndex(path.getFileName().toString());
+    }
+
+    /**
+     * @return the directory the `.dex` files were written to
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return all `.dex` files ordered by file index (`classes.dex`, `classes2.dex`, ...)
+     */
+    public List<Path> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @return the primary `classes.dex` file
+     */
+    public Path getPrimary() {
+        return paths.get(0);
+    }
+
+    /**
+     * @return the number of `.dex` files
+     */
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * @return true if the classes were split over more than one `.dex` file
+     */
+    public boolean isMultiDex() {
+        return paths.size() > 1;
+    }
+
+    @Override
+    public String toString() {
+        return "DexFiles{directory=" + directory + ", paths=" + paths + "}";
+    }
+}
@@ -0,0 +1,220 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The header of a DEX file.
+ * <p>
+ * Only the fixed size header is memory-mapped and read, the rest of the file is never touched. The counts are cheap
+ * enough to obtain for planning work, e.g. sizing thread pools or memory budgets before a conversion starts.
+ * </p>
+ * <pre>{@code
+ * DexHeader header = DexHeader.read(Paths.get("classes.dex"));
+ * int classCount = header.getClassDefsSize();
+ * }</pre>
+ */
+public class DexHeader {
+
+    /**
+     * The size of the header up to and including {@code data_off}.
+     */
+    static final int HEADER_SIZE = 0x70;
+
+    private static final int MIN_VERSION = 35;
+    private static final int MAX_VERSION = 41;
+    private static final int ENDIAN_CONSTANT = 0x12345678;
+
+    private final int version;
+    private final int checksum;
+    private final long fileSize;
+    private final long headerSize;
+    private final int stringIdsSize;
+    private final int typeIdsSize;
+    private final int protoIdsSize;
+    private final int fieldIdsSize;
+    private final int methodIdsSize;
+    private final int classDefsSize;
+    private final long dataSize;
+
+    private DexHeader(ByteBuffer header, int version) {
+        this.version = version;
+        this.checksum = header.getInt(0x08);
+        this.fileSize = Integer.toUnsignedLong(header.getInt(0x20));
+        this.headerSize = Integer.toUnsignedLong(header.getInt(0x24));
+        this.stringIdsSize = header.getInt(0x38);
+        this.typeIdsSize = header.getInt(0x40);
+        this.protoIdsSize = header.getInt(0x48);
+        this.fieldIdsSize = header.getInt(0x50);
+        this.methodIdsSize = header.getInt(0x58);
+        this.classDefsSize = header.getInt(0x60);
+        this.dataSize = Integer.toUnsignedLong(header.getInt(0x68));
+    }
+
+    /**
+     * Reads the header of a DEX file by memory-mapping its first bytes.
+     *
+     * @param dexPath the path to the DEX file
+     * @return the header
+     * @throws IllegalArgumentException if {@code dexPath} is null or the file is not a valid DEX file
+     * @throws IOException              if the file does not exist or cannot be read
+     */
+    public static DexHeader read(Path dexPath) throws IOException {
+        FileUtils.validateFilePath(dexPath, "Dex path");
+
+        try (FileChannel channel = FileChannel.open(dexPath, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IllegalArgumentException("The provided file is not a valid DEX file: " + dexPath);
+            }
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE), dexPath.toString());
+        }
+    }
+
+    /**
+     * Reads the header of a DEX file in memory.
+     *
+     * @param dexBytes the bytes of the DEX file, at least the header
+     * @return the header
+     * @throws IllegalArgumentException if {@code dexBytes} is null or not a valid DEX file
+     */
+    public static DexHeader parse(byte[] dexBytes) {
+        if (dexBytes == null) {
+            throw new IllegalArgumentException("Dex bytes cannot be null.");
+        }
+        if (dexBytes.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("The provided bytes are not a valid DEX file.");
+        }
+        return parse(ByteBuffer.wrap(dexBytes, 0, HEADER_SIZE), "bytes");
+    }
+
+    private static DexHeader parse(ByteBuffer header, String source) {
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        int version = getVersion(header);
+        if (version < 0 || header.getInt(0x28) != ENDIAN_CONSTANT) {
+            throw new IllegalArgumentException("The provided file is not a valid DEX file: " + source);
+        }
+        return new DexHeader(header, version);
+    }
+
+    /**
+     * Checks the magic of a DEX file: {@code "dex\n"}, a supported three digit version and a terminating zero.
+     *
+     * @param bytes the first bytes of a file
+     * @return true if the bytes start with the magic of a supported DEX version
+     */
+    static boolean hasValidMagic(byte[] bytes) {
+        return bytes.length >= 8 && getVersion(ByteBuffer.wrap(bytes, 0, 8)) >= 0;
+    }
+
+    /**
+     * @return the version encoded in the magic, or -1 if the magic is invalid or the version is not supported
+     */
+    private static int getVersion(ByteBuffer header) {
+        if (header.get(0) != 'd' || header.get(1) != 'e' || header.get(2) != 'x' || header.get(3) != '\n'
+                || header.get(7) != 0) {
+            return -1;
+        }
+
+        int version = 0;
+        for (int i = 4; i < 7; i++) {
+            byte digit = header.get(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            version = version * 10 + digit - '0';
+        }
+        return version >= MIN_VERSION && version <= MAX_VERSION ? version : -1;
+    }
+
+    /**
+     * @return the format version, e.g. 35 for {@code dex\n035\0}
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the adler32 checksum of the rest of the file
+     */
+    public int getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * @return the size of the DEX file in bytes as recorded in the header
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * @return the size of the header in bytes as recorded in the header
+     */
+    public long getHeaderSize() {
+        return headerSize;
+    }
+
+    /**
+     * @return the number of strings
+     */
+    public int getStringIdsSize() {
+        return stringIdsSize;
+    }
+
+    /**
+     * @return the number of type references
+     */
+    public int getTypeIdsSize() {
+        return typeIdsSize;
+    }
+
+    /**
+     * @return the number of method prototypes
+     */
+    public int getProtoIdsSize() {
+        return protoIdsSize;
+    }
+
+    /**
+     * @return the number of field references
+     */
+    public int getFieldIdsSize() {
+        return fieldIdsSize;
+    }
+
+    /**
+     * @return the number of method references
+     */
+    public int getMethodIdsSize() {
+        return methodIdsSize;
+    }
+
+    /**
+     * @return the number of classes defined in the file
+     */
+    public int getClassDefsSize() {
+        return classDefsSize;
+    }
+
+    /**
+     * @return the size of the data section in bytes
+     */
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    @Override
+    public String toString() {
+        return "DexHeader{version=" + version +
+                ", fileSize=" + fileSize +
+                ", stringIds=" + stringIdsSize +
+                ", typeIds=" + typeIdsSize +
+                ", methodIds=" + methodIdsSize +
+                ", classDefs=" + classDefsSize +
+                ", dataSize=" + dataSize + "}";
+    }
+}
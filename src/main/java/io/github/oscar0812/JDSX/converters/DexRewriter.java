@@ -0,0 +1,64 @@
+package io.github.oscar0812.JDSX.converters;
+
+import com.googlecode.d2j.dex.writer.DexFileWriter;
+import com.googlecode.d2j.node.DexClassNode;
+import com.googlecode.d2j.node.DexFileNode;
+import com.googlecode.d2j.reader.DexFileReader;
+import com.googlecode.d2j.visitors.DexClassVisitor;
+import com.googlecode.d2j.visitors.DexFileVisitor;
+
+import java.util.List;
+
+/**
+ * Rewrites DEX files with dex2jar's reader and writer.
+ */
+class DexRewriter {
+
+    private DexRewriter() {
+    }
+
+    /**
+     * Drops the classes a filter rejects from a DEX file, so later stages such as dex2jar never see them.
+     * Rejected classes are skipped by the reader without being parsed.
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @param filter   selects the classes to keep
+     * @return {@code dexBytes} itself if every class is kept, {@code null} if no class is kept,
+     * otherwise the bytes of a new DEX file holding only the kept classes
+     */
+    static byte[] retainClasses(byte[] dexBytes, ClassFilter filter) {
+        if (filter.acceptsAll()) {
+            return dexBytes;
+        }
+
+        DexFileReader reader = new DexFileReader(dexBytes);
+        List<String> classNames = reader.getClassNames();
+        long accepted = classNames.stream()
+                .filter(className -> filter.accepts(SmaliDisassembler.toInternalName(className)))
+                .count();
+        if (accepted == classNames.size()) {
+            return dexBytes;
+        }
+        if (accepted == 0) {
+            return null;
+        }
+
+        DexFileNode fileNode = new DexFileNode();
+        reader.accept(new DexFileVisitor(fileNode) {
+            @Override
+            public DexClassVisitor visit(int accessFlags, String className, String superClass, String[] interfaceNames) {
+                if (!filter.accepts(SmaliDisassembler.toInternalName(className))) {
+                    return null;
+                }
+                return super.visit(accessFlags, className, superClass, interfaceNames);
+            }
+        }, 0);
+
+        DexFileWriter writer = new DexFileWriter();
+        for (DexClassNode classNode : fileNode.clzs) {
+            classNode.accept(writer);
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.oscar0812.JDSX.converters;
+
+import com.googlecode.d2j.converter.IR2JConverter;
+import com.googlecode.d2j.dex.BaseDexExceptionHandler;
+import com.googlecode.d2j.dex.ClzCtx;
+import com.googlecode.d2j.dex.ExDex2Asm;
+import com.googlecode.d2j.dex.LambadaNameSafeClassAdapter;
+import com.googlecode.d2j.node.DexFileNode;
+import com.googlecode.d2j.reader.DexFileReader;
+import com.googlecode.dex2jar.ir.IrMethod;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Translates DEX files to `.class` bytes by driving dex2jar's {@link ExDex2Asm} directly,
+ * without going through {@link com.googlecode.d2j.dex.Dex2jar}, which can only write to a path.
+ * <p>
+ * Every class is generated into its own {@link ClassWriter} and handed to the consumer as soon as it is complete,
+ * so neither a JAR nor a scratch directory is written. The translation repeats what {@code Dex2jar} does with the
+ * options {@link Dex#convertDexToClasses(java.nio.file.Path, java.nio.file.Path)} uses
+ * ({@code reUseReg(false).topoLogicalSort().skipDebug(true)}): debug information is skipped, the IR passes run in
+ * the same order and every class goes through {@link LambadaNameSafeClassAdapter}, so both produce the same bytes.
+ * </p>
+ */
+class DexTranslator {
+
+    private static final int READER_CONFIG = DexFileReader.SKIP_DEBUG | DexFileReader.IGNORE_READ_EXCEPTION;
+
+    private DexTranslator() {
+    }
+
+    /**
+     * Translates the classes of a DEX file accepted by a filter.
+     * Rejected classes are skipped by their class index and never read.
+     *
+     * @param dexBytes the bytes of the DEX file
+     * @param filter   selects the classes to translate
+     * @param consumer receives the internal class name (e.g. {@code com/example/Foo}) and the bytes of every class
+     */
+    static void translate(byte[] dexBytes, ClassFilter filter, BiConsumer<String, byte[]> consumer) {
+        DexFileReader reader = new DexFileReader(dexBytes);
+        DexFileNode fileNode = new DexFileNode();
+        if (filter.acceptsAll()) {
+            reader.accept(fileNode, READER_CONFIG);
+        } else {
+            List<String> classNames = reader.getClassNames();
+            for (int classIdx = 0; classIdx < classNames.size(); classIdx++) {
+                if (filter.accepts(SmaliDisassembler.toInternalName(classNames.get(classIdx)))) {
+                    reader.accept(fileNode, classIdx, READER_CONFIG);
+                }
+            }
+        }
+        if (fileNode.clzs.isEmpty()) {
+            return;
+        }
+
+        BaseDexExceptionHandler exceptionHandler = new BaseDexExceptionHandler();
+        new Dex2jarAsm(exceptionHandler).convertDex(fileNode, name -> {
+            ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            LambadaNameSafeClassAdapter nameSafeAdapter = new LambadaNameSafeClassAdapter(classWriter, false);
+            return new ClassVisitor(Opcodes.ASM9, nameSafeAdapter) {
+                @Override
+                public void visitEnd() {
+                    super.visitEnd();
+                    // the adapter renames lambda classes whose names are not valid in a class file
+                    String className = nameSafeAdapter.getClassName();
+                    byte[] classBytes;
+                    try {
+                        classBytes = classWriter.toByteArray();
+                    } catch (RuntimeException e) {
+                        // like dex2jar, a class ASM cannot write (e.g. a method over 64K) is reported and skipped
+                        exceptionHandler.handleFileException(e);
+                        return;
+                    }
+                    consumer.accept(className, classBytes);
+                }
+            };
+        });
+    }
+
+    /**
+     * {@link ExDex2Asm} with the IR passes and code generation of {@code Dex2jar}. The register reuse and topological
+     * sort options {@code Dex2jar} is run with do not change its passes, and synchronized blocks are not optimized.
+     */
+    private static class Dex2jarAsm extends ExDex2Asm {
+
+        Dex2jarAsm(BaseDexExceptionHandler exceptionHandler) {
+            super(exceptionHandler);
+        }
+
+        @Override
+        public void optimize(IrMethod irMethod) {
+            T_CLEAN_LABEL.transform(irMethod);
+            T_DEAD_CODE.transform(irMethod);
+            T_REMOVE_LOCAL.transform(irMethod);
+            T_REMOVE_CONST.transform(irMethod);
+            T_ZERO.transform(irMethod);
+            if (T_NPE.transformReportChanged(irMethod)) {
+                T_DEAD_CODE.transform(irMethod);
+                T_REMOVE_LOCAL.transform(irMethod);
+                T_REMOVE_CONST.transform(irMethod);
+            }
+            T_NEW.transform(irMethod);
+            T_FILL_ARRAY.transform(irMethod);
+            T_AGG.transform(irMethod);
+            T_MULTI_ARRAY.transform(irMethod);
+            T_VOID_INVOKE.transform(irMethod);
+            T_TYPE.transform(irMethod);
+            T_UNSSA.transform(irMethod);
+            T_IR_2_J_REG_ASSIGN.transform(irMethod);
+            T_TRIM_EX.transform(irMethod);
+        }
+
+        @Override
+        public void ir2j(IrMethod irMethod, MethodVisitor mv, ClzCtx clzCtx) {
+            new IR2JConverter()
+                    .optimizeSynchronized(false)
+                    .clzCtx(clzCtx)
+                    .ir(irMethod)
+                    .asm(mv)
+                    .convert();
+        }
+    }
+}
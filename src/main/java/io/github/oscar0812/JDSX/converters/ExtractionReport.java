@@ -0,0 +1,83 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.nio.file.Path;
+
+/**
+ * Statistics of a JAR extraction.
+ */
+public class ExtractionReport {
+
+    private final Path destinationDirectory;
+    private final int fileCount;
+    private final int directoryCount;
+    private final long compressedBytes;
+    private final long uncompressedBytes;
+    private final long elapsedNanos;
+
+    ExtractionReport(Path destinationDirectory, int fileCount, int directoryCount,
+                     long compressedBytes, long uncompressedBytes, long elapsedNanos) {
+        this.destinationDirectory = destinationDirectory;
+        this.fileCount = fileCount;
+        this.directoryCount = directoryCount;
+        this.compressedBytes = compressedBytes;
+        this.uncompressedBytes = uncompressedBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Path getDestinationDirectory() {
+        return destinationDirectory;
+    }
+
+    /**
+     * @return the number of files written
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * @return the number of directories created
+     */
+    public int getDirectoryCount() {
+        return directoryCount;
+    }
+
+    /**
+     * @return the number of bytes read from the archive
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    /**
+     * @return the number of bytes written to the destination directory
+     */
+    public long getUncompressedBytes() {
+        return uncompressedBytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the number of bytes written per second
+     */
+    public double getBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : uncompressedBytes * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * @return the number of files written per second
+     */
+    public double getFilesPerSecond() {
+        return elapsedNanos == 0 ? 0 : fileCount * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Extracted %d files (%d bytes) into %d directories in %.1f ms, %.1f MB/s",
+                fileCount, uncompressedBytes, directoryCount, elapsedNanos / 1_000_000.0,
+                getBytesPerSecond() / (1024 * 1024));
+    }
+}
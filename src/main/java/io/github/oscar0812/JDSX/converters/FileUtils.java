@@ -1,8 +1,11 @@
 package io.github.oscar0812.JDSX.converters;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -131,6 +134,85 @@ public class FileUtils {
         return result;
     }
 
+    /**
+     * Deletes a directory and everything inside it. Does nothing if the directory does not exist.
+     *
+     * @param directory the directory to delete
+     * @throws IOException if an I/O error occurs while deleting
+     */
+    public static void deleteDirectory(Path directory) throws IOException {
+        if (Files.notExists(directory)) {
+            return;
+        }
+
+        try (Stream<Path> stream = Files.walk(directory)) {
+            List<Path> paths = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for (Path path : paths) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Writes text files below a directory, creating parent directories as needed.
+     *
+     * @param outputDir the directory to write into
+     * @param files     the file contents keyed by relative path without extension (e.g. {@code com/example/Foo})
+     * @param extension the extension appended to every path (e.g. ".java")
+     * @return the output directory
+     * @throws SecurityException if a relative path points outside the output directory
+     * @throws IOException if an I/O error occurs while writing
+     */
+    public static Path writeFiles(Path outputDir, Map<String, String> files, String extension) throws IOException {
+        Metrics.Recording recording = Metrics.start(Metrics.WRITE, 0);
+        try {
+            Files.createDirectories(outputDir);
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                Path path = resolveInside(outputDir, file.getKey() + extension);
+                byte[] bytes = file.getValue().getBytes(StandardCharsets.UTF_8);
+                Files.createDirectories(path.getParent());
+                Files.write(path, bytes);
+                recording.filesWritten(1).bytesOut(bytes.length);
+            }
+            recording.finish();
+        } catch (IOException e) {
+            throw recording.fail(e);
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
+        }
+        return outputDir;
+    }
+
+    /**
+     * Resolves a relative path taken from an input, such as a class name or a JAR entry name, against a directory.
+     *
+     * @param directory    the directory the path must stay in
+     * @param relativePath the path relative to the directory
+     * @return the normalized path
+     * @throws SecurityException if the path points outside the directory, e.g. through `..` or an absolute path
+     */
+    public static Path resolveInside(Path directory, String relativePath) {
+        Path root = directory.normalize();
+        Path path = root.resolve(relativePath).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new SecurityException("Invalid name with a path outside the output directory: " + relativePath);
+        }
+        return path;
+    }
+
+    /**
+     * Converts a path relative to a class output root (e.g. {@code com/example/Foo.class})
+     * into an internal class name (e.g. {@code com/example/Foo}).
+     *
+     * @param root      the class output root
+     * @param classFile a `.class` file below the root
+     * @return the internal class name
+     */
+    public static String toInternalClassName(Path root, Path classFile) {
+        String relativePath = root.relativize(classFile).toString().replace(classFile.getFileSystem().getSeparator(), "/");
+        return relativePath.substring(0, relativePath.length() - ".class".length());
+    }
+
     /**
      * Reads the contents of a file located at the specified path and returns it as a single string.
      * The lines of the file are joined with the system's default line separator.
@@ -0,0 +1,203 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.jetbrains.java.decompiler.main.decompiler.BaseDecompiler;
+import org.jetbrains.java.decompiler.main.decompiler.PrintStreamLogger;
+import org.jetbrains.java.decompiler.main.extern.IBytecodeProvider;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.main.extern.IResultSaver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.jar.Manifest;
+
+/**
+ * Decompiles `.class` bytes to Java source with Fernflower without reading or writing any files.
+ * <p>
+ * Fernflower identifies classes by file. Every class is registered under a virtual path that does not exist on disk,
+ * and its bytes are served through {@link IBytecodeProvider}. The decompiled sources are collected through
+ * {@link IResultSaver} instead of being written to a JAR.
+ * </p>
+ * <p>
+ * Only warnings and errors are logged, to {@code System.err}, so that {@code System.out} stays free for the output of
+ * the command line tools.
+ * </p>
+ */
+class InMemoryDecompiler implements IBytecodeProvider, IResultSaver {
+
+    private final File root = new File(System.getProperty("java.io.tmpdir"), "JDSXTool-in-memory-" + UUID.randomUUID());
+    private final Map<String, byte[]> bytecode = new HashMap<>();
+    private final Map<String, String> sources = new TreeMap<>();
+
+    private InMemoryDecompiler() {
+    }
+
+    /**
+     * Decompiles the given classes. Inner classes are merged into the source of their outer class.
+     *
+     * @param classes the `.class` bytes keyed by internal class name (e.g. {@code com/example/Foo})
+     * @return the Java source of every top-level class, keyed and sorted by internal class name
+     */
+    static Map<String, String> decompile(Map<String, byte[]> classes) {
+        InMemoryDecompiler inMemoryDecompiler = new InMemoryDecompiler();
+        Map<String, Object> options = new HashMap<>();
+        options.put(IFernflowerPreferences.LOG_LEVEL, "WARN");
+        BaseDecompiler decompiler = new BaseDecompiler(inMemoryDecompiler, inMemoryDecompiler,
+                options, new PrintStreamLogger(System.err));
+
+        try {
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                File classFile = new File(inMemoryDecompiler.root, entry.getKey() + ".class");
+                inMemoryDecompiler.bytecode.put(classFile.getAbsolutePath(), entry.getValue());
+                decompiler.addSpace(classFile, true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        decompiler.decompileContext();
+        return inMemoryDecompiler.sources;
+    }
+
+    /**
+     * Decompiles the given classes in parallel.
+     * <p>
+     * Classes are grouped by outer class so an outer class and its inner classes always share a decompiler context.
+     * The groups are spread over {@code parallelism} shards, largest first, so the shards get a similar amount of bytecode.
+     * Every shard runs on one executor thread with its own Fernflower context, and the results are merged in class name order,
+     * so the output does not depend on scheduling.
+     * </p>
+     *
+     * @param classes     the `.class` bytes keyed by internal class name (e.g. {@code com/example/Foo})
+     * @param executor    the executor the shards run on
+     * @param parallelism the maximum number of shards
+     * @return the Java source of every top-level class, keyed and sorted by internal class name
+     */
+    static Map<String, String> decompile(Map<String, byte[]> classes, Executor executor, int parallelism) {
+        List<Map<String, byte[]>> shards = shard(classes, parallelism);
+        if (shards.size() <= 1) {
+            return decompile(classes);
+        }
+
+        Map<String, String> sources = new ConcurrentHashMap<>();
+        List<Runnable> tasks = new ArrayList<>(shards.size());
+        for (Map<String, byte[]> shard : shards) {
+            tasks.add(() -> sources.putAll(decompile(shard)));
+        }
+        Parallel.runAll(tasks, executor);
+
+        return new TreeMap<>(sources);
+    }
+
+    /**
+     * Splits classes into at most {@code shardCount} shards, keeping every outer class together with its inner classes.
+     */
+    static List<Map<String, byte[]>> shard(Map<String, byte[]> classes, int shardCount) {
+        List<Map<String, byte[]>> sortedGroups = new ArrayList<>(groupByOuterClass(classes).values());
+        sortedGroups.sort(Comparator.comparingLong(InMemoryDecompiler::size).reversed());
+
+        int count = Math.max(1, Math.min(shardCount, sortedGroups.size()));
+        List<Map<String, byte[]>> shards = new ArrayList<>(count);
+        long[] shardSizes = new long[count];
+        for (int i = 0; i < count; i++) {
+            shards.add(new TreeMap<>());
+        }
+
+        // largest group first into the currently smallest shard
+        for (Map<String, byte[]> group : sortedGroups) {
+            int smallest = 0;
+            for (int i = 1; i < count; i++) {
+                if (shardSizes[i] < shardSizes[smallest]) {
+                    smallest = i;
+                }
+            }
+            shards.get(smallest).putAll(group);
+            shardSizes[smallest] += size(group);
+        }
+        return shards;
+    }
+
+    /**
+     * Groups classes by their outermost class.
+     *
+     * @param classes the `.class` bytes keyed by internal class name
+     * @return the classes of every group keyed by the internal name of the outermost class, both sorted by name
+     */
+    static Map<String, Map<String, byte[]>> groupByOuterClass(Map<String, byte[]> classes) {
+        Map<String, Map<String, byte[]>> groups = new TreeMap<>();
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            groups.computeIfAbsent(getOuterClassName(entry.getKey()), name -> new TreeMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+        return groups;
+    }
+
+    /**
+     * Returns the internal name of the outermost class, e.g. {@code com/example/Foo} for {@code com/example/Foo$Bar$1}.
+     */
+    static String getOuterClassName(String className) {
+        int separator = className.indexOf('$', className.lastIndexOf('/') + 1);
+        return separator > 0 ? className.substring(0, separator) : className;
+    }
+
+    private static long size(Map<String, byte[]> classes) {
+        long size = 0;
+        for (byte[] bytes : classes.values()) {
+            size += bytes.length;
+        }
+        return size;
+    }
+
+    @Override
+    public byte[] getBytecode(String externalPath, String internalPath) throws IOException {
+        byte[] bytes = bytecode.get(externalPath);
+        if (bytes == null) {
+            throw new IOException("Class not found: " + externalPath);
+        }
+        return bytes;
+    }
+
+    @Override
+    public void saveClassFile(String path, String qualifiedName, String entryName, String content, int[] mapping) {
+        if (content != null) {
+            sources.put(qualifiedName, content);
+        }
+    }
+
+    @Override
+    public void saveFolder(String path) {
+    }
+
+    @Override
+    public void copyFile(String source, String path, String entryName) {
+    }
+
+    @Override
+    public void createArchive(String path, String archiveName, Manifest manifest) {
+    }
+
+    @Override
+    public void saveDirEntry(String path, String archiveName, String entryName) {
+    }
+
+    @Override
+    public void copyEntry(String source, String path, String archiveName, String entry) {
+    }
+
+    @Override
+    public void saveClassEntry(String path, String archiveName, String qualifiedName, String entryName, String content) {
+    }
+
+    @Override
+    public void closeArchive(String path, String archiveName) {
+    }
+}
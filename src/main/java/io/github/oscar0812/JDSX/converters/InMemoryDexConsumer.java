@@ -0,0 +1,36 @@
+package io.github.oscar0812.JDSX.converters;
+
+import com.android.tools.r8.ByteDataView;
+import com.android.tools.r8.DexIndexedConsumer;
+import com.android.tools.r8.DiagnosticsHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Captures the `.dex` files produced by D8 in memory instead of writing them to an output directory.
+ * D8 may hand over the files from several threads, so access is synchronized.
+ */
+class InMemoryDexConsumer extends DexIndexedConsumer.ForwardingConsumer {
+
+    private final Map<Integer, byte[]> dexFiles = new TreeMap<>();
+
+    InMemoryDexConsumer() {
+        super(null);
+    }
+
+    @Override
+    public synchronized void accept(int fileIndex, ByteDataView data, Set<String> descriptors, DiagnosticsHandler handler) {
+        dexFiles.put(fileIndex, data.copyByteData());
+    }
+
+    /**
+     * @return the generated `.dex` files ordered by file index (`classes.dex`, `classes2.dex`, ...)
+     */
+    synchronized List<byte[]> getDexFiles() {
+        return new ArrayList<>(dexFiles.values());
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.oscar0812.JDSX.converters;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiles Java sources inside the running JVM using {@link JavaCompiler}.
+ * Sources are read from strings and the generated `.class` bytes are kept in memory,
+ * so nothing is written to disk and no external `javac` process is started.
+ * The class path is empty, so the sources only see the JDK and not the classes of the running application.
+ */
+class InMemoryJavaCompiler {
+
+    private static final JavaCompiler COMPILER = ToolProvider.getSystemJavaCompiler();
+
+    private InMemoryJavaCompiler() {
+    }
+
+    /**
+     * @return {@code true} if the running JVM ships a system Java compiler (i.e. it is a JDK, not a JRE)
+     */
+    static boolean isAvailable() {
+        return COMPILER != null;
+    }
+
+    /**
+     * Compiles the given sources.
+     *
+     * @param sources the Java sources keyed by file name (e.g. {@code HelloWorld.java} or {@code com/example/Foo.java})
+     * @return the compiled classes and the compiler diagnostics
+     * @throws IllegalStateException if the Java compiler is not available
+     * @throws IOException           if the file manager fails
+     */
+    static CompilationResult compile(Map<String, String> sources) throws IOException {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Java compiler is not available. Make sure a JDK is used instead of a JRE.");
+        }
+
+        List<JavaFileObject> compilationUnits = new ArrayList<>();
+        long bytesIn = 0;
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            compilationUnits.add(new SourceFile(source.getKey(), source.getValue()));
+            bytesIn += source.getValue().getBytes(StandardCharsets.UTF_8).length;
+        }
+        Metrics.Recording recording = Metrics.start(Metrics.JAVAC, bytesIn);
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String, ClassFile> classFiles = new TreeMap<>();
+
+        try (StandardJavaFileManager standardFileManager = COMPILER.getStandardFileManager(diagnostics, null, null)) {
+            // without it javac falls back to java.class.path, the class path of the running application
+            standardFileManager.setLocation(StandardLocation.CLASS_PATH, List.of());
+            JavaFileManager fileManager = new ClassFileManager(standardFileManager, classFiles);
+            boolean success = COMPILER.getTask(null, fileManager, diagnostics, null, null, compilationUnits).call();
+
+            Map<String, byte[]> classes = new TreeMap<>();
+            for (Map.Entry<String, ClassFile> classFile : classFiles.entrySet()) {
+                byte[] classBytes = classFile.getValue().getBytes();
+                classes.put(classFile.getKey().replace('.', '/'), classBytes);
+                recording.classes(1).bytesOut(classBytes.length);
+            }
+            CompilationResult result = new CompilationResult(success, classes, new ArrayList<>(diagnostics.getDiagnostics()));
+            if (success) {
+                recording.finish();
+            } else {
+                // the caller decides whether to throw, the stage is recorded as failed either way
+                recording.fail(new CompilationException(result.getDiagnostics()));
+            }
+            return result;
+        } catch (IOException e) {
+            throw recording.fail(e);
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
+        }
+    }
+
+    /**
+     * A source file backed by a string.
+     */
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String code;
+
+        SourceFile(String fileName, String code) {
+            super(URI.create("string:///" + fileName.replace('\\', '/')), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    /**
+     * A `.class` file backed by a byte array.
+     */
+    private static class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassFile(String className) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+
+        byte[] getBytes() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Redirects class output to {@link ClassFile} instances instead of the file system.
+     */
+    private static class ClassFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ClassFile> classFiles;
+
+        ClassFileManager(StandardJavaFileManager fileManager, Map<String, ClassFile> classFiles) {
+            super(fileManager);
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) throws IOException {
+            if (kind != JavaFileObject.Kind.CLASS) {
+                return super.getJavaFileForOutput(location, className, kind, sibling);
+            }
+            ClassFile classFile = new ClassFile(className);
+            classFiles.put(className, classFile);
+            return classFile;
+        }
+    }
+}
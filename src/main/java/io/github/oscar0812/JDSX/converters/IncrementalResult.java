@@ -0,0 +1,59 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The outcome of an incremental conversion: the output directory and which classes were added, changed,
+ * removed or left untouched compared to the previous conversion into the same directory.
+ * Classes are identified by internal name (e.g. {@code com/example/Foo}).
+ */
+public class IncrementalResult {
+
+    private final Path outputDirectory;
+    private final Set<String> added;
+    private final Set<String> changed;
+    private final Set<String> removed;
+    private final Set<String> unchanged;
+
+    IncrementalResult(Path outputDirectory, Set<String> added, Set<String> changed, Set<String> removed, Set<String> unchanged) {
+        this.outputDirectory = outputDirectory;
+        this.added = Collections.unmodifiableSet(added);
+        this.changed = Collections.unmodifiableSet(changed);
+        this.removed = Collections.unmodifiableSet(removed);
+        this.unchanged = Collections.unmodifiableSet(unchanged);
+    }
+
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * @return the classes that were not part of the previous conversion and have been converted
+     */
+    public Set<String> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return the classes whose input changed since the previous conversion and have been converted again
+     */
+    public Set<String> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return the classes that are no longer part of the input and whose outputs have been deleted
+     */
+    public Set<String> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return the classes whose previous outputs have been kept
+     */
+    public Set<String> getUnchanged() {
+        return unchanged;
+    }
+}
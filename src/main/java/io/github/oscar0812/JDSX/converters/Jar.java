@@ -1,15 +1,16 @@
 package io.github.oscar0812.JDSX.converters;
 
-import org.jetbrains.java.decompiler.main.decompiler.ConsoleDecompiler;
-
 import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.Enumeration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
 import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
 
 /**
  * Utility class for operations related to JAR files, such as extracting contents,
@@ -43,34 +44,74 @@ public class Jar {
      * @throws SecurityException if a JAR entry is found with a relative path outside the extraction directory
      */
     public static void extractJar(Path jarPath, Path destinationDir) throws IOException {
+        extractJar(jarPath, destinationDir, Parallel.defaultParallelism());
+    }
+
+    /**
+     * Extracts the contents of a JAR file to a specified destination directory using several threads.
+     * The directory tree is created up front, then the files are extracted in parallel, largest first.
+     *
+     * @param jarPath        the path to the JAR file to extract
+     * @param destinationDir the directory to extract the contents into
+     * @param parallelism    the maximum number of files extracted at the same time
+     * @return the number of extracted files and bytes, and the extraction throughput
+     * @throws IOException if an I/O error occurs during extraction
+     * @throws IllegalArgumentException if the destination directory is null or {@code parallelism} is less than 1
+     * @throws SecurityException if a JAR entry is found with a relative path outside the extraction directory
+     */
+    public static ExtractionReport extractJar(Path jarPath, Path destinationDir, int parallelism) throws IOException {
         FileUtils.validateFilePath(jarPath, "JAR path");
         if (destinationDir == null) {
             throw new IllegalArgumentException("Destination directory cannot be null.");
         }
-        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
-            jarFile.stream().forEach(entry -> {
-                Path entryPath = destinationDir.resolve(entry.getName());
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
 
-                if (entry.getName().startsWith("..")) {
-                    throw new SecurityException("Invalid JAR entry with relative path outside the extraction directory: " + entry.getName());
-                }
+        return extractJar(JarIndex.open(jarPath), destinationDir, parallelism);
+    }
 
-                try {
-                    if (entry.isDirectory()) {
-                        Files.createDirectories(entryPath);
-                    } else {
-                        Files.createDirectories(entryPath.getParent());
-                        Files.copy(jarFile.getInputStream(entry), entryPath, StandardCopyOption.REPLACE_EXISTING);
-                    }
-                } catch (IOException e) {
-                    throw new UncheckedIOException("Error extracting: " + entry.getName(), e);
-                }
-            });
+    /**
+     * Extracts the contents of an indexed JAR file to a specified destination directory using several threads.
+     * Stored entries are copied from channel to channel, deflated entries are inflated with reused buffers.
+     *
+     * @param jarIndex       the index of the JAR file to extract
+     * @param destinationDir the directory to extract the contents into
+     * @param parallelism    the maximum number of files extracted at the same time
+     * @return the number of extracted files and bytes, and the extraction throughput
+     * @throws IOException if an I/O error occurs during extraction
+     * @throws IllegalArgumentException if any argument is null or {@code parallelism} is less than 1
+     * @throws SecurityException if a JAR entry is found with a relative path outside the extraction directory
+     */
+    public static ExtractionReport extractJar(JarIndex jarIndex, Path destinationDir, int parallelism) throws IOException {
+        if (jarIndex == null) {
+            throw new IllegalArgumentException("JAR index cannot be null.");
+        }
+        if (destinationDir == null) {
+            throw new IllegalArgumentException("Destination directory cannot be null.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+
+        Metrics.Recording recording = Metrics.start(Metrics.JAR_EXTRACT, 0);
+        try {
+            ExtractionReport report = JarExtractor.extract(jarIndex, destinationDir, Parallel.defaultExecutor(), parallelism);
+            recording.bytesIn(report.getCompressedBytes())
+                    .bytesOut(report.getUncompressedBytes())
+                    .filesWritten(report.getFileCount())
+                    .finish();
+            return report;
+        } catch (IOException e) {
+            throw recording.fail(e);
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
         }
     }
 
     /**
      * Converts a JAR file containing compiled `.class` files into a JAR file containing Java source files.
+     * The classes are decompiled in parallel, non-class entries are copied over unchanged.
      *
      * @param jarPath the path to the JAR file containing compiled `.class` files
      * @return the path to the decompiled JAR containing `.java` source files
@@ -78,40 +119,378 @@ public class Jar {
      * @throws IOException if an I/O error occurs during decompiling, file extraction, or JAR creation
      */
     public static Path convertClassJarToJavaJar(Path jarPath) throws IOException {
-        FileUtils.validateFilePath(jarPath, "JAR path");
+        return convertClassJarToJavaJar(jarPath, Parallel.defaultParallelism());
+    }
+
+    /**
+     * Converts a JAR file containing compiled `.class` files into a JAR file containing Java source files.
+     * The classes are split into shards that keep outer and inner classes together and decompiled in parallel.
+     *
+     * @param jarPath     the path to the JAR file containing compiled `.class` files
+     * @param parallelism the maximum number of shards decompiled at the same time
+     * @return the path to the decompiled JAR containing `.java` source files
+     * @throws IllegalArgumentException if the provided JAR file does not contain `.class` files
+     *                                  or {@code parallelism} is less than 1
+     * @throws IOException if an I/O error occurs during decompiling, file extraction, or JAR creation
+     */
+    public static Path convertClassJarToJavaJar(Path jarPath, int parallelism) throws IOException {
+        return convertClassJarToJavaJar(JarIndex.open(jarPath), parallelism);
+    }
+
+    /**
+     * Converts an indexed JAR file containing compiled `.class` files into a JAR file containing Java source files.
+     * The classes are split into shards that keep outer and inner classes together and decompiled in parallel.
+     *
+     * @param jarIndex    the index of the JAR file containing compiled `.class` files
+     * @param parallelism the maximum number of shards decompiled at the same time
+     * @return the path to the decompiled JAR containing `.java` source files
+     * @throws IllegalArgumentException if the provided JAR file does not contain `.class` files
+     *                                  or {@code parallelism} is less than 1
+     * @throws IOException if an I/O error occurs during decompiling or JAR creation
+     */
+    public static Path convertClassJarToJavaJar(JarIndex jarIndex, int parallelism) throws IOException {
+        return convertClassJarToJavaJar(jarIndex, parallelism, ClassFilter.all());
+    }
 
-        if (!isClassJar(jarPath)) {
+    /**
+     * Converts the classes of an indexed JAR file accepted by a filter into a JAR file containing Java source files.
+     * Rejected classes are neither read nor decompiled and are left out of the output, other entries are copied over.
+     *
+     * @param jarIndex    the index of the JAR file containing compiled `.class` files
+     * @param parallelism the maximum number of shards decompiled at the same time
+     * @param filter      selects the classes to decompile
+     * @return the path to the decompiled JAR containing `.java` source files
+     * @throws IllegalArgumentException if the provided JAR file does not contain `.class` files,
+     *                                  {@code parallelism} is less than 1 or {@code filter} is null
+     * @throws IOException if an I/O error occurs during decompiling or JAR creation
+     */
+    public static Path convertClassJarToJavaJar(JarIndex jarIndex, int parallelism, ClassFilter filter) throws IOException {
+        return convertClassJarToJavaJar(jarIndex, Parallel.defaultExecutor(), parallelism, filter);
+    }
+
+    /**
+     * Converts the classes of an indexed JAR file accepted by a filter into a JAR file containing Java source files,
+     * decompiling the shards on the given executor.
+     * Rejected classes are neither read nor decompiled and are left out of the output, other entries are copied over.
+     *
+     * @param jarIndex    the index of the JAR file containing compiled `.class` files
+     * @param executor    the executor the shards are decompiled on
+     * @param parallelism the maximum number of shards decompiled at the same time
+     * @param filter      selects the classes to decompile
+     * @return the path to the decompiled JAR containing `.java` source files
+     * @throws IllegalArgumentException if the provided JAR file does not contain `.class` files, {@code executor}
+     *                                  or {@code filter} is null or {@code parallelism} is less than 1
+     * @throws IOException if an I/O error occurs during decompiling or JAR creation
+     */
+    public static Path convertClassJarToJavaJar(JarIndex jarIndex, Executor executor, int parallelism, ClassFilter filter)
+            throws IOException {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+        if (!isClassJar(jarIndex)) {
             throw new IllegalArgumentException("The provided JAR file does not contain `.class` files.");
         }
 
+        Path jarPath = jarIndex.getPath();
         Path outputDir = FileUtils.getSiblingDirectory(jarPath, "java_jar_out");
         Files.createDirectories(outputDir);
 
-        // Decompile the class files to Java source
-        ConsoleDecompiler.main(new String[]{
-                jarPath.toString(),
-                outputDir.toString()
-        });
+        Path javaJarPath = outputDir.resolve(jarPath.getFileName());
+        return ConversionCache.cached(ConversionCache.conversion("class-jar-to-java-jar", filter), jarPath, javaJarPath,
+                output -> writeJavaJar(jarIndex, output, executor, parallelism, filter));
+    }
 
-        // Find the decompiled JAR and return its path
-        return Files.list(outputDir)
-                .filter(path -> path.toString().endsWith(".jar"))
-                .findFirst()
-                .orElseThrow(() -> new IOException("Decompiled JAR not found."));
+    private static void writeJavaJar(JarIndex jarIndex, Path javaJarPath, Executor executor, int parallelism,
+                                     ClassFilter filter) throws IOException {
+        Map<String, byte[]> classes = readClasses(jarIndex, filter);
+        Map<String, String> sources = classes.isEmpty()
+                ? Map.of()
+                : Class.convertClassBytesToJava(classes, executor, parallelism);
+
+        try (JarIndex.Reader reader = jarIndex.newReader();
+             JarOutputStream javaJar = new JarOutputStream(Files.newOutputStream(javaJarPath))) {
+            for (JarIndex.Entry entry : jarIndex.getEntries()) {
+                if (!entry.getName().endsWith(".class")) {
+                    javaJar.putNextEntry(new JarEntry(entry.getName()));
+                    if (!entry.isDirectory()) {
+                        javaJar.write(reader.read(entry));
+                    }
+                    javaJar.closeEntry();
+                }
+            }
+
+            for (Map.Entry<String, String> source : sources.entrySet()) {
+                javaJar.putNextEntry(new JarEntry(source.getKey() + ".java"));
+                javaJar.write(source.getValue().getBytes(StandardCharsets.UTF_8));
+                javaJar.closeEntry();
+            }
+        }
     }
 
     /**
      * Converts a JAR file containing compiled `.class` files into a directory of Java source files.
+     * The classes are decompiled in memory and written straight to the output directory,
+     * no intermediate decompiled JAR is created.
      *
      * @param jarPath the path to the JAR file containing compiled class files
      * @return the path to the directory containing the decompiled Java source files
      * @throws IOException if an I/O error occurs during decompiling or file extraction
      */
     public static Path convertClassJarToJava(Path jarPath) throws IOException {
-        Path decompiledJar = Jar.convertClassJarToJavaJar(jarPath);
-        Path outputDir = FileUtils.getSiblingDirectory(jarPath, "java_out");
-        Jar.extractJar(decompiledJar, outputDir);
-        return outputDir;
+        return convertClassJarToJava(jarPath, Parallel.defaultParallelism());
+    }
+
+    /**
+     * Converts a JAR file containing compiled `.class` files into a directory of Java source files.
+     * The classes are split into shards that keep outer and inner classes together and decompiled in parallel.
+     *
+     * @param jarPath     the path to the JAR file containing compiled class files
+     * @param parallelism the maximum number of shards decompiled at the same time, 1 decompiles on a single thread
+     * @return the path to the directory containing the decompiled Java source files
+     * @throws IllegalArgumentException if {@code parallelism} is less than 1
+     * @throws IOException if an I/O error occurs during decompiling or file extraction
+     */
+    public static Path convertClassJarToJava(Path jarPath, int parallelism) throws IOException {
+        return convertClassJarToJava(JarIndex.open(jarPath), parallelism);
+    }
+
+    /**
+     * Converts an indexed JAR file containing compiled `.class` files into a directory of Java source files.
+     * The classes are split into shards that keep outer and inner classes together and decompiled in parallel.
+     *
+     * @param jarIndex    the index of the JAR file containing compiled class files
+     * @param parallelism the maximum number of shards decompiled at the same time, 1 decompiles on a single thread
+     * @return the path to the directory containing the decompiled Java source files
+     * @throws IllegalArgumentException if the JAR file does not contain `.class` files or {@code parallelism} is less than 1
+     * @throws IOException if an I/O error occurs during decompiling
+     */
+    public static Path convertClassJarToJava(JarIndex jarIndex, int parallelism) throws IOException {
+        return convertClassJarToJava(jarIndex, parallelism, ClassFilter.all());
+    }
+
+    /**
+     * Converts the classes of a JAR file accepted by a filter into a directory of Java source files.
+     * Rejected classes are neither read nor decompiled.
+     *
+     * @param jarPath the path to the JAR file containing compiled class files
+     * @param filter  selects the classes to decompile
+     * @return the path to the directory containing the decompiled Java source files
+     * @throws IllegalArgumentException if the JAR file does not contain `.class` files or {@code filter} is null
+     * @throws IOException if an I/O error occurs during decompiling or file extraction
+     */
+    public static Path convertClassJarToJava(Path jarPath, ClassFilter filter) throws IOException {
+        return convertClassJarToJava(JarIndex.open(jarPath), Parallel.defaultParallelism(), filter);
+    }
+
+    /**
+     * Converts the classes of an indexed JAR file accepted by a filter into a directory of Java source files.
+     * Rejected classes are neither read nor decompiled. If the filter rejects every class, the output directory
+     * is left empty.
+     *
+     * @param jarIndex    the index of the JAR file containing compiled class files
+     * @param parallelism the maximum number of shards decompiled at the same time, 1 decompiles on a single thread
+     * @param filter      selects the classes to decompile
+     * @return the path to the directory containing the decompiled Java source files
+     * @throws IllegalArgumentException if the JAR file does not contain `.class` files, {@code parallelism}
+     *                                  is less than 1 or {@code filter} is null
+     * @throws IOException if an I/O error occurs during decompiling
+     */
+    public static Path convertClassJarToJava(JarIndex jarIndex, int parallelism, ClassFilter filter) throws IOException {
+        return convertClassJarToJava(jarIndex, Parallel.defaultExecutor(), parallelism, filter);
+    }
+
+    /**
+     * Converts the classes of an indexed JAR file accepted by a filter into a directory of Java source files,
+     * decompiling the shards on the given executor.
+     * Rejected classes are neither read nor decompiled. If the filter rejects every class, the output directory
+     * is left empty.
+     *
+     * @param jarIndex    the index of the JAR file containing compiled class files
+     * @param executor    the executor the shards are decompiled on
+     * @param parallelism the maximum number of shards decompiled at the same time, 1 decompiles on a single thread
+     * @param filter      selects the classes to decompile
+     * @return the path to the directory containing the decompiled Java source files
+     * @throws IllegalArgumentException if the JAR file does not contain `.class` files, {@code executor}
+     *                                  or {@code filter} is null or {@code parallelism} is less than 1
+     * @throws IOException if an I/O error occurs during decompiling
+     */
+    public static Path convertClassJarToJava(JarIndex jarIndex, Executor executor, int parallelism, ClassFilter filter)
+            throws IOException {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+        if (!isClassJar(jarIndex)) {
+            throw new IllegalArgumentException("The provided JAR file does not contain `.class` files.");
+        }
+
+        Map<String, byte[]> classes = readClasses(jarIndex, filter);
+        Path outputDir = FileUtils.getSiblingDirectory(jarIndex.getPath(), "java_out");
+        if (classes.isEmpty()) {
+            // the filter rejected every class
+            return Files.createDirectories(outputDir);
+        }
+
+        return ConversionCache.cached("class-to-java", classes, outputDir, output -> {
+            Map<String, String> sources = Class.convertClassBytesToJava(classes, executor, parallelism);
+            FileUtils.writeFiles(output, sources, ".java");
+        });
+    }
+
+    /**
+     * Converts a JAR file containing compiled `.class` files into a directory of Java source files, reusing the output
+     * of a previous conversion into the same directory.
+     * <p>
+     * The directory keeps a manifest with the hash of every outer class and its inner classes, which also covers the
+     * decompiler version. Only classes that were added or changed since the previous conversion, or every class after
+     * a decompiler upgrade, are decompiled, and the sources of removed classes are deleted.
+     * A directory without a manifest is converted in full.
+     * </p>
+     *
+     * @param jarPath   the path to the JAR file containing compiled class files
+     * @param outputDir the directory holding the previous output, created if it does not exist
+     * @return the output directory and the added, changed, removed and unchanged outer classes
+     * @throws IllegalArgumentException if {@code outputDir} is null or the JAR file does not contain `.class` files
+     * @throws IOException if an I/O error occurs during decompiling or file extraction
+     */
+    public static IncrementalResult convertClassJarToJavaIncremental(Path jarPath, Path outputDir) throws IOException {
+        return convertClassJarToJavaIncremental(jarPath, outputDir, Parallel.defaultExecutor(), Parallel.defaultParallelism());
+    }
+
+    /**
+     * Converts a JAR file containing compiled `.class` files into a directory of Java source files, reusing the output
+     * of a previous conversion into the same directory and decompiling the added and changed classes on the given
+     * executor.
+     *
+     * @param jarPath     the path to the JAR file containing compiled class files
+     * @param outputDir   the directory holding the previous output, created if it does not exist
+     * @param executor    the executor the shards are decompiled on
+     * @param parallelism the maximum number of shards decompiled at the same time, 1 decompiles on a single thread
+     * @return the output directory and the added, changed, removed and unchanged outer classes
+     * @throws IllegalArgumentException if {@code outputDir} or {@code executor} is null, {@code parallelism}
+     *                                  is less than 1 or the JAR file does not contain `.class` files
+     * @throws IOException if an I/O error occurs during decompiling or file extraction
+     * @see #convertClassJarToJavaIncremental(Path, Path)
+     */
+    public static IncrementalResult convertClassJarToJavaIncremental(Path jarPath, Path outputDir, Executor executor,
+                                                                     int parallelism) throws IOException {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        if (outputDir == null) {
+            throw new IllegalArgumentException("Output directory path cannot be null or empty");
+        }
+
+        Map<String, byte[]> classes = readClasses(jarPath);
+        if (classes.isEmpty()) {
+            throw new IllegalArgumentException("The provided JAR file does not contain `.class` files.");
+        }
+
+        Files.createDirectories(outputDir);
+        ConversionManifest manifest = ConversionManifest.load(outputDir);
+
+        Map<String, Map<String, byte[]>> groups = InMemoryDecompiler.groupByOuterClass(classes);
+        // like a cache key, the hash covers the decompiler, so upgrading it converts every class again
+        String hashPrefix = "class-to-java\0" + ConversionCache.getToolVersions();
+        Map<String, String> hashes = new TreeMap<>();
+        for (Map.Entry<String, Map<String, byte[]>> group : groups.entrySet()) {
+            hashes.put(group.getKey(), ContentHash.of(hashPrefix, group.getValue()));
+        }
+        IncrementalResult result = manifest.diff(hashes);
+
+        for (String outerClassName : result.getRemoved()) {
+            manifest.remove(outerClassName);
+        }
+
+        Map<String, List<String>> outputs = new TreeMap<>();
+        Map<String, byte[]> classesToConvert = new TreeMap<>();
+        for (String outerClassName : result.getAdded()) {
+            outputs.put(outerClassName, new ArrayList<>());
+            classesToConvert.putAll(groups.get(outerClassName));
+        }
+        for (String outerClassName : result.getChanged()) {
+            manifest.remove(outerClassName);
+            outputs.put(outerClassName, new ArrayList<>());
+            classesToConvert.putAll(groups.get(outerClassName));
+        }
+
+        if (!classesToConvert.isEmpty()) {
+            Map<String, String> sources = Class.convertClassBytesToJava(classesToConvert, executor, parallelism);
+            FileUtils.writeFiles(outputDir, sources, ".java");
+            for (String className : sources.keySet()) {
+                List<String> groupOutputs = outputs.get(InMemoryDecompiler.getOuterClassName(className));
+                if (groupOutputs != null) {
+                    groupOutputs.add(className + ".java");
+                }
+            }
+            for (Map.Entry<String, List<String>> group : outputs.entrySet()) {
+                manifest.put(group.getKey(), hashes.get(group.getKey()), group.getValue());
+            }
+        }
+
+        manifest.save();
+        return result;
+    }
+
+    /**
+     * Reads the `.class` entries of a JAR file into memory.
+     *
+     * @param jarPath the path to the JAR file
+     * @return the `.class` bytes keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IOException if an I/O error occurs while reading the JAR file
+     */
+    public static Map<String, byte[]> readClasses(Path jarPath) throws IOException {
+        return readClasses(JarIndex.open(jarPath));
+    }
+
+    /**
+     * Reads the `.class` entries of an indexed JAR file into memory.
+     *
+     * @param jarIndex the index of the JAR file
+     * @return the `.class` bytes keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IOException if an I/O error occurs while reading the JAR file
+     */
+    public static Map<String, byte[]> readClasses(JarIndex jarIndex) throws IOException {
+        return readClasses(jarIndex, ClassFilter.all());
+    }
+
+    /**
+     * Reads the `.class` entries of an indexed JAR file accepted by a filter into memory.
+     * Rejected entries are skipped without being read.
+     *
+     * @param jarIndex the index of the JAR file
+     * @param filter   selects the classes to read
+     * @return the `.class` bytes keyed and sorted by internal class name (e.g. {@code com/example/Foo})
+     * @throws IllegalArgumentException if any argument is null
+     * @throws IOException if an I/O error occurs while reading the JAR file
+     */
+    public static Map<String, byte[]> readClasses(JarIndex jarIndex, ClassFilter filter) throws IOException {
+        if (jarIndex == null) {
+            throw new IllegalArgumentException("JAR index cannot be null.");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Class filter cannot be null.");
+        }
+
+        Map<String, byte[]> classes = new TreeMap<>();
+        try (JarIndex.Reader reader = jarIndex.newReader()) {
+            for (JarIndex.Entry entry : jarIndex.getClassEntries()) {
+                String name = entry.getName();
+                String className = name.substring(0, name.length() - ".class".length());
+                if (filter.accepts(className)) {
+                    classes.put(className, reader.read(entry));
+                }
+            }
+        }
+        return classes;
     }
 
     /**
@@ -148,15 +527,19 @@ public class Jar {
      * @throws IOException if an I/O error occurs while reading the JAR file
      */
     public static boolean isClassJar(Path jarPath) throws IOException {
-        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
-            Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (entry.getName().endsWith(".class")) {
-                    return true; // It's a class JAR
-                }
-            }
+        return isClassJar(JarIndex.open(jarPath));
+    }
+
+    /**
+     * Checks if an indexed JAR file contains `.class` files, without reading any entry.
+     *
+     * @param jarIndex the index of the JAR file
+     * @return true if the JAR contains `.class` files, false otherwise
+     */
+    public static boolean isClassJar(JarIndex jarIndex) {
+        if (jarIndex == null) {
+            throw new IllegalArgumentException("JAR index cannot be null.");
         }
-        return false; // Not a class JAR
+        return jarIndex.containsClasses();
     }
 }
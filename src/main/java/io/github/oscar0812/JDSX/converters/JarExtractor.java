@@ -0,0 +1,114 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Extracts JAR files using several threads.
+ * <p>
+ * All entry names are validated and the whole directory tree is created before any file is written,
+ * so the workers only open, fill and close files. The files are handed out largest first from a shared queue,
+ * which keeps all workers busy until the end. Every worker reads the archive through its own
+ * {@link JarIndex.Reader}: stored entries are transferred from channel to channel, deflated entries are inflated
+ * with the reader's reusable inflater and buffers.
+ * </p>
+ */
+class JarExtractor {
+
+    private JarExtractor() {
+    }
+
+    /**
+     * Extracts a JAR file.
+     *
+     * @param index          the index of the JAR file to extract
+     * @param destinationDir the directory to extract into
+     * @param executor       the executor the files are extracted on
+     * @param parallelism    the maximum number of files extracted at the same time
+     * @return the extraction statistics
+     * @throws SecurityException if an entry would be extracted outside the destination directory
+     * @throws IOException       if the archive cannot be read or a file cannot be written
+     */
+    static ExtractionReport extract(JarIndex index, Path destinationDir, Executor executor, int parallelism) throws IOException {
+        long start = System.nanoTime();
+        Path root = destinationDir.toAbsolutePath().normalize();
+
+        List<JarIndex.Entry> files = new ArrayList<>();
+        Set<Path> directories = new TreeSet<>();
+        directories.add(root);
+        for (JarIndex.Entry entry : index.getEntries()) {
+            Path entryPath = resolve(root, entry.getName());
+            if (entry.isDirectory()) {
+                directories.add(entryPath);
+            } else {
+                directories.add(entryPath.getParent());
+                files.add(entry);
+            }
+        }
+
+        // parents sort before their children, so every directory is created exactly once
+        for (Path directory : directories) {
+            Files.createDirectories(directory);
+        }
+
+        files.sort(Comparator.comparingLong(JarIndex.Entry::getSize).reversed());
+        Queue<JarIndex.Entry> queue = new ConcurrentLinkedQueue<>(files);
+        AtomicLong compressedBytes = new AtomicLong();
+        AtomicLong uncompressedBytes = new AtomicLong();
+
+        int workerCount = Math.max(1, Math.min(parallelism, files.size()));
+        List<Runnable> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(() -> {
+                try (JarIndex.Reader reader = index.newReader()) {
+                    JarIndex.Entry entry;
+                    while ((entry = queue.poll()) != null) {
+                        uncompressedBytes.addAndGet(extractEntry(reader, entry, resolve(root, entry.getName())));
+                        compressedBytes.addAndGet(entry.getCompressedSize());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error reading: " + index.getPath(), e);
+                }
+            });
+        }
+
+        try {
+            Parallel.runAll(workers, executor);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return new ExtractionReport(destinationDir, files.size(), directories.size(),
+                compressedBytes.get(), uncompressedBytes.get(), System.nanoTime() - start);
+    }
+
+    private static Path resolve(Path root, String entryName) {
+        Path entryPath = root.resolve(entryName).normalize();
+        if (entryName.startsWith("..") || !entryPath.startsWith(root)) {
+            throw new SecurityException("Invalid JAR entry with relative path outside the extraction directory: " + entryName);
+        }
+        return entryPath;
+    }
+
+    private static long extractEntry(JarIndex.Reader reader, JarIndex.Entry entry, Path entryPath) {
+        try (FileChannel target = FileChannel.open(entryPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return reader.copy(entry, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error extracting: " + entry.getName(), e);
+        }
+    }
+}
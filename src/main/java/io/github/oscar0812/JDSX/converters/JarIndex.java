@@ -0,0 +1,493 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Index of the entries of a JAR (or any zip) file, built from its central directory.
+ * <p>
+ * Opening an index reads the end of the archive and its central directory once and records the name, sizes,
+ * compression method and local header offset of every entry. Questions such as "does the archive contain classes?"
+ * are answered from the index without inflating anything, and the same index can be handed to every {@link Jar}
+ * method working on the archive. ZIP64 archives are supported.
+ * </p>
+ * <p>
+ * An index keeps no reference to the file, neither an open channel nor a mapping, and is safe to share between
+ * threads. Entry contents are checked against the CRC-32 recorded in the central directory when they are read.
+ * </p>
+ */
+public class JarIndex {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    public static final int STORED = 0;
+    public static final int DEFLATED = 8;
+
+    private final Path path;
+    private final List<Entry> entries;
+    private final Map<String, Entry> entriesByName;
+
+    private JarIndex(Path path, List<Entry> entries) {
+        this.path = path;
+        this.entries = Collections.unmodifiableList(entries);
+        this.entriesByName = new HashMap<>(entries.size() * 2);
+        for (Entry entry : entries) {
+            entriesByName.putIfAbsent(entry.name, entry);
+        }
+    }
+
+    /**
+     * Reads the central directory of an archive.
+     *
+     * @param jarPath the archive to index
+     * @return the index of the archive
+     * @throws IllegalArgumentException if {@code jarPath} is null
+     * @throws ZipException             if the file is empty or not a zip archive
+     * @throws IOException              if the file does not exist or cannot be read
+     */
+    public static JarIndex open(Path jarPath) throws IOException {
+        FileUtils.validateFilePath(jarPath, "JAR path");
+
+        try (FileChannel channel = FileChannel.open(jarPath, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                throw new ZipException("zip file is empty");
+            }
+            if (fileSize < END_SIZE) {
+                throw new ZipException("zip END header not found");
+            }
+
+            long tailStart = Math.max(0, fileSize - END_SIZE - MAX_COMMENT_SIZE - ZIP64_LOCATOR_SIZE);
+            ByteBuffer tail = read(channel, tailStart, (int) (fileSize - tailStart));
+
+            int endPosition = findEnd(tail);
+            long entryCount = Short.toUnsignedLong(tail.getShort(endPosition + 10));
+            long directorySize = Integer.toUnsignedLong(tail.getInt(endPosition + 12));
+            long directoryOffset = Integer.toUnsignedLong(tail.getInt(endPosition + 16));
+
+            if (entryCount == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+                int locatorPosition = endPosition - ZIP64_LOCATOR_SIZE;
+                if (locatorPosition >= 0 && tail.getInt(locatorPosition) == ZIP64_LOCATOR_SIGNATURE) {
+                    long zip64EndOffset = tail.getLong(locatorPosition + 8);
+                    ByteBuffer zip64End = read(channel, zip64EndOffset, 56);
+                    if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                        throw new ZipException("invalid ZIP64 END header");
+                    }
+                    entryCount = zip64End.getLong(32);
+                    directorySize = zip64End.getLong(40);
+                    directoryOffset = zip64End.getLong(48);
+                }
+            }
+
+            if (directoryOffset + directorySize > fileSize || directorySize > Integer.MAX_VALUE) {
+                throw new ZipException("invalid central directory");
+            }
+
+            ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+            return new JarIndex(jarPath, readEntries(directory, entryCount));
+        }
+    }
+
+    private static int findEnd(ByteBuffer tail) throws ZipException {
+        for (int position = tail.limit() - END_SIZE; position >= 0; position--) {
+            if (tail.getInt(position) == END_SIGNATURE
+                    && position + END_SIZE + Short.toUnsignedInt(tail.getShort(position + 20)) == tail.limit()) {
+                return position;
+            }
+        }
+        throw new ZipException("zip END header not found");
+    }
+
+    private static List<Entry> readEntries(ByteBuffer directory, long entryCount) throws ZipException {
+        List<Entry> entries = new ArrayList<>((int) Math.min(entryCount, 1 << 16));
+        int position = 0;
+        while (position + CENTRAL_HEADER_SIZE <= directory.limit()) {
+            if (directory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("invalid central directory header at " + position);
+            }
+
+            int method = Short.toUnsignedInt(directory.getShort(position + 10));
+            long crc = Integer.toUnsignedLong(directory.getInt(position + 16));
+            long compressedSize = Integer.toUnsignedLong(directory.getInt(position + 20));
+            long size = Integer.toUnsignedLong(directory.getInt(position + 24));
+            int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(directory.getInt(position + 42));
+
+            byte[] nameBytes = new byte[nameLength];
+            directory.get(position + CENTRAL_HEADER_SIZE, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            // ZIP64 extra field: the 64-bit values follow in this order, but only for the fields that overflowed
+            int extra = position + CENTRAL_HEADER_SIZE + nameLength;
+            int extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                int id = Short.toUnsignedInt(directory.getShort(extra));
+                int dataSize = Short.toUnsignedInt(directory.getShort(extra + 2));
+                if (id == ZIP64_EXTRA_ID) {
+                    int value = extra + 4;
+                    if (size == 0xFFFFFFFFL) {
+                        size = directory.getLong(value);
+                        value += 8;
+                    }
+                    if (compressedSize == 0xFFFFFFFFL) {
+                        compressedSize = directory.getLong(value);
+                        value += 8;
+                    }
+                    if (localHeaderOffset == 0xFFFFFFFFL) {
+                        localHeaderOffset = directory.getLong(value);
+                    }
+                    break;
+                }
+                extra += 4 + dataSize;
+            }
+
+            entries.add(new Entry(name, method, crc, compressedSize, size, localHeaderOffset));
+            position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return all entries in central directory order
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @param name the entry name, e.g. {@code com/example/Foo.class}
+     * @return the entry, or {@code null} if the archive has no entry with that name
+     */
+    public Entry getEntry(String name) {
+        return entriesByName.get(name);
+    }
+
+    /**
+     * @return the number of entries, including directories
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return true if the archive contains at least one `.class` file
+     */
+    public boolean containsClasses() {
+        for (Entry entry : entries) {
+            if (entry.isClass()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the `.class` entries in central directory order
+     */
+    public List<Entry> getClassEntries() {
+        List<Entry> classEntries = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.isClass()) {
+                classEntries.add(entry);
+            }
+        }
+        return classEntries;
+    }
+
+    /**
+     * @return the sorted names of all packages containing classes, e.g. {@code com.example}; the default package is ""
+     */
+    public Set<String> getPackages() {
+        Set<String> packages = new TreeSet<>();
+        for (Entry entry : entries) {
+            if (entry.isClass()) {
+                int separator = entry.name.lastIndexOf('/');
+                packages.add(separator < 0 ? "" : entry.name.substring(0, separator).replace('/', '.'));
+            }
+        }
+        return packages;
+    }
+
+    /**
+     * Reads and, if necessary, inflates the content of an entry.
+     *
+     * @param entry an entry of this index
+     * @return the uncompressed content
+     * @throws ZipException if the entry is corrupt or its content does not match the recorded CRC-32
+     * @throws IOException  if the archive cannot be read
+     */
+    public byte[] read(Entry entry) throws IOException {
+        try (Reader reader = newReader()) {
+            return reader.read(entry);
+        }
+    }
+
+    /**
+     * Opens a reader for the entries of this archive. A reader is not thread-safe, use one reader per thread.
+     */
+    Reader newReader() throws IOException {
+        return new Reader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of zip file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * An entry of the central directory.
+     */
+    public static class Entry {
+        private final String name;
+        private final int method;
+        private final long crc;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+
+        Entry(String name, int method, long crc, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the compression method, {@link #STORED} or {@link #DEFLATED} for regular JAR files
+         */
+        public int getMethod() {
+            return method;
+        }
+
+        public long getCrc() {
+            return crc;
+        }
+
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        /**
+         * @return the uncompressed size
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return the offset of the entry's local file header from the start of the archive
+         */
+        public long getLocalHeaderOffset() {
+            return localHeaderOffset;
+        }
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+
+        public boolean isClass() {
+            return !isDirectory() && name.endsWith(".class");
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Reads entry contents through one file channel, reusing its inflater and buffers for every entry.
+     */
+    static class Reader implements Closeable {
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final FileChannel channel;
+        private final Inflater inflater = new Inflater(true);
+        private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer overflow = ByteBuffer.allocate(1);
+        private final CRC32 crc = new CRC32();
+
+        private Reader(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        byte[] read(Entry entry) throws IOException {
+            if (entry.size > Integer.MAX_VALUE - 8) {
+                throw new ZipException("entry too large to read into memory: " + entry.name);
+            }
+
+            long dataOffset = getDataOffset(entry);
+            byte[] content;
+            if (entry.method == STORED) {
+                content = JarIndex.read(channel, dataOffset, (int) entry.size).array();
+            } else {
+                content = new byte[(int) entry.size];
+                ByteBuffer contentBuffer = ByteBuffer.wrap(content);
+                inflate(entry, dataOffset, contentBuffer, () -> {
+                });
+                if (contentBuffer.hasRemaining()) {
+                    throw new ZipException("invalid entry size: " + entry.name);
+                }
+            }
+
+            crc.reset();
+            crc.update(content);
+            checkCrc(entry);
+            return content;
+        }
+
+        /**
+         * Writes the uncompressed content of an entry to a file channel.
+         * Stored entries are transferred from channel to channel without copying through the heap, so only the
+         * content of deflated entries is checked against the CRC-32.
+         *
+         * @return the number of bytes written
+         */
+        long copy(Entry entry, FileChannel target) throws IOException {
+            long dataOffset = getDataOffset(entry);
+            if (entry.method == STORED) {
+                long transferred = 0;
+                while (transferred < entry.size) {
+                    long count = channel.transferTo(dataOffset + transferred, entry.size - transferred, target);
+                    if (count <= 0) {
+                        throw new EOFException("Unexpected end of zip file: " + entry.name);
+                    }
+                    transferred += count;
+                }
+                return transferred;
+            }
+
+            long[] written = {0};
+            output.clear();
+            crc.reset();
+            inflate(entry, dataOffset, output, () -> {
+                output.flip();
+                crc.update(output.duplicate());
+                while (output.hasRemaining()) {
+                    written[0] += target.write(output);
+                }
+                output.clear();
+            });
+            checkCrc(entry);
+            return written[0];
+        }
+
+        private void checkCrc(Entry entry) throws ZipException {
+            if (crc.getValue() != entry.crc) {
+                throw new ZipException(String.format("invalid entry CRC (expected 0x%x but got 0x%x): %s",
+                        entry.crc, crc.getValue(), entry.name));
+            }
+        }
+
+        private interface Flush {
+            void flush() throws IOException;
+        }
+
+        private void inflate(Entry entry, long dataOffset, ByteBuffer destination, Flush flush) throws IOException {
+            if (entry.method != DEFLATED) {
+                throw new ZipException("unsupported compression method " + entry.method + ": " + entry.name);
+            }
+
+            inflater.reset();
+            long position = dataOffset;
+            long remaining = entry.compressedSize;
+            try {
+                while (!inflater.finished()) {
+                    if (inflater.needsInput()) {
+                        if (remaining == 0) {
+                            throw new ZipException("unexpected end of deflated data: " + entry.name);
+                        }
+                        input.clear();
+                        input.limit((int) Math.min(input.capacity(), remaining));
+                        int count = channel.read(input, position);
+                        if (count < 0) {
+                            throw new EOFException("Unexpected end of zip file: " + entry.name);
+                        }
+                        position += count;
+                        remaining -= count;
+                        inflater.setInput(input.flip());
+                    }
+
+                    if (!destination.hasRemaining()) {
+                        flush.flush();
+                    }
+                    // a full destination can still take the end of the stream, but no more content
+                    ByteBuffer target = destination.hasRemaining() ? destination : overflow.clear();
+                    int count = inflater.inflate(target);
+                    if (target == overflow && count > 0) {
+                        throw new ZipException("invalid entry size: " + entry.name);
+                    }
+                    if (count == 0 && inflater.needsDictionary()) {
+                        throw new ZipException("invalid deflated data: " + entry.name);
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("invalid deflated data: " + entry.name + ": " + e.getMessage());
+            }
+            flush.flush();
+        }
+
+        private long getDataOffset(Entry entry) throws IOException {
+            ByteBuffer header = JarIndex.read(channel, entry.localHeaderOffset, LOCAL_HEADER_SIZE);
+            if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+                throw new ZipException("invalid local header: " + entry.name);
+            }
+            int nameLength = Short.toUnsignedInt(header.getShort(26));
+            int extraLength = Short.toUnsignedInt(header.getShort(28));
+            return entry.localHeaderOffset + LOCAL_HEADER_SIZE + nameLength + extraLength;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            channel.close();
+        }
+    }
+}
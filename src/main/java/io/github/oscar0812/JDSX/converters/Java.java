@@ -1,8 +1,11 @@
 package io.github.oscar0812.JDSX.converters;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -42,6 +45,62 @@ public class Java {
             Files.createDirectories(classOutputDir);
         }
 
+        if (InMemoryJavaCompiler.isAvailable()) {
+            String fileName = javaFile.getFileName().toString();
+            String javaCode = Files.readString(javaFile);
+            ConversionCache.cached("java-to-class", Map.of(fileName, javaCode.getBytes(StandardCharsets.UTF_8)), classOutputDir, output -> {
+                CompilationResult result = InMemoryJavaCompiler.compile(Map.of(fileName, javaCode));
+                if (!result.isSuccess()) {
+                    throw new CompilationException(result.getDiagnostics());
+                }
+                result.writeTo(output);
+            });
+        } else {
+            compileWithJavacProcess(javaFile, outputDir, classOutputDir);
+        }
+
+        if(FileUtils.isDirectoryEmpty(classOutputDir)) {
+            throw new IOException("The compilation did not generate files");
+        }
+
+        return classOutputDir;
+    }
+
+    /**
+     * Compiles Java code in memory using the compiler of the running JVM.
+     * Neither the source nor the generated `.class` bytes touch the disk.
+     *
+     * @param javaCode the Java code to be compiled
+     * @return the compiled classes keyed by internal class name, plus the compiler diagnostics
+     * @throws IOException              if an I/O error occurs during compilation
+     * @throws IllegalArgumentException if the provided Java code is null, empty or has no public class
+     * @throws IllegalStateException    if the Java compiler is not available
+     */
+    public static CompilationResult compileJavaToClassBytes(String javaCode) throws IOException {
+        String className = requireClassName(javaCode);
+        return InMemoryJavaCompiler.compile(Map.of(className + ".java", javaCode));
+    }
+
+    /**
+     * Compiles several Java sources together in memory using the compiler of the running JVM.
+     *
+     * @param sources the Java sources keyed by file name (e.g. {@code com/example/Foo.java})
+     * @return the compiled classes keyed by internal class name, plus the compiler diagnostics
+     * @throws IOException           if an I/O error occurs during compilation
+     * @throws IllegalStateException if the Java compiler is not available
+     */
+    public static CompilationResult compileJavaToClassBytes(Map<String, String> sources) throws IOException {
+        if (sources == null || sources.isEmpty()) {
+            throw new IllegalArgumentException("Provided Java sources are null or empty");
+        }
+        return InMemoryJavaCompiler.compile(sources);
+    }
+
+    /**
+     * Compiles a Java file by starting an external `javac` process.
+     * Only used when the running JVM does not provide a system Java compiler.
+     */
+    private static void compileWithJavacProcess(Path javaFile, Path outputDir, Path classOutputDir) throws IOException {
         ProcessBuilder processBuilder = new ProcessBuilder(
                 "javac",
                 "-d", classOutputDir.toString(),
@@ -50,33 +109,36 @@ public class Java {
         processBuilder.redirectErrorStream(true);
         processBuilder.directory(outputDir.toFile());
 
-        Process process = processBuilder.start();
+        Metrics.Recording recording = Metrics.start(Metrics.JAVAC, Files.size(javaFile));
         try {
+            Process process = processBuilder.start();
             int exitCode = process.waitFor();
             if (exitCode != 0) {
                 throw new IOException("javac compilation failed with exit code " + exitCode);
             }
+            List<Path> classFiles = FileUtils.findFilesByExtension(classOutputDir, ".class");
+            for (Path classFile : classFiles) {
+                recording.bytesOut(Files.size(classFile));
+            }
+            recording.classes(classFiles.size()).finish();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            throw new IOException("Compilation process was interrupted", e);
-        }
-
-        if(FileUtils.isDirectoryEmpty(classOutputDir)) {
-            throw new IOException("The compilation did not generate files");
+            throw recording.fail(new IOException("Compilation process was interrupted", e));
+        } catch (IOException e) {
+            throw recording.fail(e);
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
         }
-
-        return classOutputDir;
     }
 
     /**
-     * Creates a temporary file containing the given Java code.
+     * Validates the given Java code and extracts its public class name.
      *
-     * @param javaCode the Java code to be written to the file
-     * @return the path to the created temporary Java file
-     * @throws IOException              if an I/O error occurs during file creation or writing
-     * @throws IllegalArgumentException if the provided Java code is null or empty
+     * @param javaCode the Java code to be validated
+     * @return the name of the public class declared in the code
+     * @throws IllegalArgumentException if the provided Java code is null, empty or has no public class
      */
-    private static Path createTempJavaFile(String javaCode) throws IOException {
+    private static String requireClassName(String javaCode) {
         if (javaCode == null || javaCode.trim().isEmpty()) {
             throw new IllegalArgumentException("Provided Java code is null or empty");
         }
@@ -85,11 +147,7 @@ public class Java {
         if (className == null || className.isEmpty()) {
             throw new IllegalArgumentException("Failed to determine class name from the provided Java code");
         }
-
-        Path tempDir = FileUtils.createTempDirectory("java_temp");
-        Path javaFilePath = tempDir.resolve(className + ".java");
-        Files.write(javaFilePath, javaCode.getBytes());
-        return javaFilePath;
+        return className;
     }
 
     /**
@@ -107,7 +165,8 @@ public class Java {
     }
 
     /**
-     * Converts Java code into Smali code
+     * Converts Java code into Smali code.
+     * The Java code is compiled in memory by the running JVM instead of an external `javac` process.
      * Java -> Class -> Dex -> Smali
      *
      * @param javaCode the Java code to be converted
@@ -115,10 +174,15 @@ public class Java {
      * @throws Exception if any error occurs during the conversion process
      */
     public static Path convertJavaToSmali(String javaCode) throws Exception {
-        Path javaFilePath = createTempJavaFile(javaCode);
-        return convertJavaToSmali(javaFilePath);
-    }
+        CompilationResult result = compileJavaToClassBytes(javaCode);
+        if (!result.isSuccess()) {
+            throw new CompilationException(result.getDiagnostics());
+        }
 
+        byte[] dexBytes = Class.convertClassBytesToDex(result.getClasses());
+        Path outputDexPath = Files.write(FileUtils.createTempDirectory("java_temp").resolve("classes.dex"), dexBytes);
+        return Dex.convertDexToSmali(outputDexPath);
+    }
 
     /**
      * Extracts the class name from a given Java code string using regular expressions.
@@ -0,0 +1,57 @@
+package io.github.oscar0812.JDSX.converters;
+
+/**
+ * Helpers for writing the small JSON documents the tool reports with.
+ */
+class Json {
+
+    private Json() {
+    }
+
+    /**
+     * @param value the string to quote, may be null
+     * @return the value as a JSON string literal, or {@code null} if the value is null
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * @param value the value to quote, may be null
+     * @return the string form of the value as a JSON string literal, or {@code null} if the value is null
+     */
+    static String quote(Object value) {
+        return quote(value == null ? null : value.toString());
+    }
+}
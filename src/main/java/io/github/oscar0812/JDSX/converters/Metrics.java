@@ -0,0 +1,224 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports every stage of every conversion to the registered {@link ConversionListener}s.
+ * <p>
+ * The {@link #getRegistry() default registry} is registered from the start and aggregates the stages in memory,
+ * ready to be dumped as JSON or scraped in the Prometheus text format.
+ * </p>
+ * <pre>{@code
+ * Dex.convertDexToJava(dexPath);
+ * System.out.println(Metrics.getRegistry().toJson());
+ * }</pre>
+ */
+public class Metrics {
+
+    /**
+     * Compiling Java sources with javac.
+     */
+    public static final String JAVAC = "javac";
+
+    /**
+     * Translating `.class` files to DEX files with D8.
+     */
+    public static final String D8 = "d8";
+
+    /**
+     * Translating DEX files to `.class` files with dex2jar.
+     */
+    public static final String DEX2JAR = "dex2jar";
+
+    /**
+     * Disassembling DEX files to Smali code with baksmali.
+     */
+    public static final String BAKSMALI = "baksmali";
+
+    /**
+     * Assembling Smali code to DEX files.
+     */
+    public static final String SMALI = "smali";
+
+    /**
+     * Decompiling `.class` files to Java sources with Fernflower.
+     */
+    public static final String FERNFLOWER = "fernflower";
+
+    /**
+     * Extracting the entries of a JAR file.
+     */
+    public static final String JAR_EXTRACT = "jar-extract";
+
+    /**
+     * Writing converted files to the output directory.
+     */
+    public static final String WRITE = "write";
+
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+    private static final List<ConversionListener> LISTENERS = new CopyOnWriteArrayList<>(List.of(REGISTRY));
+    private static final ThreadLocal<Boolean> UNREPORTED = ThreadLocal.withInitial(() -> false);
+
+    private Metrics() {
+    }
+
+    /**
+     * @return the in-memory registry that records every stage unless it is {@link #removeListener removed}
+     */
+    public static MetricsRegistry getRegistry() {
+        return REGISTRY;
+    }
+
+    /**
+     * Registers a listener for the stages of all conversions in this JVM.
+     *
+     * @param listener the listener to add
+     * @throws IllegalArgumentException if {@code listener} is null
+     */
+    public static void addListener(ConversionListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Unregisters a listener. Removing the {@link #getRegistry() default registry} stops it from recording.
+     *
+     * @param listener the listener to remove
+     */
+    public static void removeListener(ConversionListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Runs an action without reporting the stages it starts to any listener, e.g. the synthetic conversion of a
+     * {@link WarmUp}. Only stages started on the calling thread are hidden, conversions running on other threads at the
+     * same time are still reported.
+     *
+     * @param action the action to run
+     */
+    static void unreported(Runnable action) {
+        boolean previous = UNREPORTED.get();
+        UNREPORTED.set(true);
+        try {
+            action.run();
+        } finally {
+            UNREPORTED.set(previous);
+        }
+    }
+
+    /**
+     * Starts a stage and notifies the listeners, unless it is started by an {@link #unreported} action.
+     *
+     * @param stage   the name of the stage
+     * @param bytesIn the size of the input in bytes
+     * @return the running stage, to be finished with {@link Recording#finish()} or {@link Recording#fail(Throwable)}
+     */
+    static Recording start(String stage, long bytesIn) {
+        Recording recording = new Recording(stage, !UNREPORTED.get()).bytesIn(bytesIn);
+        if (!recording.reported) {
+            return recording;
+        }
+        StageEvent event = new StageEvent(stage, recording.startTime, null, -1, bytesIn, 0, 0, 0, null);
+        for (ConversionListener listener : LISTENERS) {
+            try {
+                listener.stageStarted(event);
+            } catch (RuntimeException e) {
+                // a broken listener must not break the conversion
+            }
+        }
+        return recording;
+    }
+
+    /**
+     * A running stage. The counters may be updated concurrently from the threads the stage runs on.
+     */
+    static class Recording {
+        private final String stage;
+        private final boolean reported;
+        private final Instant startTime = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong bytesIn = new AtomicLong();
+        private final AtomicLong bytesOut = new AtomicLong();
+        private final AtomicLong classCount = new AtomicLong();
+        private final AtomicLong filesWritten = new AtomicLong();
+        private final AtomicLong partNanos = new AtomicLong();
+        private volatile boolean timedInParts;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Recording(String stage, boolean reported) {
+            this.stage = stage;
+            this.reported = reported;
+        }
+
+        Recording bytesIn(long bytes) {
+            bytesIn.addAndGet(bytes);
+            return this;
+        }
+
+        Recording bytesOut(long bytes) {
+            bytesOut.addAndGet(bytes);
+            return this;
+        }
+
+        Recording classes(long count) {
+            classCount.addAndGet(count);
+            return this;
+        }
+
+        Recording filesWritten(long count) {
+            filesWritten.addAndGet(count);
+            return this;
+        }
+
+        /**
+         * Adds time spent in this stage. Once called, the stage reports the sum of these parts instead of the time
+         * between start and finish, for stages that are interleaved with another stage, e.g. writing every file as soon
+         * as it is disassembled. Parts running on several threads add up.
+         */
+        Recording partNanos(long nanos) {
+            timedInParts = true;
+            partNanos.addAndGet(nanos);
+            return this;
+        }
+
+        /**
+         * Finishes the stage successfully and notifies the listeners. Does nothing if the stage already finished.
+         */
+        void finish() {
+            publish(null);
+        }
+
+        /**
+         * Finishes the stage with a failure and notifies the listeners. Does nothing if the stage already finished.
+         *
+         * @return the failure, so it can be rethrown
+         */
+        <T extends Throwable> T fail(T failure) {
+            publish(failure);
+            return failure;
+        }
+
+        private void publish(Throwable failure) {
+            if (!done.compareAndSet(false, true) || !reported) {
+                return;
+            }
+
+            long elapsedNanos = timedInParts ? partNanos.get() : System.nanoTime() - startNanos;
+            StageEvent event = new StageEvent(stage, startTime, Instant.now(), elapsedNanos,
+                    bytesIn.get(), bytesOut.get(), classCount.get(), filesWritten.get(), failure);
+            for (ConversionListener listener : LISTENERS) {
+                try {
+                    listener.stageFinished(event);
+                } catch (RuntimeException e) {
+                    // a broken listener must not break the conversion
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Aggregates the stages of all conversions in memory: runs, failures, time, bytes, classes and files per stage.
+ * The totals only grow until {@link #reset()}.
+ */
+public class MetricsRegistry implements ConversionListener {
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    MetricsRegistry() {
+    }
+
+    @Override
+    public void stageStarted(StageEvent event) {
+        countersOf(event.getStage()).active.incrementAndGet();
+    }
+
+    @Override
+    public void stageFinished(StageEvent event) {
+        Counters stage = countersOf(event.getStage());
+        stage.active.decrementAndGet();
+        stage.runs.increment();
+        stage.nanos.add(event.getElapsedNanos());
+        stage.maxNanos.accumulateAndGet(event.getElapsedNanos(), Math::max);
+        stage.bytesIn.add(event.getBytesIn());
+        stage.bytesOut.add(event.getBytesOut());
+        stage.classes.add(event.getClassCount());
+        stage.filesWritten.add(event.getFilesWritten());
+        if (event.getFailure() != null) {
+            stage.failures.increment();
+            stage.lastFailure = event.getFailure().toString();
+        }
+    }
+
+    private Counters countersOf(String stage) {
+        return counters.computeIfAbsent(stage, name -> new Counters());
+    }
+
+    /**
+     * @return a snapshot of every stage that ran, keyed and sorted by stage name
+     */
+    public Map<String, StageMetrics> getStages() {
+        Map<String, StageMetrics> stages = new TreeMap<>();
+        counters.forEach((name, stage) -> stages.put(name, stage.snapshot(name)));
+        return Collections.unmodifiableMap(stages);
+    }
+
+    /**
+     * Clears all totals. Stages that are running while the registry is reset are still counted when they finish.
+     */
+    public void reset() {
+        counters.values().forEach(Counters::reset);
+    }
+
+    /**
+     * @return the totals as a JSON object with one entry per stage
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"stages\":[");
+        boolean first = true;
+        for (StageMetrics stage : getStages().values()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append("{\"stage\":").append(Json.quote(stage.getStage()))
+                    .append(",\"runs\":").append(stage.getRuns())
+                    .append(",\"failures\":").append(stage.getFailures())
+                    .append(",\"active\":").append(stage.getActive())
+                    .append(",\"totalMillis\":").append(stage.getTotalNanos() / 1_000_000)
+                    .append(",\"maxMillis\":").append(stage.getMaxNanos() / 1_000_000)
+                    .append(",\"bytesIn\":").append(stage.getBytesIn())
+                    .append(",\"bytesOut\":").append(stage.getBytesOut())
+                    .append(",\"classes\":").append(stage.getClasses())
+                    .append(",\"filesWritten\":").append(stage.getFilesWritten())
+                    .append(",\"lastFailure\":").append(Json.quote(stage.getLastFailure()))
+                    .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * @return the totals in the Prometheus text exposition format, labelled by stage
+     */
+    public String toPrometheus() {
+        Map<String, StageMetrics> stages = getStages();
+        StringBuilder text = new StringBuilder();
+        appendMetric(text, stages, "jdsx_stage_runs_total", "counter", "Finished runs of a conversion stage.",
+                StageMetrics::getRuns, false);
+        appendMetric(text, stages, "jdsx_stage_failures_total", "counter", "Failed runs of a conversion stage.",
+                StageMetrics::getFailures, false);
+        appendMetric(text, stages, "jdsx_stage_active", "gauge", "Currently running instances of a conversion stage.",
+                StageMetrics::getActive, false);
+        appendMetric(text, stages, "jdsx_stage_seconds_total", "counter", "Time spent in a conversion stage.",
+                StageMetrics::getTotalNanos, true);
+        appendMetric(text, stages, "jdsx_stage_seconds_max", "gauge", "Longest run of a conversion stage.",
+                StageMetrics::getMaxNanos, true);
+        appendMetric(text, stages, "jdsx_stage_in_bytes_total", "counter", "Input consumed by a conversion stage.",
+                StageMetrics::getBytesIn, false);
+        appendMetric(text, stages, "jdsx_stage_out_bytes_total", "counter", "Output produced by a conversion stage.",
+                StageMetrics::getBytesOut, false);
+        appendMetric(text, stages, "jdsx_stage_classes_total", "counter", "Classes processed by a conversion stage.",
+                StageMetrics::getClasses, false);
+        appendMetric(text, stages, "jdsx_stage_files_written_total", "counter", "Files written by a conversion stage.",
+                StageMetrics::getFilesWritten, false);
+        return text.toString();
+    }
+
+    private static void appendMetric(StringBuilder text, Map<String, StageMetrics> stages, String name, String type,
+                                     String help, ToLongFunction<StageMetrics> value, boolean nanosToSeconds) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        for (StageMetrics stage : stages.values()) {
+            long number = value.applyAsLong(stage);
+            text.append(name).append("{stage=\"").append(stage.getStage()).append("\"} ")
+                    .append(nanosToSeconds ? String.valueOf(number / 1e9) : String.valueOf(number))
+                    .append('\n');
+        }
+    }
+
+    private static class Counters {
+        final AtomicLong active = new AtomicLong();
+        final LongAdder runs = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final LongAdder bytesIn = new LongAdder();
+        final LongAdder bytesOut = new LongAdder();
+        final LongAdder classes = new LongAdder();
+        final LongAdder filesWritten = new LongAdder();
+        volatile String lastFailure;
+
+        StageMetrics snapshot(String stage) {
+            return new StageMetrics(stage, runs.sum(), failures.sum(), Math.max(0, active.get()), nanos.sum(),
+                    maxNanos.get(), bytesIn.sum(), bytesOut.sum(), classes.sum(), filesWritten.sum(), lastFailure);
+        }
+
+        void reset() {
+            runs.reset();
+            failures.reset();
+            nanos.reset();
+            maxNanos.set(0);
+            bytesIn.reset();
+            bytesOut.reset();
+            classes.reset();
+            filesWritten.reset();
+            lastFailure = null;
+        }
+    }
+
+    /**
+     * The totals of one stage at the time of the snapshot.
+     */
+    public static class StageMetrics {
+        private final String stage;
+        private final long runs;
+        private final long failures;
+        private final long active;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long bytesIn;
+        private final long bytesOut;
+        private final long classes;
+        private final long filesWritten;
+        private final String lastFailure;
+
+        StageMetrics(String stage, long runs, long failures, long active, long totalNanos, long maxNanos,
+                     long bytesIn, long bytesOut, long classes, long filesWritten, String lastFailure) {
+            this.stage = stage;
+            this.runs = runs;
+            this.failures = failures;
+            this.active = active;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.bytesIn = bytesIn;
+            this.bytesOut = bytesOut;
+            this.classes = classes;
+            this.filesWritten = filesWritten;
+            this.lastFailure = lastFailure;
+        }
+
+        /**
+         * @return the name of the stage
+         */
+        public String getStage() {
+            return stage;
+        }
+
+        /**
+         * @return the number of finished runs, including failed ones
+         */
+        public long getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return the number of failed runs
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return the number of runs in progress
+         */
+        public long getActive() {
+            return active;
+        }
+
+        /**
+         * @return the time of all finished runs in nanoseconds; concurrent runs are added up
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return the time of the longest run in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return the total input in bytes
+         */
+        public long getBytesIn() {
+            return bytesIn;
+        }
+
+        /**
+         * @return the total output in bytes, or characters for text
+         */
+        public long getBytesOut() {
+            return bytesOut;
+        }
+
+        /**
+         * @return the total number of classes processed
+         */
+        public long getClasses() {
+            return classes;
+        }
+
+        /**
+         * @return the total number of files written
+         */
+        public long getFilesWritten() {
+            return filesWritten;
+        }
+
+        /**
+         * @return the most recent failure, or null if the stage never failed
+         */
+        public String getLastFailure() {
+            return lastFailure;
+        }
+
+        @Override
+        public String toString() {
+            return stage + "{runs=" + runs + ", failures=" + failures + ", totalMillis=" + totalNanos / 1_000_000 +
+                    ", classes=" + classes + ", filesWritten=" + filesWritten + "}";
+        }
+    }
+}
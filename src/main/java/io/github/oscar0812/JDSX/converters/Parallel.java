@@ -0,0 +1,64 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Helper methods for running conversion work concurrently on a caller supplied {@link Executor}.
+ */
+class Parallel {
+
+    private Parallel() {
+    }
+
+    /**
+     * @return the executor used when the caller does not supply one
+     */
+    static Executor defaultExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * @return the number of shards work is split into when the caller does not specify a parallelism level
+     */
+    static int defaultParallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Runs all tasks on the executor and waits for them to finish.
+     * If any task fails, its exception is rethrown after all tasks have completed.
+     *
+     * @param tasks    the tasks to run
+     * @param executor the executor to run the tasks on
+     * @throws RuntimeException the first exception thrown by a task
+     */
+    static void runAll(List<Runnable> tasks, Executor executor) {
+        if (tasks.size() == 1) {
+            tasks.get(0).run();
+            return;
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            futures.add(CompletableFuture.runAsync(task, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
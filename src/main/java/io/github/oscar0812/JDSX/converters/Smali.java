@@ -3,8 +3,15 @@ package io.github.oscar0812.JDSX.converters;
 import com.googlecode.d2j.smali.SmaliCmd;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Utility class for converting Smali code to different formats such as DEX, JAR, Classes, and Java.
@@ -38,13 +45,13 @@ public class Smali {
      * @throws IOException if an I/O error occurs during conversion
      */
     public static Path convertSmaliToDex(String smaliCode) throws IOException {
-        Path smaliPath = createTempSmaliFile(smaliCode);
-        Path dexPath = FileUtils.getSiblingPath(smaliPath, ".dex");
-        return convertSmaliToDex(smaliPath, dexPath);
+        Path dexPath = FileUtils.createTempDirectory("smali_temp").resolve("TempSmali.dex");
+        return convertSmaliToDex(smaliCode, dexPath);
     }
 
     /**
      * Converts Smali code to a DEX file.
+     * The code is assembled in memory, only the resulting DEX file is written.
      * Smali -> Dex
      *
      * @param smaliCode the Smali code to be converted
@@ -53,8 +60,17 @@ public class Smali {
      * @throws IOException if an I/O error occurs during conversion
      */
     public static Path convertSmaliToDex(String smaliCode, Path dexPath) throws IOException {
-        Path smaliPath = createTempSmaliFile(smaliCode);
-        return convertSmaliToDex(smaliPath, dexPath);
+        if (smaliCode == null || smaliCode.isEmpty()) {
+            throw new IllegalArgumentException("Smali code cannot be null or empty.");
+        }
+        if (dexPath == null) {
+            throw new IllegalArgumentException("Dex output path cannot be null.");
+        }
+
+        return ConversionCache.cached("smali-to-dex", smaliCode.getBytes(StandardCharsets.UTF_8), dexPath, output -> {
+            byte[] dexBytes = assembleSmaliToDex(Map.of("TempSmali.smali", smaliCode), Parallel.defaultExecutor());
+            Files.write(output, dexBytes);
+        });
     }
 
     /**
@@ -74,10 +90,15 @@ public class Smali {
             throw new IllegalArgumentException("Dex output path cannot be null.");
         }
 
+        Metrics.Recording recording = Metrics.start(Metrics.SMALI, Files.size(smaliPath));
         try {
             SmaliCmd.main(smaliPath.toString(), "-o", dexPath.toString());
+            if (Files.exists(dexPath)) {
+                recording.bytesOut(Files.size(dexPath)).filesWritten(1);
+            }
+            recording.finish();
         } catch (Exception e) {
-            throw new RuntimeException("Error converting Smali to Dex", e);
+            throw recording.fail(new RuntimeException("Error converting Smali to Dex", e));
         }
         return dexPath;
     }
@@ -97,6 +118,75 @@ public class Smali {
         return convertSmaliToDex(smaliPath, dexPath);
     }
 
+    /**
+     * Assembles Smali code to DEX bytes in memory, without going through the `d2j-smali` command.
+     * The sources are parsed concurrently on the given executor.
+     * Smali -> Dex
+     *
+     * @param smaliSources the Smali code of each source, keyed by a file name used in error messages
+     * @param executor     the executor the sources are parsed on
+     * @return the bytes of the generated DEX file
+     * @throws IllegalArgumentException if {@code smaliSources} is null or empty, or {@code executor} is null
+     * @throws RuntimeException         if a source cannot be parsed
+     */
+    public static byte[] assembleSmaliToDex(Map<String, String> smaliSources, Executor executor) {
+        if (smaliSources == null || smaliSources.isEmpty()) {
+            throw new IllegalArgumentException("Smali sources cannot be null or empty.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+
+        long bytesIn = 0;
+        for (String smali : smaliSources.values()) {
+            bytesIn += smali.length();
+        }
+        Metrics.Recording recording = Metrics.start(Metrics.SMALI, bytesIn);
+        try {
+            byte[] dexBytes = SmaliAssembler.assemble(smaliSources, executor, Parallel.defaultParallelism());
+            recording.classes(DexHeader.parse(dexBytes).getClassDefsSize()).bytesOut(dexBytes.length).finish();
+            return dexBytes;
+        } catch (RuntimeException e) {
+            throw recording.fail(e);
+        }
+    }
+
+    /**
+     * Assembles Smali files to DEX bytes in memory, without going through the `d2j-smali` command.
+     * Directories are searched for `.smali` files. The files are parsed concurrently on the given executor.
+     * Smali -> Dex
+     *
+     * @param smaliPaths the Smali files or directories containing Smali files
+     * @param executor   the executor the files are parsed on
+     * @return the bytes of the generated DEX file
+     * @throws IllegalArgumentException if {@code smaliPaths} is null or empty, or {@code executor} is null
+     * @throws IOException              if an I/O error occurs while reading the files
+     * @throws RuntimeException         if a file cannot be parsed
+     */
+    public static byte[] assembleSmaliFilesToDex(Collection<Path> smaliPaths, Executor executor) throws IOException {
+        if (smaliPaths == null || smaliPaths.isEmpty()) {
+            throw new IllegalArgumentException("Smali paths cannot be null or empty.");
+        }
+
+        Map<String, String> smaliSources = new LinkedHashMap<>();
+        for (Path smaliPath : smaliPaths) {
+            FileUtils.validateFilePath(smaliPath, "Smali path");
+
+            List<Path> files = Files.isDirectory(smaliPath)
+                    ? FileUtils.findFilesByExtension(smaliPath, ".smali")
+                    : List.of(smaliPath);
+            for (Path file : files) {
+                smaliSources.put(file.toString(), Files.readString(file));
+            }
+        }
+
+        try {
+            return assembleSmaliToDex(smaliSources, executor);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Converts Smali code to a JAR file.
      * Smali -> Dex -> Class Jar
@@ -140,33 +230,33 @@ public class Smali {
 
     /**
      * Converts Smali code to class files
-     * Smali -> Class Jar -> Extract
+     * Smali -> Dex -> Class
      *
      * @param smaliCode the Smali code to be converted
-     * @return the path to the extracted classes
+     * @return the path to the generated classes
      * @throws IOException if an I/O error occurs during conversion
      */
     public static Path convertSmaliToClasses(String smaliCode) throws IOException {
-        Path jarPath = convertSmaliToClassJar(smaliCode);
-        return Jar.extractJar(jarPath);
+        Path dexPath = convertSmaliToDex(smaliCode);
+        return Dex.convertDexToClasses(dexPath);
     }
 
     /**
      * Converts Smali code to class files
-     * Smali -> Class Jar -> Extract
+     * Smali -> Dex -> Class
      *
      * @param smaliPath the Smali path code to be converted
-     * @return the path to the extracted classes
+     * @return the path to the generated classes
      * @throws IOException if an I/O error occurs during conversion
      */
     public static Path convertSmaliToClasses(Path smaliPath) throws IOException {
-        Path jarPath = convertSmaliToClassJar(smaliPath);
-        return Jar.extractJar(jarPath);
+        Path dexPath = convertSmaliToDex(smaliPath);
+        return Dex.convertDexToClasses(dexPath);
     }
 
     /**
      * Converts Smali code to Java code
-     * Smali -> Dex -> Class Jar -> Java Jar
+     * Smali -> Dex -> Class -> Java
      *
      * @param smaliCode the Smali code to be converted
      * @return the path to the generated Java code
@@ -174,13 +264,12 @@ public class Smali {
      */
     public static Path convertSmaliToJava(String smaliCode) throws IOException {
         Path dexPath = Smali.convertSmaliToDex(smaliCode);
-        Path classJarPath = Dex.convertDexToClassJar(dexPath);
-        return Jar.convertClassJarToJava(classJarPath);
+        return Dex.convertDexToJava(dexPath);
     }
 
     /**
      * Converts Smali code to Java code
-     * Smali -> Dex -> Class Jar -> Java Jar
+     * Smali -> Dex -> Class -> Java
      *
      * @param smaliPath the Smali code path to be converted
      * @return the path to the generated Java code
@@ -188,7 +277,6 @@ public class Smali {
      */
     public static Path convertSmaliToJava(Path smaliPath) throws IOException {
         Path dexPath = Smali.convertSmaliToDex(smaliPath);
-        Path classJarPath = Dex.convertDexToClassJar(dexPath);
-        return Jar.convertClassJarToJava(classJarPath);
+        return Dex.convertDexToJava(dexPath);
     }
 }
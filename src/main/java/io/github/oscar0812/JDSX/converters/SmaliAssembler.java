@@ -0,0 +1,73 @@
+package io.github.oscar0812.JDSX.converters;
+
+import com.googlecode.d2j.dex.writer.DexFileWriter;
+import com.googlecode.d2j.node.DexClassNode;
+import com.googlecode.d2j.node.DexFileNode;
+import com.googlecode.d2j.smali.Smali;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Assembles Smali sources into a DEX file using the dex2jar smali parser and dex writer directly,
+ * without going through the `d2j-smali` command line wrapper.
+ * <p>
+ * Parsing is the expensive part, so the sources are parsed concurrently into {@link DexFileNode}s.
+ * The nodes are then written one after the other, because {@link DexFileWriter} is not thread-safe.
+ * </p>
+ */
+class SmaliAssembler {
+
+    private SmaliAssembler() {
+    }
+
+    /**
+     * Assembles the given Smali sources into a single DEX file.
+     *
+     * @param sources     the Smali code keyed by a file name used in error messages
+     * @param executor    the executor the sources are parsed on
+     * @param parallelism the number of shards to split the sources into
+     * @return the bytes of the generated DEX file
+     */
+    static byte[] assemble(Map<String, String> sources, Executor executor, int parallelism) {
+        List<Map.Entry<String, String>> entries = new ArrayList<>(sources.entrySet());
+        DexFileNode[] nodes = new DexFileNode[entries.size()];
+        int shardCount = Math.max(1, Math.min(parallelism, entries.size()));
+
+        List<Runnable> shards = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int firstSource = shard;
+            shards.add(() -> {
+                for (int i = firstSource; i < nodes.length; i += shardCount) {
+                    nodes[i] = parse(entries.get(i).getKey(), entries.get(i).getValue());
+                }
+            });
+        }
+        Parallel.runAll(shards, executor);
+
+        DexFileWriter writer = new DexFileWriter();
+        for (DexFileNode node : nodes) {
+            for (DexClassNode classNode : node.clzs) {
+                classNode.accept(writer);
+            }
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static DexFileNode parse(String fileName, String smaliCode) {
+        DexFileNode node = new DexFileNode();
+        try {
+            Smali.smaliFile(fileName, smaliCode, node);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading: " + fileName, e);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error parsing Smali file: " + fileName, e);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.oscar0812.JDSX.converters;
+
+import com.googlecode.d2j.dex.writer.DexFileWriter;
+import com.googlecode.d2j.node.DexClassNode;
+import com.googlecode.d2j.reader.DexFileReader;
+import com.googlecode.d2j.smali.BaksmaliDumpOut;
+import com.googlecode.d2j.smali.BaksmaliDumper;
+import com.googlecode.d2j.visitors.DexClassVisitor;
+import com.googlecode.d2j.visitors.DexFileVisitor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Disassembles DEX files to Smali using the dex2jar reader and baksmali dumper directly,
+ * without going through the `d2j-baksmali` command line wrapper.
+ * <p>
+ * The classes of a DEX file are split into shards which are disassembled concurrently.
+ * Every shard uses its own {@link DexFileReader} and {@link BaksmaliDumper}, since neither is thread-safe.
+ * </p>
+ */
+class SmaliDisassembler {
+
+    private SmaliDisassembler() {
+    }
+
+    /**
+     * Disassembles the classes of a DEX file accepted by a filter.
+     * Rejected classes are skipped by their class index and never read.
+     *
+     * @param dexBytes    the bytes of the DEX file
+     * @param executor    the executor the shards run on
+     * @param parallelism the number of shards to split the classes into
+     * @param filter      selects the classes to disassemble
+     * @param sink        receives the internal class name (e.g. {@code com/example/Foo}) and the Smali code of
+     *                    every class; it is called from the executor threads and must be thread-safe
+     */
+    static void disassemble(byte[] dexBytes, Executor executor, int parallelism, ClassFilter filter,
+                            BiConsumer<String, String> sink) {
+        List<Integer> classIndexes = new ArrayList<>();
+        if (filter.acceptsAll()) {
+            // the header holds the class count, no need to decode the class names
+            int classDefsSize = DexHeader.parse(dexBytes).getClassDefsSize();
+            for (int classIdx = 0; classIdx < classDefsSize; classIdx++) {
+                classIndexes.add(classIdx);
+            }
+        } else {
+            List<String> classNames = new DexFileReader(dexBytes).getClassNames();
+            for (int classIdx = 0; classIdx < classNames.size(); classIdx++) {
+                if (filter.accepts(toInternalName(classNames.get(classIdx)))) {
+                    classIndexes.add(classIdx);
+                }
+            }
+        }
+        readShards(dexBytes, executor, parallelism, classIndexes,
+                () -> new ClassDumpingVisitor(new BaksmaliDumper(true, false), sink));
+    }
+
+    /**
+     * Hashes every class of a DEX file by its content, without disassembling it.
+     * <p>
+     * Every class is read and written on its own into a new DEX file, whose bytes are hashed. The hash covers
+     * everything the Smali code is made from, with strings, types and members resolved, so it does not change when
+     * other classes of the DEX file add or remove entries of the shared constant pools.
+     * </p>
+     *
+     * @param dexBytes    the bytes of the DEX file
+     * @param executor    the executor the shards run on
+     * @param parallelism the number of shards to split the classes into
+     * @param prefix      hashed before the content of every class, e.g. the conversion name and the tool versions
+     * @return the hash of every class keyed by internal class name (e.g. {@code com/example/Foo})
+     */
+    static Map<String, String> hashClasses(byte[] dexBytes, Executor executor, int parallelism, String prefix) {
+        int classDefsSize = DexHeader.parse(dexBytes).getClassDefsSize();
+        List<Integer> classIndexes = new ArrayList<>(classDefsSize);
+        for (int classIdx = 0; classIdx < classDefsSize; classIdx++) {
+            classIndexes.add(classIdx);
+        }
+
+        Map<String, String> hashes = new ConcurrentHashMap<>();
+        readShards(dexBytes, executor, parallelism, classIndexes, () -> new DexFileVisitor() {
+            @Override
+            public DexClassVisitor visit(int accessFlags, String className, String superClass, String[] interfaceNames) {
+                return new DexClassNode(accessFlags, className, superClass, interfaceNames) {
+                    @Override
+                    public void visitEnd() {
+                        super.visitEnd();
+                        DexFileWriter writer = new DexFileWriter();
+                        accept(writer);
+                        writer.visitEnd();
+                        String internalName = toInternalName(className);
+                        hashes.put(internalName, ContentHash.of(prefix, Map.of(internalName, writer.toByteArray())));
+                    }
+                };
+            }
+        });
+        return hashes;
+    }
+
+    /**
+     * Splits the classes into shards and reads every shard on the executor with its own reader and visitor.
+     */
+    private static void readShards(byte[] dexBytes, Executor executor, int parallelism, List<Integer> classIndexes,
+                                   Supplier<DexFileVisitor> visitors) {
+        int classCount = classIndexes.size();
+        int shardCount = Math.max(1, Math.min(parallelism, classCount));
+
+        List<Runnable> shards = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int firstClass = shard;
+            shards.add(() -> {
+                DexFileReader reader = new DexFileReader(dexBytes);
+                DexFileVisitor visitor = visitors.get();
+                // interleave the class indexes so large neighbouring classes end up in different shards
+                for (int i = firstClass; i < classCount; i += shardCount) {
+                    reader.accept(visitor, classIndexes.get(i), 0);
+                }
+            });
+        }
+
+        Parallel.runAll(shards, executor);
+    }
+
+    /**
+     * Converts a class descriptor such as {@code Lcom/example/Foo;} to an internal name such as {@code com/example/Foo}.
+     */
+    static String toInternalName(String descriptor) {
+        return descriptor.substring(1, descriptor.length() - 1);
+    }
+
+    /**
+     * Builds each visited class into a {@link DexClassNode} and dumps it as soon as the class is complete.
+     */
+    private static class ClassDumpingVisitor extends DexFileVisitor {
+        private final BaksmaliDumper dumper;
+        private final BiConsumer<String, String> sink;
+
+        ClassDumpingVisitor(BaksmaliDumper dumper, BiConsumer<String, String> sink) {
+            this.dumper = dumper;
+            this.sink = sink;
+        }
+
+        @Override
+        public DexClassVisitor visit(int accessFlags, String className, String superClass, String[] interfaceNames) {
+            return new DexClassNode(accessFlags, className, superClass, interfaceNames) {
+                @Override
+                public void visitEnd() {
+                    super.visitEnd();
+                    sink.accept(toInternalName(className), dump(this));
+                }
+            };
+        }
+
+        private String dump(DexClassNode classNode) {
+            StringWriter smali = new StringWriter();
+            try (BufferedWriter writer = new BufferedWriter(smali)) {
+                dumper.baksmaliClass(classNode, new BaksmaliDumpOut(writer));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return smali.toString();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Maps class names to Smali file names that are safe on every file system, like baksmali's
+ * {@code ClassFileNameHandler} does for the `baksmali` command.
+ * <p>
+ * Every path element of a class name is made a valid file name: characters that are not allowed on Windows are
+ * replaced, reserved device names and `.`/`..` are escaped, and elements longer than a file name may be are shortened
+ * and given a hash suffix. Names that only differ in case, which would overwrite each other on macOS and Windows,
+ * get a `.1`, `.2`, ... suffix in registration order. The resulting path is always checked to stay inside the output
+ * directory.
+ * </p>
+ * <p>
+ * Register the class names of every DEX file written to a directory before writing, in a fixed order,
+ * so that the names do not depend on the order the classes are disassembled in.
+ * </p>
+ */
+class SmaliFileNames {
+
+    private static final String EXTENSION = ".smali";
+    // 255 bytes per file name, minus the extension, a collision suffix and the hash of a shortened name
+    private static final int MAX_ELEMENT_BYTES = 255 - EXTENSION.length() - 16;
+    private static final Pattern INVALID_CHARACTERS = Pattern.compile("[\\x00-\\x1f\\\\:*?\"<>|]");
+    private static final Set<String> RESERVED_NAMES = Set.of("con", "prn", "aux", "nul",
+            "com1", "com2", "com3", "com4", "com5", "com6", "com7", "com8", "com9",
+            "lpt1", "lpt2", "lpt3", "lpt4", "lpt5", "lpt6", "lpt7", "lpt8", "lpt9");
+
+    private final Map<String, String> fileNames = new HashMap<>();
+    // every directory's children, keyed by lower case name, with the element of the class name they were made from
+    private final Map<String, Map<String, String>> children = new HashMap<>();
+
+    /**
+     * Assigns file names to classes that do not have one yet.
+     *
+     * @param classNames internal class names (e.g. {@code com/example/Foo}) in a fixed order
+     */
+    synchronized void register(List<String> classNames) {
+        for (String className : classNames) {
+            if (!fileNames.containsKey(className)) {
+                fileNames.put(className, assign(className));
+            }
+        }
+    }
+
+    /**
+     * @param className an internal class name (e.g. {@code com/example/Foo})
+     * @return the path of the class's Smali file relative to the output directory, using `/` as separator
+     */
+    synchronized String getFileName(String className) {
+        String fileName = fileNames.get(className);
+        if (fileName == null) {
+            fileName = assign(className);
+            fileNames.put(className, fileName);
+        }
+        return fileName;
+    }
+
+    /**
+     * @param outputDir the output directory
+     * @param className an internal class name (e.g. {@code com/example/Foo})
+     * @return the path of the class's Smali file
+     * @throws SecurityException if the path points outside {@code outputDir}
+     */
+    Path resolve(Path outputDir, String className) {
+        return FileUtils.resolveInside(outputDir, getFileName(className));
+    }
+
+    private String assign(String className) {
+        String[] elements = className.split("/", -1);
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < elements.length; i++) {
+            boolean file = i == elements.length - 1;
+            String name = unique(path.toString(), toValidName(elements[i]), file ? className : elements[i], file);
+            path.append(name).append(file ? EXTENSION : "/");
+        }
+        return path.toString();
+    }
+
+    /**
+     * Picks a name that no other child of the directory uses, ignoring case. A directory reuses the name of an
+     * existing directory made from the same element, a file never shares its name.
+     */
+    private String unique(String directory, String name, String origin, boolean file) {
+        Map<String, String> used = children.computeIfAbsent(directory, key -> new HashMap<>());
+        String candidate = name;
+        for (int suffix = 1; ; suffix++) {
+            // files and directories live in the same namespace, but a file name always ends with the extension
+            String key = (file ? candidate + EXTENSION : candidate).toLowerCase(Locale.ROOT);
+            String existing = used.putIfAbsent(key, origin);
+            if (existing == null || (!file && existing.equals(origin))) {
+                return candidate;
+            }
+            candidate = name + "." + suffix;
+        }
+    }
+
+    private static String toValidName(String element) {
+        String name = INVALID_CHARACTERS.matcher(element).replaceAll("_");
+        if (name.isEmpty() || name.equals(".") || name.equals("..")) {
+            name = "_" + name;
+        }
+        int dot = name.indexOf('.');
+        if (RESERVED_NAMES.contains((dot < 0 ? name : name.substring(0, dot)).toLowerCase(Locale.ROOT))) {
+            name = "_" + name;
+        }
+        if (name.endsWith(".") || name.endsWith(" ")) {
+            // Windows drops trailing dots and spaces
+            name = name + "_";
+        }
+        if (name.getBytes(StandardCharsets.UTF_8).length > MAX_ELEMENT_BYTES) {
+            name = shorten(name);
+        }
+        return name;
+    }
+
+    private static String shorten(String name) {
+        String hash = "#" + ContentHash.of(name.getBytes(StandardCharsets.UTF_8)).substring(0, 8);
+        int end = name.length();
+        while (name.substring(0, end).getBytes(StandardCharsets.UTF_8).length + hash.length() > MAX_ELEMENT_BYTES) {
+            end--;
+        }
+        if (end > 0 && Character.isHighSurrogate(name.charAt(end - 1))) {
+            end--;
+        }
+        return name.substring(0, end) + hash;
+    }
+}
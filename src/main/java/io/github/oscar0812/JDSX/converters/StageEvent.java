@@ -0,0 +1,123 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.time.Instant;
+
+/**
+ * A stage of a conversion that started or finished, see {@link ConversionListener}.
+ * <p>
+ * For stages producing text, such as Smali or Java sources, {@link #getBytesOut()} counts characters.
+ * </p>
+ */
+public class StageEvent {
+
+    private final String stage;
+    private final Instant startTime;
+    private final Instant endTime;
+    private final long elapsedNanos;
+    private final long bytesIn;
+    private final long bytesOut;
+    private final long classCount;
+    private final long filesWritten;
+    private final Throwable failure;
+
+    StageEvent(String stage, Instant startTime, Instant endTime, long elapsedNanos, long bytesIn, long bytesOut,
+               long classCount, long filesWritten, Throwable failure) {
+        this.stage = stage;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.elapsedNanos = elapsedNanos;
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+        this.classCount = classCount;
+        this.filesWritten = filesWritten;
+        this.failure = failure;
+    }
+
+    /**
+     * @return the name of the stage, one of the stage constants of {@link Metrics}
+     */
+    public String getStage() {
+        return stage;
+    }
+
+    /**
+     * @return when the stage started
+     */
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return when the stage finished, or null if it just started
+     */
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * @return the duration of the stage in nanoseconds, or -1 if it just started
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the size of the input of the stage in bytes
+     */
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    /**
+     * @return the size of the output of the stage in bytes
+     */
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * @return the number of classes the stage produced or processed
+     */
+    public long getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * @return the number of files the stage wrote
+     */
+    public long getFilesWritten() {
+        return filesWritten;
+    }
+
+    /**
+     * @return the failure of the stage, or null if it succeeded or is still running
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return true if the stage finished
+     */
+    public boolean isFinished() {
+        return endTime != null;
+    }
+
+    /**
+     * @return true if the stage finished without a failure
+     */
+    public boolean isSuccess() {
+        return isFinished() && failure == null;
+    }
+
+    @Override
+    public String toString() {
+        return "StageEvent{stage=" + stage +
+                ", elapsedMillis=" + (elapsedNanos < 0 ? -1 : elapsedNanos / 1_000_000) +
+                ", bytesIn=" + bytesIn +
+                ", bytesOut=" + bytesOut +
+                ", classes=" + classCount +
+                ", filesWritten=" + filesWritten +
+                (failure == null ? "" : ", failure=" + failure) + "}";
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.oscar0812.JDSX.converters;
+
+/**
+ * The format a {@link Batch} converts its inputs to.
+ */
+public enum TargetFormat {
+    /**
+     * Decompiled `.java` source files.
+     */
+    JAVA,
+    /**
+     * Disassembled `.smali` files.
+     */
+    SMALI,
+    /**
+     * Loose `.class` files.
+     */
+    CLASSES,
+    /**
+     * `classes.dex`, `classes2.dex`, ... files.
+     */
+    DEX
+}
@@ -0,0 +1,240 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Warms up the JVM by running a small synthetic conversion through every stage of the pipeline.
+ * <p>
+ * The first conversion in a fresh JVM pays for loading and initializing javac, R8/D8, baksmali, smali, dex2jar and
+ * Fernflower, and runs in the interpreter until the JIT catches up. Warming up moves that cost off the first real
+ * request. Every stage works on bytes in memory, including dex2jar, which is driven without its file output, so neither
+ * the file system, the {@link ConversionCache} nor an installed {@link ClassStore} is touched. The stages are not
+ * reported to the {@link Metrics} listeners either, so the {@link Metrics#getRegistry() registry} only counts real
+ * conversions, including the ones running while a warm-up runs in the background.
+ * </p>
+ * <pre>{@code
+ * WarmUp.runInBackground().thenAccept(report -> log(report.toJson()));
+ * }</pre>
+ */
+public class WarmUp {
+
+    /**
+     * The stages in the order they are run.
+     */
+    static final String COMPILE = "compile";
+    static final String D8 = "d8";
+    static final String BAKSMALI = "baksmali";
+    static final String SMALI = "smali";
+    static final String DEX2JAR = "dex2jar";
+    static final String FERNFLOWER = "fernflower";
+
+    /**
+     * A small class touching the constructs the converters handle specially:
+     * inner and anonymous classes, lambdas, a table switch, string switches, exceptions and string concatenation.
+     */
+    private static final String SOURCE = String.join("\n",
+            "import java.util.ArrayList;",
+            "import java.util.List;",
+            "import java.util.function.IntFunction;",
+            "",
+            "public class JdsxWarmUp {",
+            "    private final List<String> names = new ArrayList<>();",
+            "",
+            "    static class Counter {",
+            "        private int count;",
+            "        int next() { return ++count; }",
+            "    }",
+            "",
+            "    String describe(int value) {",
+            "        switch (value) {",
+            "            case 0: return \"zero\";",
+            "            case 1: return \"one\";",
+            "            case 2: return \"two\";",
+            "            case 3: return \"three\";",
+            "            default: return \"many: \" + value;",
+            "        }",
+            "    }",
+            "",
+            "    int parse(String name) {",
+            "        switch (name) {",
+            "            case \"zero\": return 0;",
+            "            case \"one\": return 1;",
+            "            default:",
+            "                try {",
+            "                    return Integer.parseInt(name);",
+            "                } catch (NumberFormatException e) {",
+            "                    return -1;",
+            "                }",
+            "        }",
+            "    }",
+            "",
+            "    List<String> run(int limit) {",
+            "        Counter counter = new Counter();",
+            "        IntFunction<String> describer = this::describe;",
+            "        Runnable task = new Runnable() {",
+            "            @Override",
+            "            public void run() {",
+            "                names.add(describer.apply(counter.next()));",
+            "            }",
+            "        };",
+            "        for (int i = 0; i < limit; i++) {",
+            "            task.run();",
+            "        }",
+            "        names.removeIf(name -> parse(name) < 0);",
+            "        return names;",
+            "    }",
+            "}",
+            "");
+
+    private WarmUp() {
+    }
+
+    /**
+     * Runs the synthetic conversion once on the calling thread.
+     *
+     * @see #run(int)
+     */
+    public static WarmUpReport run() {
+        return run(1);
+    }
+
+    /**
+     * Runs the synthetic conversion on the calling thread.
+     * Every stage is run even if an earlier one failed, unless it depends on the failed stage's output.
+     * Failures are recorded in the report and never thrown.
+     *
+     * @param iterations how often the conversion is run; more iterations give the JIT time to compile the hot paths
+     * @return the time every stage took on the first and on the last iteration
+     * @throws IllegalArgumentException if {@code iterations} is less than 1
+     */
+    public static WarmUpReport run(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be at least 1.");
+        }
+
+        long start = System.nanoTime();
+        List<StageTimer> timers = List.of(new StageTimer(COMPILE), new StageTimer(D8), new StageTimer(BAKSMALI),
+                new StageTimer(SMALI), new StageTimer(DEX2JAR), new StageTimer(FERNFLOWER));
+        Metrics.unreported(() -> {
+            for (int i = 0; i < iterations; i++) {
+                runOnce(timers);
+            }
+        });
+
+        List<WarmUpReport.Stage> stages = new ArrayList<>(timers.size());
+        for (StageTimer timer : timers) {
+            stages.add(timer.toStage());
+        }
+        return new WarmUpReport(iterations, stages, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the synthetic conversion once on a background daemon thread.
+     *
+     * @see #runInBackground(int)
+     */
+    public static CompletableFuture<WarmUpReport> runInBackground() {
+        return runInBackground(1);
+    }
+
+    /**
+     * Runs the synthetic conversion on a new daemon thread, so it neither blocks the caller
+     * nor keeps the JVM alive.
+     *
+     * @param iterations how often the conversion is run
+     * @return a future completed with the report once the warm-up is done
+     * @throws IllegalArgumentException if {@code iterations} is less than 1
+     */
+    public static CompletableFuture<WarmUpReport> runInBackground(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be at least 1.");
+        }
+
+        Executor thread = runnable -> {
+            Thread warmUp = new Thread(runnable, "jdsx-warm-up");
+            warmUp.setDaemon(true);
+            warmUp.start();
+        };
+        return CompletableFuture.supplyAsync(() -> run(iterations), thread);
+    }
+
+    private static void runOnce(List<StageTimer> timers) {
+        Executor sameThread = Runnable::run;
+
+        Map<String, byte[]> classes = timers.get(0).time(() -> {
+            CompilationResult result = Java.compileJavaToClassBytes(SOURCE);
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("The warm-up source did not compile: " + result.getDiagnostics());
+            }
+            return result.getClasses();
+        });
+        byte[] dexBytes = timers.get(1).time(classes, () -> Class.convertClassBytesToDex(classes));
+        Map<String, String> smali = timers.get(2).time(dexBytes, () -> Dex.convertDexBytesToSmali(dexBytes, sameThread));
+        timers.get(3).time(smali, () -> Smali.assembleSmaliToDex(smali, sameThread));
+        timers.get(4).time(dexBytes, () -> Dex.convertDexBytesToClassBytes(dexBytes));
+        // decompile the javac output, so Fernflower is warmed up even if D8 or dex2jar failed,
+        // bypassing the ClassStore so the synthetic class is never stored
+        timers.get(5).time(classes, () -> InMemoryDecompiler.decompile(classes, sameThread, 1));
+    }
+
+    @FunctionalInterface
+    private interface StageAction<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * Times the iterations of one stage.
+     */
+    private static class StageTimer {
+        private final String name;
+        private int runs;
+        private long firstNanos = -1;
+        private long lastNanos = -1;
+        private Exception failure;
+
+        StageTimer(String name) {
+            this.name = name;
+        }
+
+        <T> T time(StageAction<T> action) {
+            long start = System.nanoTime();
+            try {
+                T result = action.run();
+                record(System.nanoTime() - start);
+                return result;
+            } catch (Exception e) {
+                record(System.nanoTime() - start);
+                failure = e;
+                return null;
+            }
+        }
+
+        /**
+         * Runs the stage if the output of the stage it depends on is available.
+         */
+        <T> T time(Object input, StageAction<T> action) {
+            if (input == null) {
+                if (failure == null) {
+                    failure = new IllegalStateException("Skipped, an earlier stage failed");
+                }
+                return null;
+            }
+            return time(action);
+        }
+
+        private void record(long nanos) {
+            if (runs++ == 0) {
+                firstNanos = nanos;
+            }
+            lastNanos = nanos;
+        }
+
+        WarmUpReport.Stage toStage() {
+            return new WarmUpReport.Stage(name, runs, firstNanos, lastNanos, failure);
+        }
+    }
+}
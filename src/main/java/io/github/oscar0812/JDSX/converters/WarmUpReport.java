@@ -0,0 +1,152 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a {@link WarmUp}: how long every stage of the pipeline took.
+ */
+public class WarmUpReport {
+
+    private final int iterations;
+    private final List<Stage> stages;
+    private final long elapsedNanos;
+
+    WarmUpReport(int iterations, List<Stage> stages, long elapsedNanos) {
+        this.iterations = iterations;
+        this.stages = Collections.unmodifiableList(stages);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return how often the synthetic conversion was run
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return every stage, in the order they were run
+     */
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    /**
+     * @return true if every stage succeeded on every iteration
+     */
+    public boolean isSuccess() {
+        return stages.stream().allMatch(Stage::isSuccess);
+    }
+
+    /**
+     * @return the wall clock time of the whole warm-up in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the report as a JSON object with the totals and one entry per stage
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder()
+                .append("{\"iterations\":").append(iterations)
+                .append(",\"elapsedMillis\":").append(elapsedNanos / 1_000_000)
+                .append(",\"success\":").append(isSuccess())
+                .append(",\"stages\":[");
+        for (int i = 0; i < stages.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            stages.get(i).appendJson(json);
+        }
+        return json.append("]}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpReport{iterations=" + iterations +
+                ", elapsedMillis=" + elapsedNanos / 1_000_000 +
+                ", stages=" + stages + "}";
+    }
+
+    /**
+     * The timing of one stage, e.g. {@code d8} or {@code fernflower}.
+     */
+    public static class Stage {
+        private final String name;
+        private final int runs;
+        private final long firstNanos;
+        private final long lastNanos;
+        private final Exception failure;
+
+        Stage(String name, int runs, long firstNanos, long lastNanos, Exception failure) {
+            this.name = name;
+            this.runs = runs;
+            this.firstNanos = firstNanos;
+            this.lastNanos = lastNanos;
+            this.failure = failure;
+        }
+
+        /**
+         * @return the name of the stage
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return how often the stage ran; less than the iterations if it was skipped
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return the time of the first, cold run in nanoseconds, or -1 if the stage never ran
+         */
+        public long getFirstNanos() {
+            return firstNanos;
+        }
+
+        /**
+         * @return the time of the last run in nanoseconds, or -1 if the stage never ran
+         */
+        public long getLastNanos() {
+            return lastNanos;
+        }
+
+        /**
+         * @return the last failure of the stage, or null if it always succeeded
+         */
+        public Exception getFailure() {
+            return failure;
+        }
+
+        /**
+         * @return true if the stage ran and succeeded on every iteration
+         */
+        public boolean isSuccess() {
+            return failure == null;
+        }
+
+        private void appendJson(StringBuilder json) {
+            json.append("{\"name\":").append(Json.quote(name))
+                    .append(",\"runs\":").append(runs)
+                    .append(",\"firstMillis\":").append(firstNanos < 0 ? -1 : firstNanos / 1_000_000)
+                    .append(",\"lastMillis\":").append(lastNanos < 0 ? -1 : lastNanos / 1_000_000)
+                    .append(",\"success\":").append(isSuccess());
+            if (failure != null) {
+                json.append(",\"error\":").append(Json.quote(failure.toString()));
+            }
+            json.append('}');
+        }
+
+        @Override
+        public String toString() {
+            return name + "{runs=" + runs + ", firstMillis=" + firstNanos / 1_000_000 +
+                    ", lastMillis=" + lastNanos / 1_000_000 + (failure == null ? "" : ", failure=" + failure) + "}";
+        }
+    }
+}
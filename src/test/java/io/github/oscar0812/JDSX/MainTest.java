@@ -0,0 +1,136 @@
+package io.github.oscar0812.JDSX;
+
+import io.github.oscar0812.JDSX.converters.TestJars;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MainTest {
+
+    private Path tempDir;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("main-test");
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+    }
+
+    @Test
+    void testRun_InputsAndInputList() throws IOException {
+        Path first = TestJars.writeJar(tempDir.resolve("first.jar"), "First");
+        Path second = TestJars.writeJar(tempDir.resolve("second.jar"), "Second");
+        Path list = Files.write(tempDir.resolve("inputs.txt"), List.of("# jars", second.toString(), ""));
+        Path outputDir = tempDir.resolve("out");
+
+        int exitCode = run("--target", "java", "--output", outputDir.toString(), "--jobs", "2",
+                first.toString(), "--input-list", list.toString());
+
+        assertEquals(Main.EXIT_OK, exitCode);
+        assertTrue(Files.readString(outputDir.resolve("first.jar/First.java")).contains("class First"));
+        assertTrue(Files.readString(outputDir.resolve("second.jar/Second.java")).contains("class Second"));
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertTrue(report.startsWith("{\"target\":\"JAVA\""));
+        assertTrue(report.contains("\"succeeded\":2"));
+    }
+
+    @Test
+    void testRun_StdoutIsOnlyTheReport() throws IOException {
+        Path jar = TestJars.writeJar(tempDir.resolve("logged.jar"), "Logged");
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        int exitCode;
+        try {
+            // the converters log to the real streams, not the ones passed to run
+            System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+            System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+            exitCode = Main.run(new String[]{"-t", "java", "-o", tempDir.resolve("out").toString(), jar.toString()},
+                    System.out, System.err);
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+
+        assertEquals(Main.EXIT_OK, exitCode);
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertTrue(report.startsWith("{\"target\":\"JAVA\""), report);
+        assertEquals(1, report.strip().lines().count(), report);
+    }
+
+    @Test
+    void testRun_JavaSourceToClassesWithReportFile() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("Hello.java"), "public class Hello { }");
+        Path reportPath = tempDir.resolve("report.json");
+
+        int exitCode = run("-t", "classes", "-o", tempDir.resolve("out").toString(), "-r", reportPath.toString(),
+                source.toString());
+
+        assertEquals(Main.EXIT_OK, exitCode);
+        assertTrue(Files.exists(tempDir.resolve("out/Hello.java/Hello.class")));
+        assertTrue(Files.readString(reportPath).contains("\"failed\":0"));
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRun_MetricsFile() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("Metered.java"), "public class Metered { }");
+        Path metricsPath = tempDir.resolve("metrics.json");
+
+        int exitCode = run("-t", "classes", "-o", tempDir.resolve("out").toString(), "-m", metricsPath.toString(),
+                source.toString());
+
+        assertEquals(Main.EXIT_OK, exitCode);
+        String metrics = Files.readString(metricsPath);
+        assertTrue(metrics.contains("\"javac\""));
+        assertTrue(metrics.contains("\"write\""));
+    }
+
+    @Test
+    void testRun_FailedInput() {
+        int exitCode = run("-t", "java", "-o", tempDir.resolve("out").toString(), tempDir.resolve("missing.jar").toString());
+
+        assertEquals(Main.EXIT_FAILED, exitCode);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("missing.jar"));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"failed\":1"));
+    }
+
+    @Test
+    void testRun_Usage() {
+        assertEquals(Main.EXIT_USAGE, run("-o", "out", "a.jar"));
+        assertEquals(Main.EXIT_USAGE, run("-t", "elf", "-o", "out", "a.jar"));
+        assertEquals(Main.EXIT_USAGE, run("-t", "java", "a.jar"));
+        assertEquals(Main.EXIT_USAGE, run("-t", "java", "-o", "out"));
+        assertEquals(Main.EXIT_USAGE, run("-t", "java", "-o", "out", "-j", "0", "a.jar"));
+        assertEquals(Main.EXIT_USAGE, run("-t", "java", "-o", "out", "--frobnicate", "a.jar"));
+        assertEquals(Main.EXIT_USAGE, run("-t"));
+        assertEquals(Main.EXIT_OK, run("--help"));
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("Usage:"));
+    }
+
+    @Test
+    void testRun_WarmUp() {
+        run("warm-up", "--iterations", "1");
+
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertTrue(report.startsWith("{\"iterations\":1,"));
+        assertTrue(report.contains("\"name\":\"fernflower\""));
+        assertEquals(Main.EXIT_USAGE, run("warm-up", "--iterations", "0"));
+        assertEquals(Main.EXIT_USAGE, run("warm-up", "now"));
+    }
+
+    private int run(String... args) {
+        return Main.run(args, new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+}
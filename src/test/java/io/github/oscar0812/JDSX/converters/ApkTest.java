@@ -0,0 +1,116 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApkTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("apk-test");
+    }
+
+    @Test
+    void testReadDexFiles_OnlyDexEntries() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("AndroidManifest.xml", new byte[]{1});
+        entries.put("classes2.dex", new byte[]{2});
+        entries.put("res/raw/big.bin", new byte[1024]);
+        entries.put("classes.dex", new byte[]{3});
+        entries.put("assets/classes.dex", new byte[]{4});
+        entries.put("classes10.dex", new byte[]{5});
+        Path apkPath = writeApk(entries);
+
+        Map<String, byte[]> dexFiles = Apk.readDexFiles(apkPath);
+
+        assertEquals(List.of("classes.dex", "classes2.dex", "classes10.dex"), List.copyOf(dexFiles.keySet()));
+        assertArrayEquals(new byte[]{3}, dexFiles.get("classes.dex"));
+    }
+
+    @Test
+    void testConvertApkToSmali_ValidApk() throws IOException {
+        Path apkPath = writeApk(Map.of(
+                "classes.dex", Files.readAllBytes(Paths.get("src/test/resources/files/test.dex")),
+                "res/layout/main.xml", new byte[]{1}));
+
+        Path outputDir = Apk.convertApkToSmali(apkPath);
+
+        assertTrue(Files.isDirectory(outputDir));
+        assertFalse(Files.exists(tempDir.resolve("res")));
+    }
+
+    @Test
+    void testConvertApk_PoolSmallerThanDexFiles() throws IOException {
+        // two DEX files of two classes each, so both the file and the class level have more than one task
+        Map<String, String> sources = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+            sources.put("Multi" + i + ".java", "public class Multi" + i + " { int value() { return " + i + "; } }");
+        }
+        Map<String, byte[]> classes = Java.compileJavaToClassBytes(sources).getClasses();
+        Path apkPath = writeApk(Map.of(
+                "classes.dex", Class.convertClassBytesToDex(Map.of("Multi0", classes.get("Multi0"), "Multi1", classes.get("Multi1"))),
+                "classes2.dex", Class.convertClassBytesToDex(Map.of("Multi2", classes.get("Multi2"), "Multi3", classes.get("Multi3")))));
+
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            Path smaliDir = assertTimeoutPreemptively(Duration.ofSeconds(60),
+                    () -> Apk.convertApkToSmali(apkPath, tempDir.resolve("smali"), executor, ClassFilter.all()));
+            Path javaDir = assertTimeoutPreemptively(Duration.ofSeconds(60),
+                    () -> Apk.convertApkToJava(apkPath, tempDir.resolve("java"), executor, ClassFilter.all()));
+
+            for (int i = 0; i < 4; i++) {
+                assertTrue(Files.exists(smaliDir.resolve("Multi" + i + ".smali")));
+                assertTrue(Files.exists(javaDir.resolve("Multi" + i + ".java")));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConvertApkToJava_NoDexFile() throws IOException {
+        Path apkPath = writeApk(Map.of("AndroidManifest.xml", new byte[]{1}));
+
+        assertThrows(IllegalArgumentException.class, () -> Apk.convertApkToJava(apkPath));
+    }
+
+    @Test
+    void testConvertApkToSmali_MissingApk() {
+        assertThrows(IOException.class, () -> Apk.convertApkToSmali(tempDir.resolve("missing.apk")));
+    }
+
+    @Test
+    void testConvertApkToJava_NullApk() {
+        assertThrows(IllegalArgumentException.class, () -> Apk.convertApkToJava(null));
+    }
+
+    private Path writeApk(Map<String, byte[]> entries) throws IOException {
+        Path apkPath = tempDir.resolve("app.apk");
+        try (JarOutputStream apk = new JarOutputStream(Files.newOutputStream(apkPath))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                apk.putNextEntry(new JarEntry(entry.getKey()));
+                apk.write(entry.getValue());
+                apk.closeEntry();
+            }
+        }
+        return apkPath;
+    }
+}
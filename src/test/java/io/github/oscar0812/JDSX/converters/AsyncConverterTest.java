@@ -0,0 +1,99 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConverterTest {
+
+    @Test
+    void testConvertClassBytesToJava() throws Exception {
+        Map<String, byte[]> classes = Java.compileJavaToClassBytes("public class AsyncSample { }").getClasses();
+
+        try (AsyncConverter converter = AsyncConverter.create(2)) {
+            Map<String, String> sources = converter.convertClassBytesToJava(classes).get();
+
+            assertTrue(sources.get("AsyncSample").contains("class AsyncSample"));
+            assertEquals(2, converter.getCpuPool().getParallelism());
+        }
+    }
+
+    @Test
+    void testConvertClassJarToJavaRunsOnCpuPool() throws Exception {
+        Map<String, String> sources = Map.of(
+                "PooledOne.java", "public class PooledOne { }",
+                "PooledTwo.java", "public class PooledTwo { }");
+        Map<String, byte[]> classes = Java.compileJavaToClassBytes(sources).getClasses();
+
+        Path jarPath = TestJars.writeJar(Files.createTempDirectory("async-test").resolve("pooled.jar"), classes);
+
+        AtomicInteger executed = new AtomicInteger();
+        ForkJoinPool cpuPool = new ForkJoinPool(2) {
+            @Override
+            public void execute(Runnable task) {
+                executed.incrementAndGet();
+                super.execute(task);
+            }
+        };
+        ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+        try {
+            Path outputDir = AsyncConverter.using(ioExecutor, cpuPool).convertClassJarToJava(jarPath).get();
+
+            assertTrue(Files.exists(outputDir.resolve("PooledOne.java")));
+            assertTrue(Files.exists(outputDir.resolve("PooledTwo.java")));
+            // one task per shard, nothing else is submitted to the pool
+            assertEquals(2, executed.get());
+        } finally {
+            ioExecutor.shutdown();
+            cpuPool.shutdown();
+        }
+    }
+
+    @Test
+    void testFailureCompletesExceptionally() {
+        try (AsyncConverter converter = AsyncConverter.create()) {
+            CompletableFuture<?> missing = converter.convertDexToSmali(Paths.get("missing.dex"));
+            CompletableFuture<?> nullPath = converter.convertApkToJava(null);
+
+            ExecutionException e = assertThrows(ExecutionException.class, missing::get);
+            assertInstanceOf(IOException.class, e.getCause());
+            e = assertThrows(ExecutionException.class, nullPath::get);
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void testVirtualThreadsWhenAvailable() {
+        try (AsyncConverter converter = AsyncConverter.create()) {
+            assertEquals(Runtime.version().feature() >= 21, converter.usesVirtualThreads());
+        }
+    }
+
+    @Test
+    void testClosedConverterRejects() {
+        AsyncConverter converter = AsyncConverter.create();
+        converter.close();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> converter.submit(() -> "value").get());
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> AsyncConverter.create(0));
+        assertThrows(IllegalArgumentException.class, () -> AsyncConverter.using(null, null));
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("batch-test");
+    }
+
+    @Test
+    void testConvert_FailuresDoNotAbortBatch() throws IOException {
+        Path first = TestJars.writeJar(tempDir.resolve("a/app.jar"), "First");
+        Path second = TestJars.writeJar(tempDir.resolve("b/app.jar"), "Second");
+        Path missing = tempDir.resolve("missing.jar");
+        Path unsupported = Files.writeString(tempDir.resolve("notes.txt"), "not a binary");
+        Path outputDir = tempDir.resolve("out");
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        BatchReport report;
+        try {
+            report = Batch.convert(List.of(first, missing, second, unsupported), TargetFormat.JAVA, outputDir, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        List<BatchReport.Result> results = report.getResults();
+        assertEquals(List.of(first, missing, second, unsupported),
+                results.stream().map(BatchReport.Result::getInput).toList());
+        assertEquals(2, report.getSucceeded().size());
+        assertEquals(2, report.getFailed().size());
+        assertFalse(report.isSuccess());
+
+        assertEquals(outputDir.resolve("app.jar"), results.get(0).getOutput());
+        assertEquals(outputDir.resolve("app.jar-2"), results.get(2).getOutput());
+        assertTrue(Files.readString(outputDir.resolve("app.jar/First.java")).contains("class First"));
+        assertTrue(Files.readString(outputDir.resolve("app.jar-2/Second.java")).contains("class Second"));
+        assertInstanceOf(IOException.class, results.get(1).getFailure());
+        assertInstanceOf(IllegalArgumentException.class, results.get(3).getFailure());
+        assertNull(results.get(3).getOutput());
+    }
+
+    @Test
+    void testConvert_ClassesFromJar() throws IOException {
+        Path jar = TestJars.writeJar(tempDir.resolve("lib.jar"), "Lib");
+
+        BatchReport report = Batch.convert(List.of(jar), TargetFormat.CLASSES, tempDir.resolve("out"));
+
+        assertTrue(report.isSuccess());
+        assertTrue(Files.exists(tempDir.resolve("out/lib.jar/Lib.class")));
+    }
+
+    @Test
+    void testConvert_ClassesFromJar_EntryOutsideOutputDir() throws IOException {
+        Path jar = tempDir.resolve("evil.jar");
+        try (JarOutputStream jarStream = new JarOutputStream(Files.newOutputStream(jar))) {
+            jarStream.putNextEntry(new JarEntry("../../Evil.class"));
+            jarStream.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+            jarStream.closeEntry();
+        }
+
+        BatchReport report = Batch.convert(List.of(jar), TargetFormat.CLASSES, tempDir.resolve("out"));
+
+        assertInstanceOf(SecurityException.class, report.getResults().get(0).getFailure());
+        assertFalse(Files.exists(tempDir.resolve("Evil.class")));
+        assertFalse(Files.exists(tempDir.getParent().resolve("Evil.class")));
+    }
+
+    @Test
+    void testConvert_EmptyBatch() throws IOException {
+        BatchReport report = Batch.convert(List.of(), TargetFormat.SMALI, tempDir.resolve("out"));
+
+        assertTrue(report.getResults().isEmpty());
+        assertTrue(report.isSuccess());
+    }
+
+    @Test
+    void testConvert_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> Batch.convert(null, TargetFormat.JAVA, tempDir));
+        assertThrows(IllegalArgumentException.class, () -> Batch.convert(List.of(), null, tempDir));
+        assertThrows(IllegalArgumentException.class, () -> Batch.convert(List.of(), TargetFormat.JAVA, null));
+    }
+}
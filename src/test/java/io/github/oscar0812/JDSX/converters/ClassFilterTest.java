@@ -0,0 +1,73 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassFilterTest {
+
+    @Test
+    void testAll_AcceptsEverything() {
+        assertTrue(ClassFilter.all().acceptsAll());
+        assertTrue(ClassFilter.all().accepts("com/example/Foo"));
+    }
+
+    @Test
+    void testInclude_PackagePrefix() {
+        ClassFilter filter = ClassFilter.include("com.example");
+
+        assertFalse(filter.acceptsAll());
+        assertTrue(filter.accepts("com/example/Foo"));
+        assertTrue(filter.accepts("com/example/sub/Bar"));
+        assertTrue(filter.accepts("com.example.Foo"));
+        assertFalse(filter.accepts("com/examples/Foo"));
+        assertFalse(filter.accepts("org/example/Foo"));
+    }
+
+    @Test
+    void testInclude_Globs() {
+        ClassFilter filter = ClassFilter.include("com.example.*Activity", "org.**.internal.?Impl");
+
+        assertTrue(filter.accepts("com/example/MainActivity"));
+        assertFalse(filter.accepts("com/example/sub/MainActivity"));
+        assertTrue(filter.accepts("org/a/b/internal/XImpl"));
+        assertFalse(filter.accepts("org/a/internal/XYImpl"));
+    }
+
+    @Test
+    void testAccepts_InnerClassesFollowOuterClass() {
+        ClassFilter filter = ClassFilter.include("com.example.Foo").exclude("com.example.Foo$Bar");
+
+        assertTrue(filter.accepts("com/example/Foo$Bar"));
+        assertTrue(filter.accepts("com/example/Foo$1"));
+        assertFalse(filter.accepts("com/example/FooBar"));
+    }
+
+    @Test
+    void testExclude_WinsOverInclude() {
+        ClassFilter filter = ClassFilter.include("com.example").exclude("com.example.generated", "**.R");
+
+        assertTrue(filter.accepts("com/example/Foo"));
+        assertFalse(filter.accepts("com/example/generated/Foo"));
+        assertFalse(filter.accepts("com/example/R$string"));
+    }
+
+    @Test
+    void testMatching_Predicate() {
+        ClassFilter filter = ClassFilter.matching(name -> name.endsWith("Test")).exclude("com.slow");
+
+        assertTrue(filter.accepts("com/example/FooTest$Inner"));
+        assertFalse(filter.accepts("com/example/Foo"));
+        assertFalse(filter.accepts("com/slow/SlowTest"));
+        assertNull(filter.describe());
+        assertNotNull(ClassFilter.include("com.example").describe());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, ClassFilter::include);
+        assertThrows(IllegalArgumentException.class, () -> ClassFilter.include((String) null));
+        assertThrows(IllegalArgumentException.class, () -> ClassFilter.all().exclude(""));
+        assertThrows(IllegalArgumentException.class, () -> ClassFilter.matching(null));
+    }
+}
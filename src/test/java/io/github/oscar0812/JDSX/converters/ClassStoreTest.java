@@ -0,0 +1,67 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassStoreTest {
+
+    private static final String SHARED = "public class Shared { class Inner { } }";
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("class-store-test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClassStore.uninstall();
+    }
+
+    @Test
+    void testDecompile_ReusesSharedClasses() throws IOException {
+        Map<String, byte[]> first = Java.compileJavaToClassBytes(Map.of(
+                "Shared.java", SHARED,
+                "First.java", "public class First { }")).getClasses();
+        Map<String, byte[]> second = Java.compileJavaToClassBytes(Map.of(
+                "Shared.java", SHARED,
+                "Second.java", "public class Second { }")).getClasses();
+        Map<String, String> expected = Class.convertClassBytesToJava(second);
+
+        ClassStore store = ClassStore.install(tempDir.resolve("store"));
+        Class.convertClassBytesToJava(first);
+        Map<String, String> sources = Class.convertClassBytesToJava(second);
+
+        assertEquals(1, store.getHitCount());
+        assertEquals(3, store.getMissCount());
+        assertEquals(Set.of("Shared", "Second"), sources.keySet());
+        assertEquals(expected, sources);
+    }
+
+    @Test
+    void testDecompile_ChangedClassIsDecompiledAgain() throws IOException {
+        ClassStore store = ClassStore.install(tempDir.resolve("store"));
+
+        Class.convertClassBytesToJava(Java.compileJavaToClassBytes("public class Changed { }").getClasses());
+        Map<String, String> sources = Class.convertClassBytesToJava(
+                Java.compileJavaToClassBytes("public class Changed { int value; }").getClasses());
+
+        assertEquals(0, store.getHitCount());
+        assertTrue(sources.get("Changed").contains("int value"));
+    }
+
+    @Test
+    void testInstall_NullDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> ClassStore.install(null));
+    }
+}
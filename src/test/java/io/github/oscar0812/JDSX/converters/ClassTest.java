@@ -11,6 +11,9 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,6 +45,54 @@ public class ClassTest {
         assertTrue(Files.exists(dexPath));
     }
 
+    @Test
+    void testConvertClassFilesToDexFiles_SingleDex() throws IOException {
+        Path classPath = Paths.get("src/test/resources/files/TestClass.class");
+
+        DexFiles dexFiles = Class.convertClassFilesToDexFiles(classPath);
+        assertEquals(1, dexFiles.size());
+        assertFalse(dexFiles.isMultiDex());
+        assertEquals("classes.dex", dexFiles.getPrimary().getFileName().toString());
+        assertTrue(Files.exists(dexFiles.getPrimary()));
+    }
+
+    @Test
+    void testConvertClassFilesToDexFiles_MultiDex() throws IOException {
+        // 8 callers of 9000 methods each reference more than the 65536 methods a single dex file can hold.
+        // The called ApiN classes are only needed by javac and are left out, so there is little to decompile.
+        Map<String, String> sources = new TreeMap<>();
+        for (int i = 0; i < 8; i++) {
+            StringBuilder api = new StringBuilder("public class Api" + i + " {\n");
+            StringBuilder caller = new StringBuilder("public class Caller" + i + " {\n    public static void run() {\n");
+            for (int j = 0; j < 9000; j++) {
+                api.append("    public static void m").append(j).append("() { }\n");
+                caller.append("        Api").append(i).append(".m").append(j).append("();\n");
+            }
+            sources.put("Api" + i + ".java", api.append("}\n").toString());
+            sources.put("Caller" + i + ".java", caller.append("    }\n}\n").toString());
+        }
+        Path classesDir = Files.createDirectories(tempDir.resolve("multidex"));
+        for (Map.Entry<String, byte[]> entry : Java.compileJavaToClassBytes(sources).getClasses().entrySet()) {
+            if (entry.getKey().startsWith("Caller")) {
+                Files.write(classesDir.resolve(entry.getKey() + ".class"), entry.getValue());
+            }
+        }
+
+        DexFiles dexFiles = Class.convertClassFilesToDexFiles(classesDir);
+        assertTrue(dexFiles.isMultiDex());
+
+        Path smaliDir = Dex.convertDexFilesToSmali(dexFiles, tempDir.resolve("smali_out"), ForkJoinPool.commonPool());
+        Path javaDir = Dex.convertDexFilesToJava(dexFiles, tempDir.resolve("java_out"), ForkJoinPool.commonPool());
+        for (Path dexPath : dexFiles.getPaths()) {
+            Set<String> classNames = Dex.convertDexBytesToSmali(Files.readAllBytes(dexPath), ForkJoinPool.commonPool()).keySet();
+            assertFalse(classNames.isEmpty(), dexPath.toString());
+            for (String className : classNames) {
+                assertTrue(Files.exists(smaliDir.resolve(className + ".smali")), className);
+                assertTrue(Files.exists(javaDir.resolve(className + ".java")), className);
+            }
+        }
+    }
+
     @Test
     void testConvertClassFilesToDex_EmptyClassFile() {
         Path invalidClassFile = fileMap.get("Empty.class");
@@ -51,6 +102,77 @@ public class ClassTest {
         });
     }
 
+    @Test
+    void testConvertClassBytesToDex_ValidClassBytes() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes("public class InMemory { }");
+
+        byte[] dexBytes = Class.convertClassBytesToDex(result.getClasses());
+        assertEquals("dex\n", new String(dexBytes, 0, 4));
+    }
+
+    @Test
+    void testConvertClassBytesToDex_EmptyClassBytes() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            Class.convertClassBytesToDex(Map.of());
+        });
+    }
+
+    @Test
+    void testConvertClassBytesToDex_InvalidClassBytes() throws IOException {
+        byte[] emptyClass = Files.readAllBytes(fileMap.get("Empty.class"));
+
+        assertThrows(RuntimeException.class, () -> {
+            Class.convertClassBytesToDex(Map.of("Empty", emptyClass));
+        });
+    }
+
+    @Test
+    void testConvertClassBytesToJava_InnerClassMerged() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes("""
+                package com.example;
+
+                public class Outer {
+                    static class Inner {
+                    }
+                }""");
+
+        Map<String, String> sources = Class.convertClassBytesToJava(result.getClasses());
+
+        assertEquals(Set.of("com/example/Outer"), sources.keySet());
+        assertTrue(sources.get("com/example/Outer").contains("static class Inner"));
+    }
+
+    @Test
+    void testConvertClassBytesToJava_WritesToDirectory() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes("public class Written { }");
+
+        Path outputDir = Class.convertClassBytesToJava(result.getClasses(), tempDir.resolve("java_out"));
+
+        assertTrue(Files.exists(outputDir.resolve("Written.java")));
+    }
+
+    @Test
+    void testConvertClassBytesToJava_ParallelMatchesSequential() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes(Map.of(
+                "First.java", "public class First { class Inner { } }",
+                "Second.java", "public class Second { Object o = new Object() { }; }",
+                "Third.java", "public class Third { static int value() { return 3; } }"));
+
+        Map<String, String> sequential = Class.convertClassBytesToJava(result.getClasses(), Runnable::run, 1);
+        Map<String, String> parallel = Class.convertClassBytesToJava(result.getClasses(), ForkJoinPool.commonPool(), 3);
+
+        assertEquals(Set.of("First", "Second", "Third"), parallel.keySet());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void testConvertClassBytesToJava_InvalidParallelism() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes("public class Single { }");
+
+        assertThrows(IllegalArgumentException.class, () ->
+                Class.convertClassBytesToJava(result.getClasses(), ForkJoinPool.commonPool(), 0));
+    }
+
     private Map<String, Path> copyAllFilesToTemp() throws IOException {
         Path resourceDir = Paths.get("src/test/resources/files");
         Map<String, Path> fileMap = new HashMap<>();
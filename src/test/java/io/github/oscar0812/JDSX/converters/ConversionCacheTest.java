@@ -0,0 +1,109 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionCacheTest {
+
+    private Path tempDir;
+    private Path javaFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("cache-test");
+        javaFile = tempDir.resolve("Cached.java");
+        Files.writeString(javaFile, "public class Cached { }");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConversionCache.uninstall();
+    }
+
+    @Test
+    void testCached_SecondConversionIsHit() throws IOException {
+        ConversionCache cache = ConversionCache.install(tempDir.resolve("cache"), 1024 * 1024);
+
+        Path first = Java.compileJavaToClass(javaFile, tempDir.resolve("first"));
+        Path second = Java.compileJavaToClass(javaFile, tempDir.resolve("second"));
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertArrayEquals(Files.readAllBytes(first.resolve("Cached.class")), Files.readAllBytes(second.resolve("Cached.class")));
+    }
+
+    @Test
+    void testCached_ChangedInputIsMiss() throws IOException {
+        ConversionCache cache = ConversionCache.install(tempDir.resolve("cache"), 1024 * 1024);
+
+        Java.compileJavaToClass(javaFile, tempDir.resolve("first"));
+        Files.writeString(javaFile, "public class Cached { int changed; }");
+        Java.compileJavaToClass(javaFile, tempDir.resolve("second"));
+
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void testCached_EvictsWhenFull() throws IOException {
+        ConversionCache cache = ConversionCache.install(tempDir.resolve("cache"), 1);
+
+        Path classesDir = Java.compileJavaToClass(javaFile, tempDir.resolve("first"));
+
+        assertTrue(Files.exists(classesDir.resolve("Cached.class")));
+        List<Path> cachedFiles = FileUtils.findAllFiles(cache.getDirectory());
+        assertTrue(cachedFiles.isEmpty());
+    }
+
+    @Test
+    void testCached_EvictsToLowWaterMark() throws IOException {
+        Path first = tempDir.resolve("Cache1.java");
+        Files.writeString(first, "public class Cache1 { }");
+        ConversionCache.install(tempDir.resolve("measure"), 1024 * 1024);
+        Java.compileJavaToClass(first, tempDir.resolve("measured"));
+        long entrySize = sizeOf(ConversionCache.getInstalled().getDirectory());
+
+        ConversionCache cache = ConversionCache.install(tempDir.resolve("cache"), 2 * entrySize);
+        for (int i = 1; i <= 3; i++) {
+            Path javaFile = tempDir.resolve("Cache" + i + ".java");
+            Files.writeString(javaFile, "public class Cache" + i + " { }");
+            Java.compileJavaToClass(javaFile, tempDir.resolve("out" + i));
+        }
+
+        // trimming to the limit would keep two entries, trimming to 90% of it keeps only the newest
+        assertEquals(entrySize, sizeOf(cache.getDirectory()));
+    }
+
+    @Test
+    void testClear_RemovesEntries() throws IOException {
+        ConversionCache cache = ConversionCache.install(tempDir.resolve("cache"), 1024 * 1024);
+        Java.compileJavaToClass(javaFile, tempDir.resolve("first"));
+
+        cache.clear();
+        Java.compileJavaToClass(javaFile, tempDir.resolve("second"));
+
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testInstall_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> ConversionCache.install(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> ConversionCache.install(tempDir, 0));
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        long size = 0;
+        for (Path file : FileUtils.findAllFiles(directory)) {
+            size += Files.size(file);
+        }
+        return size;
+    }
+}
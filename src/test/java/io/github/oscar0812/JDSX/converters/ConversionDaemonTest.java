@@ -0,0 +1,178 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionDaemonTest {
+
+    private Path tempDir;
+    private ConversionDaemon daemon;
+    private DaemonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("daemon-test");
+        daemon = ConversionDaemon.start(0, 2, 4);
+        client = new DaemonClient(daemon.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        daemon.close();
+    }
+
+    @Test
+    void testConvert() throws Exception {
+        Path jar = TestJars.writeJar(tempDir.resolve("app.jar"), "Served");
+        Path missing = tempDir.resolve("missing.jar");
+        Path outputDir = tempDir.resolve("out");
+
+        DaemonClient.Response response = client.convert(List.of(jar, missing), TargetFormat.JAVA, outputDir);
+
+        assertTrue(response.isOk());
+        assertEquals(1, response.getFailedCount());
+        assertTrue(response.getBody().contains("\"target\":\"JAVA\""));
+        assertTrue(response.getBody().contains("\"succeeded\":1"));
+        assertTrue(Files.readString(outputDir.resolve("app.jar/Served.java")).contains("class Served"));
+
+        String status = client.status().getBody();
+        assertTrue(status.contains("\"completed\":1"));
+        assertTrue(status.contains("\"maxConcurrent\":2"));
+    }
+
+    @Test
+    void testMetrics() throws Exception {
+        Path jar = TestJars.writeJar(tempDir.resolve("metered.jar"), "Metered");
+        assertTrue(client.convert(List.of(jar), TargetFormat.JAVA, tempDir.resolve("out")).isOk());
+
+        DaemonClient.Response metrics = client.metrics();
+        assertTrue(metrics.isOk());
+        assertTrue(metrics.getBody().contains("\"stage\":\"fernflower\""));
+
+        HttpResponse<String> prometheus = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + daemon.getPort() + "/metrics"))
+                        .header("Authorization", "Bearer " + Files.readString(daemon.getTokenFile()))
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, prometheus.statusCode());
+        assertTrue(prometheus.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+        assertTrue(prometheus.body().contains("jdsx_stage_runs_total{stage=\"fernflower\"}"));
+    }
+
+    @Test
+    void testConvert_InvalidTarget() throws Exception {
+        DaemonClient.Response response = client.convert(List.of(), TargetFormat.JAVA, tempDir);
+        assertTrue(response.isOk());
+
+        HttpCheck check = new HttpCheck(daemon);
+        assertEquals(400, check.post("/convert?target=ELF&output=" + tempDir));
+        assertEquals(400, check.post("/convert?target=JAVA"));
+        assertEquals(405, check.get("/convert?target=JAVA&output=" + tempDir));
+    }
+
+    @Test
+    void testRejectsUntrustedRequests() throws Exception {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        URI status = URI.create("http://127.0.0.1:" + daemon.getPort() + "/status");
+        String token = Files.readString(daemon.getTokenFile());
+
+        assertEquals(401, httpClient.send(HttpRequest.newBuilder(status).GET().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode());
+        assertEquals(401, httpClient.send(HttpRequest.newBuilder(status).header("Authorization", "Bearer wrong").GET().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode());
+        assertEquals(403, httpClient.send(HttpRequest.newBuilder(status).header("Authorization", "Bearer " + token)
+                .header("Origin", "https://example.com").GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        HttpCheck check = new HttpCheck(daemon);
+        assertEquals(415, check.post("/shutdown", "text/plain"));
+        assertEquals(415, check.post("/shutdown", "application/x-www-form-urlencoded; charset=utf-8"));
+        assertTrue(client.status().isOk());
+
+        if (daemon.getTokenFile().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(daemon.getTokenFile())));
+        }
+    }
+
+    @Test
+    void testIsLoopbackHost() {
+        assertTrue(ConversionDaemon.isLoopbackHost("127.0.0.1:7655"));
+        assertTrue(ConversionDaemon.isLoopbackHost("localhost:7655"));
+        assertTrue(ConversionDaemon.isLoopbackHost("[::1]:7655"));
+        assertFalse(ConversionDaemon.isLoopbackHost("attacker.example:7655"));
+        assertFalse(ConversionDaemon.isLoopbackHost("127.0.0.1.attacker.example"));
+        assertFalse(ConversionDaemon.isLoopbackHost(null));
+    }
+
+    @Test
+    void testShutdown() throws Exception {
+        assertTrue(client.shutdown().isOk());
+
+        Thread waiter = new Thread(() -> {
+            try {
+                daemon.awaitShutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        waiter.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(waiter.isAlive());
+        assertFalse(Files.exists(daemon.getTokenFile()));
+        assertThrows(IOException.class, () -> client.status());
+    }
+
+    @Test
+    void testStart_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> ConversionDaemon.start(-1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> ConversionDaemon.start(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> ConversionDaemon.start(0, 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> new DaemonClient(0));
+    }
+
+    /**
+     * Sends raw requests the client does not produce.
+     */
+    private static class HttpCheck {
+        private final HttpClient httpClient = HttpClient.newHttpClient();
+        private final String base;
+        private final String token;
+
+        HttpCheck(ConversionDaemon daemon) throws IOException {
+            this.base = "http://127.0.0.1:" + daemon.getPort();
+            this.token = Files.readString(daemon.getTokenFile());
+        }
+
+        int post(String path) throws IOException, InterruptedException {
+            return post(path, ConversionDaemon.CONTENT_TYPE);
+        }
+
+        int post(String path, String contentType) throws IOException, InterruptedException {
+            return send(HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Content-Type", contentType)
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+        }
+
+        int get(String path) throws IOException, InterruptedException {
+            return send(HttpRequest.newBuilder(URI.create(base + path)).GET());
+        }
+
+        private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            request.header("Authorization", "Bearer " + token);
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DexFilesTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("dex-files-test");
+    }
+
+    @Test
+    void testScan_OrdersByFileIndex() throws IOException {
+        for (String name : List.of("classes10.dex", "classes2.dex", "classes.dex", "other.dex", "classes.jar")) {
+            Files.write(tempDir.resolve(name), new byte[]{1});
+        }
+
+        DexFiles dexFiles = DexFiles.scan(tempDir);
+
+        assertEquals(List.of(tempDir.resolve("classes.dex"), tempDir.resolve("classes2.dex"), tempDir.resolve("classes10.dex")),
+                dexFiles.getPaths());
+        assertEquals(tempDir.resolve("classes.dex"), dexFiles.getPrimary());
+        assertEquals(3, dexFiles.size());
+        assertTrue(dexFiles.isMultiDex());
+    }
+
+    @Test
+    void testScan_MissingPrimaryDex() throws IOException {
+        Files.write(tempDir.resolve("classes2.dex"), new byte[]{1});
+
+        assertThrows(IOException.class, () -> DexFiles.scan(tempDir));
+    }
+
+    @Test
+    void testDeleteAll_KeepsOtherFiles() throws IOException {
+        Files.write(tempDir.resolve("classes.dex"), new byte[]{1});
+        Files.write(tempDir.resolve("classes2.dex"), new byte[]{1});
+        Files.write(tempDir.resolve("classes.jar"), new byte[]{1});
+
+        DexFiles.deleteAll(tempDir);
+
+        assertFalse(Files.exists(tempDir.resolve("classes.dex")));
+        assertFalse(Files.exists(tempDir.resolve("classes2.dex")));
+        assertTrue(Files.exists(tempDir.resolve("classes.jar")));
+    }
+}
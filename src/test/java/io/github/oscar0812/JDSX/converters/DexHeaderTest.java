@@ -0,0 +1,78 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DexHeaderTest {
+
+    private static final Path TEST_DEX = Paths.get("src/test/resources/files/test.dex");
+
+    @Test
+    void testRead_Counts() throws IOException {
+        DexHeader header = DexHeader.read(TEST_DEX);
+
+        assertEquals(35, header.getVersion());
+        assertEquals(Files.size(TEST_DEX), header.getFileSize());
+        assertEquals(0x70, header.getHeaderSize());
+        assertEquals(14, header.getStringIdsSize());
+        assertEquals(7, header.getTypeIdsSize());
+        assertEquals(3, header.getProtoIdsSize());
+        assertEquals(1, header.getFieldIdsSize());
+        assertEquals(4, header.getMethodIdsSize());
+        assertEquals(1, header.getClassDefsSize());
+        assertEquals(443, header.getDataSize());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "035, true",
+            "037, true",
+            "039, true",
+            "041, true",
+            "034, false",
+            "042, false",
+            "0a5, false"
+    })
+    void testParse_Versions(String version, boolean valid) throws IOException {
+        byte[] dexBytes = Files.readAllBytes(TEST_DEX);
+        System.arraycopy(version.getBytes(StandardCharsets.US_ASCII), 0, dexBytes, 4, 3);
+
+        if (valid) {
+            assertEquals(Integer.parseInt(version), DexHeader.parse(dexBytes).getVersion());
+        } else {
+            assertThrows(IllegalArgumentException.class, () -> DexHeader.parse(dexBytes));
+        }
+        assertEquals(valid, DexHeader.hasValidMagic(dexBytes));
+    }
+
+    @Test
+    void testParse_WrongEndianTag() throws IOException {
+        byte[] dexBytes = Files.readAllBytes(TEST_DEX);
+        dexBytes[0x28] = 0x12;
+
+        assertThrows(IllegalArgumentException.class, () -> DexHeader.parse(dexBytes));
+    }
+
+    @Test
+    void testRead_TooSmall() throws IOException {
+        Path dexFile = Files.createTempFile("dex-header-test", ".dex");
+        Files.write(dexFile, "dex\n035\0".getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(IllegalArgumentException.class, () -> DexHeader.read(dexFile));
+        assertFalse(Dex.isValidDexFile(dexFile));
+    }
+
+    @Test
+    void testRead_NullPath() {
+        assertThrows(IllegalArgumentException.class, () -> DexHeader.read(null));
+    }
+}
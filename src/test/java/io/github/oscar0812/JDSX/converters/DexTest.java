@@ -8,13 +8,18 @@ import org.junit.jupiter.params.provider.CsvSource;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -160,6 +165,160 @@ class DexTest {
         assertThrows(IllegalArgumentException.class, () -> Dex.convertDexToSmali(null));
     }
 
+    @Test
+    void testConvertDexBytesToSmali_ValidDex() throws IOException {
+        byte[] dexBytes = Files.readAllBytes(fileMap.get("test.dex"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Map<String, String> smaliClasses = Dex.convertDexBytesToSmali(dexBytes, executor);
+
+            assertFalse(smaliClasses.isEmpty());
+            smaliClasses.forEach((className, smali) -> {
+                assertFalse(className.startsWith("L"));
+                assertTrue(smali.startsWith(".class"));
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testConvertDexFiles_PoolSmallerThanDexFiles() throws IOException {
+        // two DEX files of two classes each, so both the file and the class level have more than one task
+        Map<String, String> sources = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+            sources.put("Multi" + i + ".java", "public class Multi" + i + " { int value() { return " + i + "; } }");
+        }
+        Map<String, byte[]> classes = Java.compileJavaToClassBytes(sources).getClasses();
+        Path dexDir = Files.createDirectories(tempDir.resolve("multi-dex"));
+        Files.write(dexDir.resolve("classes.dex"),
+                Class.convertClassBytesToDex(Map.of("Multi0", classes.get("Multi0"), "Multi1", classes.get("Multi1"))));
+        Files.write(dexDir.resolve("classes2.dex"),
+                Class.convertClassBytesToDex(Map.of("Multi2", classes.get("Multi2"), "Multi3", classes.get("Multi3"))));
+        DexFiles dexFiles = DexFiles.scan(dexDir);
+
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            Path smaliDir = assertTimeoutPreemptively(Duration.ofSeconds(60),
+                    () -> Dex.convertDexFilesToSmali(dexFiles, tempDir.resolve("smali-output"), executor));
+            Path javaDir = assertTimeoutPreemptively(Duration.ofSeconds(60),
+                    () -> Dex.convertDexFilesToJava(dexFiles, tempDir.resolve("java-output"), executor));
+
+            for (int i = 0; i < 4; i++) {
+                assertTrue(Files.exists(smaliDir.resolve("Multi" + i + ".smali")));
+                assertTrue(Files.exists(javaDir.resolve("Multi" + i + ".java")));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConvertDexBytesToClassBytes_MatchesFileOutput() throws IOException {
+        Path dexFile = fileMap.get("test.dex");
+        Path outputDir = Dex.convertDexToClasses(dexFile, tempDir.resolve("class-output"));
+
+        Map<String, byte[]> classes = Dex.convertDexBytesToClassBytes(Files.readAllBytes(dexFile));
+
+        assertFalse(classes.isEmpty());
+        assertEquals(classes.size(), FileUtils.findFilesByExtension(outputDir, ".class").size());
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            Path classFile = outputDir.resolve(entry.getKey() + ".class");
+            assertArrayEquals(Files.readAllBytes(classFile), entry.getValue(), entry.getKey());
+        }
+    }
+
+    @Test
+    void testConvertDexBytesToSmali_MatchesFileOutput() throws IOException {
+        Path dexFile = fileMap.get("test.dex");
+        Path outputDir = Dex.convertDexToSmali(dexFile, tempDir.resolve("smali-output"));
+
+        Map<String, String> smaliClasses = Dex.convertDexBytesToSmali(Files.readAllBytes(dexFile), Runnable::run);
+
+        assertEquals(smaliClasses.size(), FileUtils.findFilesByExtension(outputDir, ".smali").size());
+        for (Map.Entry<String, String> entry : smaliClasses.entrySet()) {
+            Path smaliFile = outputDir.resolve(entry.getKey() + ".smali");
+            assertEquals(entry.getValue(), Files.readString(smaliFile));
+        }
+    }
+
+    @Test
+    void testConvertDexBytesToSmali_NullExecutor() throws IOException {
+        byte[] dexBytes = Files.readAllBytes(fileMap.get("test.dex"));
+
+        assertThrows(IllegalArgumentException.class, () -> Dex.convertDexBytesToSmali(dexBytes, null));
+    }
+
+    @Test
+    void testConvertDexToClassBytes_ValidDex() throws IOException {
+        Path dexFile = fileMap.get("test.dex");
+
+        Map<String, byte[]> classes = Dex.convertDexToClassBytes(dexFile);
+
+        assertFalse(classes.isEmpty());
+        classes.forEach((className, bytes) -> {
+            assertFalse(className.endsWith(".class"));
+            assertEquals(0xCAFEBABE, ByteBuffer.wrap(bytes).getInt());
+        });
+        assertFalse(Files.exists(dexFile.resolveSibling("test.jar")));
+    }
+
+    @Test
+    void testConvertDexToClasses_ValidDex() throws IOException {
+        Path dexFile = fileMap.get("test.dex");
+
+        Path outputDir = Dex.convertDexToClasses(dexFile);
+
+        assertEquals(dexFile.resolveSibling("classes_out"), outputDir);
+        assertFalse(FileUtils.findFilesByExtension(outputDir, ".class").isEmpty());
+    }
+
+    @Test
+    void testConvertDexToSmaliIncremental_SecondRunKeepsOutputs() throws IOException {
+        Path dexFile = fileMap.get("test.dex");
+        Path outputDir = tempDir.resolve("smali_incremental");
+
+        IncrementalResult first = Dex.convertDexToSmaliIncremental(dexFile, outputDir);
+        Path smaliFile = outputDir.resolve(first.getAdded().iterator().next() + ".smali");
+        Files.delete(smaliFile);
+        IncrementalResult second = Dex.convertDexToSmaliIncremental(dexFile, outputDir);
+
+        assertFalse(first.getAdded().isEmpty());
+        assertEquals(1, second.getChanged().size());
+        assertEquals(first.getAdded().size() - 1, second.getUnchanged().size());
+        assertTrue(second.getAdded().isEmpty());
+        assertTrue(Files.exists(smaliFile));
+    }
+
+    @Test
+    void testConvertDexToSmaliIncremental_OnlyChangedClassDisassembled() throws IOException {
+        Path dexFile = tempDir.resolve("app.dex");
+        Path outputDir = tempDir.resolve("smali_delta");
+        Map<String, byte[]> classes = new HashMap<>(Java.compileJavaToClassBytes(Map.of(
+                "Kept.java", "public class Kept { int value() { return 1; } }",
+                "Edited.java", "public class Edited { int value() { return 1; } }")).getClasses());
+        Files.write(dexFile, Class.convertClassBytesToDex(classes));
+        Dex.convertDexToSmaliIncremental(dexFile, outputDir);
+
+        // an unchanged class is not disassembled again, so its file keeps whatever it holds
+        Files.writeString(outputDir.resolve("Kept.smali"), "untouched");
+        classes.putAll(Java.compileJavaToClassBytes(Map.of(
+                "Edited.java", "public class Edited { String value() { return \"edited\"; } }")).getClasses());
+        Files.write(dexFile, Class.convertClassBytesToDex(classes));
+        IncrementalResult second = Dex.convertDexToSmaliIncremental(dexFile, outputDir);
+
+        assertEquals(Set.of("Edited"), second.getChanged());
+        assertEquals(Set.of("Kept"), second.getUnchanged());
+        assertEquals("untouched", Files.readString(outputDir.resolve("Kept.smali")));
+        assertTrue(Files.readString(outputDir.resolve("Edited.smali")).contains("edited"));
+    }
+
+    @Test
+    void testConvertDexToClassBytes_NullDexFile() {
+        assertThrows(IllegalArgumentException.class, () -> Dex.convertDexToClassBytes((Path) null));
+    }
+
     private Map<String, Path> copyAllFilesToTemp() throws IOException {
         Path resourceDir = Paths.get("src/test/resources/files");
         Map<String, Path> fileMap = new HashMap<>();
@@ -0,0 +1,146 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JarIndexTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("jar-index-test");
+    }
+
+    @Test
+    void testOpen_MatchesJarFile() throws IOException {
+        Path jarPath = Paths.get("src/test/resources/files/test.jar");
+
+        JarIndex index = JarIndex.open(jarPath);
+
+        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
+            List<String> expectedNames = new ArrayList<>();
+            jarFile.stream().forEach(entry -> expectedNames.add(entry.getName()));
+            List<String> names = new ArrayList<>();
+            index.getEntries().forEach(entry -> names.add(entry.getName()));
+            Collections.sort(expectedNames);
+            Collections.sort(names);
+            assertEquals(expectedNames, names);
+
+            for (JarIndex.Entry entry : index.getEntries()) {
+                if (!entry.isDirectory()) {
+                    byte[] expected = jarFile.getInputStream(jarFile.getEntry(entry.getName())).readAllBytes();
+                    assertArrayEquals(expected, index.read(entry), entry.getName());
+                }
+            }
+        }
+        assertTrue(index.containsClasses());
+        assertFalse(index.getPackages().isEmpty());
+    }
+
+    @Test
+    void testRead_StoredEntry() throws IOException {
+        Path jarPath = tempDir.resolve("stored.jar");
+        byte[] content = "stored content".getBytes(StandardCharsets.UTF_8);
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarPath))) {
+            JarEntry entry = new JarEntry("com/example/stored.txt");
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCrc(crc.getValue());
+            jar.putNextEntry(entry);
+            jar.write(content);
+            jar.closeEntry();
+        }
+
+        JarIndex index = JarIndex.open(jarPath);
+        JarIndex.Entry entry = index.getEntry("com/example/stored.txt");
+
+        assertEquals(JarIndex.STORED, entry.getMethod());
+        assertArrayEquals(content, index.read(entry));
+        assertFalse(index.containsClasses());
+        assertNull(index.getEntry("missing.txt"));
+
+        Jar.extractJar(index, tempDir.resolve("out"), 1);
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve("out/com/example/stored.txt")));
+    }
+
+    @Test
+    void testRead_CorruptContent() throws IOException {
+        Path jarPath = tempDir.resolve("corrupt.jar");
+        byte[] content = "stored content".getBytes(StandardCharsets.UTF_8);
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarPath))) {
+            JarEntry entry = new JarEntry("stored.txt");
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCrc(crc.getValue());
+            jar.putNextEntry(entry);
+            jar.write(content);
+            jar.closeEntry();
+        }
+        byte[] jarBytes = Files.readAllBytes(jarPath);
+        String latin1 = new String(jarBytes, StandardCharsets.ISO_8859_1);
+        jarBytes[latin1.indexOf("stored content")] ^= 1;
+        Files.write(jarPath, jarBytes);
+
+        JarIndex index = JarIndex.open(jarPath);
+
+        ZipException e = assertThrows(ZipException.class, () -> index.read(index.getEntry("stored.txt")));
+        assertTrue(e.getMessage().contains("CRC"), e.getMessage());
+    }
+
+    @Test
+    void testOpen_Zip64() throws IOException {
+        Path jarPath = tempDir.resolve("zip64.jar");
+        int entryCount = 0x10000 + 10;
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarPath))) {
+            for (int i = 0; i < entryCount; i++) {
+                jar.putNextEntry(new JarEntry("p" + (i % 16) + "/C" + i + ".class"));
+                jar.write(i);
+                jar.closeEntry();
+            }
+        }
+
+        JarIndex index = JarIndex.open(jarPath);
+
+        assertEquals(entryCount, index.size());
+        assertEquals(16, index.getPackages().size());
+        JarIndex.Entry last = index.getEntry("p" + ((entryCount - 1) % 16) + "/C" + (entryCount - 1) + ".class");
+        assertArrayEquals(new byte[]{(byte) (entryCount - 1)}, index.read(last));
+    }
+
+    @Test
+    void testOpen_EmptyJar() {
+        assertThrows(ZipException.class, () -> JarIndex.open(Paths.get("src/test/resources/files/empty.jar")));
+    }
+
+    @Test
+    void testOpen_InvalidJar() {
+        assertThrows(ZipException.class, () -> JarIndex.open(Paths.get("src/test/resources/files/invalid.jar")));
+    }
+
+    @Test
+    void testOpen_NullPath() {
+        assertThrows(IllegalArgumentException.class, () -> JarIndex.open(null));
+    }
+}
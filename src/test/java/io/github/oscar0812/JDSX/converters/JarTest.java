@@ -14,9 +14,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
 import java.util.zip.ZipException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -99,6 +106,141 @@ class JarTest {
         assertThrows(IllegalArgumentException.class, () -> Jar.convertClassJarToJava(null));
     }
 
+    @Test
+    void testReadClasses_ValidJar() throws IOException {
+        Path jarFile = fileMap.get("test.jar");
+
+        Map<String, byte[]> classes = Jar.readClasses(jarFile);
+
+        assertFalse(classes.isEmpty());
+        assertTrue(classes.keySet().stream().noneMatch(name -> name.endsWith(".class")));
+    }
+
+    @Test
+    void testConvertClassJarToJava_NoIntermediateJar() throws IOException {
+        Path jarFile = fileMap.get("test.jar");
+
+        Jar.convertClassJarToJava(jarFile);
+
+        assertFalse(Files.exists(jarFile.resolveSibling("java_jar_out")));
+    }
+
+    @Test
+    void testConvertClassJarToJava_ParallelMatchesSequential() throws IOException {
+        Path jarFile = fileMap.get("test.jar");
+
+        Path sequentialDir = Jar.convertClassJarToJava(jarFile, 1);
+        Map<Path, String> sequential = readTree(sequentialDir);
+        FileUtils.deleteDirectory(sequentialDir);
+        Map<Path, String> parallel = readTree(Jar.convertClassJarToJava(jarFile, 4));
+
+        assertFalse(parallel.isEmpty());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void testConvertClassJarToJavaJar_ContainsSources() throws IOException {
+        Path jarFile = fileMap.get("test.jar");
+
+        Path javaJar = Jar.convertClassJarToJavaJar(jarFile, 2);
+
+        try (JarFile jar = new JarFile(javaJar.toFile())) {
+            assertTrue(jar.stream().anyMatch(entry -> entry.getName().endsWith(".java")));
+            assertTrue(jar.stream().noneMatch(entry -> entry.getName().endsWith(".class")));
+        }
+    }
+
+    @Test
+    void testConvertClassJarToJavaIncremental_OnlyDeltaConverted() throws IOException {
+        Path outputDir = tempDir.resolve("java_incremental");
+        Path jarFile = tempDir.resolve("app.jar");
+
+        TestJars.writeJar(jarFile, Java.compileJavaToClassBytes(Map.of(
+                "Kept.java", "public class Kept { }",
+                "Changed.java", "public class Changed { }",
+                "Removed.java", "public class Removed { }")).getClasses());
+        IncrementalResult first = Jar.convertClassJarToJavaIncremental(jarFile, outputDir);
+
+        TestJars.writeJar(jarFile, Java.compileJavaToClassBytes(Map.of(
+                "Kept.java", "public class Kept { }",
+                "Changed.java", "public class Changed { int value; }",
+                "Added.java", "public class Added { }")).getClasses());
+        IncrementalResult second = Jar.convertClassJarToJavaIncremental(jarFile, outputDir);
+
+        assertEquals(Set.of("Changed", "Kept", "Removed"), first.getAdded());
+        assertEquals(Set.of("Added"), second.getAdded());
+        assertEquals(Set.of("Changed"), second.getChanged());
+        assertEquals(Set.of("Removed"), second.getRemoved());
+        assertEquals(Set.of("Kept"), second.getUnchanged());
+        assertFalse(Files.exists(outputDir.resolve("Removed.java")));
+        assertTrue(Files.readString(outputDir.resolve("Changed.java")).contains("int value"));
+    }
+
+    @Test
+    void testConvertClassJarToJavaIncremental_HashCoversDecompiler() throws IOException {
+        Path outputDir = tempDir.resolve("java_incremental");
+        Path jarFile = tempDir.resolve("app.jar");
+        Map<String, byte[]> classes = Java.compileJavaToClassBytes("public class Kept { }").getClasses();
+        TestJars.writeJar(jarFile, classes);
+        Jar.convertClassJarToJavaIncremental(jarFile, outputDir);
+
+        // the hash of the class bytes alone, as recorded before the manifest covered the decompiler version
+        ConversionManifest manifest = ConversionManifest.load(outputDir);
+        manifest.put("Kept", ContentHash.of("", classes), List.of("Kept.java"));
+        manifest.save();
+        IncrementalResult second = Jar.convertClassJarToJavaIncremental(jarFile, outputDir);
+
+        assertEquals(Set.of("Kept"), second.getChanged());
+        assertTrue(Files.exists(outputDir.resolve("Kept.java")));
+    }
+
+    @Test
+    void testConvertClassJarToJava_Filtered() throws IOException {
+        Path jarFile = tempDir.resolve("filtered.jar");
+        TestJars.writeJar(jarFile, Java.compileJavaToClassBytes(Map.of(
+                "com/target/Kept.java", "package com.target; public class Kept { class Inner { } }",
+                "com/target/generated/Dropped.java", "package com.target.generated; public class Dropped { }",
+                "com/other/Other.java", "package com.other; public class Other { }")).getClasses());
+
+        ClassFilter filter = ClassFilter.include("com.target").exclude("com.target.generated");
+        assertEquals(Set.of("com/target/Kept", "com/target/Kept$Inner"),
+                Jar.readClasses(JarIndex.open(jarFile), filter).keySet());
+
+        Path outputDir = Jar.convertClassJarToJava(jarFile, filter);
+        assertEquals(Set.of(Path.of("com/target/Kept.java")), readAllFiles(outputDir).keySet());
+
+        Path otherJarFile = Files.createDirectories(tempDir.resolve("other")).resolve("filtered.jar");
+        Files.copy(jarFile, otherJarFile);
+        Path emptyDir = Jar.convertClassJarToJava(otherJarFile, ClassFilter.include("com.missing"));
+        assertTrue(readAllFiles(emptyDir).isEmpty());
+    }
+
+    @Test
+    void testExtractJar_ParallelMatchesSequential() throws IOException {
+        Path jarFile = fileMap.get("nested_dirs_test.jar");
+
+        ExtractionReport sequential = Jar.extractJar(jarFile, tempDir.resolve("sequential"), 1);
+        ExtractionReport parallel = Jar.extractJar(jarFile, tempDir.resolve("parallel"), 4);
+
+        assertTrue(parallel.getFileCount() > 0);
+        assertEquals(sequential.getFileCount(), parallel.getFileCount());
+        assertEquals(sequential.getUncompressedBytes(), parallel.getUncompressedBytes());
+        assertEquals(readAllFiles(sequential.getDestinationDirectory()), readAllFiles(parallel.getDestinationDirectory()));
+    }
+
+    @Test
+    void testExtractJar_PathTraversal() throws IOException {
+        Path jarFile = tempDir.resolve("traversal.jar");
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            jar.putNextEntry(new JarEntry("safe/../../evil.txt"));
+            jar.write(1);
+            jar.closeEntry();
+        }
+
+        assertThrows(SecurityException.class, () -> Jar.extractJar(jarFile, tempDir.resolve("traversal"), 2));
+        assertFalse(Files.exists(tempDir.resolve("evil.txt")));
+    }
+
     @Test
     void testExtractJar_JarWithNestedDirectories() throws IOException {
         Path jarFile = fileMap.get("nested_dirs_test.jar");
@@ -148,4 +290,20 @@ class JarTest {
 
         return fileMap;
     }
+
+    private static Map<Path, String> readTree(Path dir) throws IOException {
+        Map<Path, String> files = new TreeMap<>();
+        for (Path file : FileUtils.findFilesByExtension(dir, ".java")) {
+            files.put(dir.relativize(file), Files.readString(file));
+        }
+        return files;
+    }
+
+    private static Map<Path, String> readAllFiles(Path dir) throws IOException {
+        Map<Path, String> files = new TreeMap<>();
+        for (Path file : FileUtils.findAllFiles(dir)) {
+            files.put(dir.relativize(file), Arrays.toString(Files.readAllBytes(file)));
+        }
+        return files;
+    }
 }
@@ -3,10 +3,13 @@ package io.github.oscar0812.JDSX.converters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -311,6 +314,53 @@ public class JavaTest {
         });
     }
 
+    @Test
+    public void testCompileJavaToClassBytes_Success() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes("""
+                package com.example.demo;
+
+                public class Outer {
+                    class Inner {
+                    }
+                }""");
+
+        assertTrue(result.isSuccess());
+        assertEquals(Set.of("com/example/demo/Outer", "com/example/demo/Outer$Inner"), result.getClasses().keySet());
+    }
+
+    @Test
+    public void testCompileJavaToClassBytes_InvalidJavaCode() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes("public class InvalidSyntax { void run( }");
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getClasses().isEmpty());
+
+        Diagnostic<? extends JavaFileObject> diagnostic = result.getDiagnostics().get(0);
+        assertEquals(Diagnostic.Kind.ERROR, diagnostic.getKind());
+        assertEquals(1, diagnostic.getLineNumber());
+    }
+
+    @Test
+    public void testCompileJavaToClassBytes_ApplicationClassesNotOnClassPath() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes("""
+                public class UsesTool {
+                    Object tool = io.github.oscar0812.JDSX.converters.Java.class;
+                }""");
+
+        assertFalse(result.isSuccess());
+    }
+
+    @Test
+    public void testCompileJavaToClass_InvalidJavaCode_Diagnostics() throws IOException {
+        Path invalidJavaFile = tempDir.resolve("InvalidSyntax.java");
+        Files.write(invalidJavaFile, "public class InvalidSyntax { ".getBytes());
+
+        CompilationException exception = assertThrows(CompilationException.class, () -> {
+            Java.compileJavaToClass(invalidJavaFile, tempDir);
+        });
+        assertFalse(exception.getDiagnostics().isEmpty());
+    }
+
     @Test
     public void testConvertJavaToSmali_NullCode() {
         assertThrows(IllegalArgumentException.class, () -> {
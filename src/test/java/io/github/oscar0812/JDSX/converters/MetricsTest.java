@@ -0,0 +1,149 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    private Path tempDir;
+    private final List<StageEvent> started = new CopyOnWriteArrayList<>();
+    private final List<StageEvent> finished = new CopyOnWriteArrayList<>();
+    private final ConversionListener listener = new ConversionListener() {
+        @Override
+        public void stageStarted(StageEvent event) {
+            started.add(event);
+        }
+
+        @Override
+        public void stageFinished(StageEvent event) {
+            finished.add(event);
+        }
+    };
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("metrics-test");
+        Metrics.getRegistry().reset();
+        Metrics.addListener(listener);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeListener(listener);
+    }
+
+    @Test
+    void testListener_WriteStage() throws IOException {
+        FileUtils.writeFiles(tempDir, Map.of("a/One", "one", "Two", "two!"), ".txt");
+
+        assertEquals(1, started.size());
+        assertEquals(Metrics.WRITE, started.get(0).getStage());
+        assertFalse(started.get(0).isFinished());
+
+        assertEquals(1, finished.size());
+        StageEvent event = finished.get(0);
+        assertTrue(event.isFinished());
+        assertTrue(event.isSuccess());
+        assertEquals(2, event.getFilesWritten());
+        assertEquals(7, event.getBytesOut());
+        assertTrue(event.getElapsedNanos() >= 0);
+        assertFalse(event.getEndTime().isBefore(event.getStartTime()));
+    }
+
+    @Test
+    void testRegistry_CompileAndDecompile() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes("public class Metered { int value() { return 42; } }");
+        Class.convertClassBytesToJava(result.getClasses());
+
+        List<String> stages = finished.stream().map(StageEvent::getStage).collect(Collectors.toList());
+        assertEquals(List.of(Metrics.JAVAC, Metrics.FERNFLOWER), stages);
+
+        MetricsRegistry.StageMetrics javac = Metrics.getRegistry().getStages().get(Metrics.JAVAC);
+        assertEquals(1, javac.getRuns());
+        assertEquals(0, javac.getFailures());
+        assertEquals(1, javac.getClasses());
+        assertTrue(javac.getBytesOut() > 0);
+
+        MetricsRegistry.StageMetrics fernflower = Metrics.getRegistry().getStages().get(Metrics.FERNFLOWER);
+        assertEquals(1, fernflower.getRuns());
+        assertEquals(javac.getBytesOut(), fernflower.getBytesIn());
+        assertEquals(0, fernflower.getActive());
+    }
+
+    @Test
+    void testRegistry_CompileCountsUtf8Bytes() throws IOException {
+        String source = "public class Greeting { String text() { return \"h\u00e9llo\"; } }";
+        Java.compileJavaToClassBytes(source);
+
+        assertEquals(source.length() + 1, finished.get(0).getBytesIn());
+    }
+
+    @Test
+    void testRegistry_Failure() throws IOException {
+        CompilationResult result = Java.compileJavaToClassBytes("public class Broken { int value() { return } }");
+
+        assertFalse(result.isSuccess());
+        assertFalse(finished.get(0).isSuccess());
+        assertTrue(finished.get(0).getFailure() instanceof CompilationException);
+        assertEquals(1, Metrics.getRegistry().getStages().get(Metrics.JAVAC).getFailures());
+    }
+
+    @Test
+    void testRecording_TimedInParts() throws InterruptedException {
+        Metrics.Recording recording = Metrics.start(Metrics.WRITE, 0);
+        recording.partNanos(1_000).partNanos(2_000);
+        Thread.sleep(5);
+        recording.finish();
+
+        assertEquals(3_000, finished.get(0).getElapsedNanos());
+    }
+
+    @Test
+    void testExport() throws IOException {
+        FileUtils.writeFiles(tempDir, Map.of("Exported", "text"), ".txt");
+
+        String json = Metrics.getRegistry().toJson();
+        assertTrue(json.contains("\"stage\":\"write\""));
+        assertTrue(json.contains("\"filesWritten\":1"));
+
+        String prometheus = Metrics.getRegistry().toPrometheus();
+        assertTrue(prometheus.contains("# TYPE jdsx_stage_runs_total counter"));
+        assertTrue(prometheus.contains("jdsx_stage_runs_total{stage=\"write\"} 1"));
+        assertTrue(prometheus.contains("jdsx_stage_files_written_total{stage=\"write\"} 1"));
+    }
+
+    @Test
+    void testBrokenListener() throws IOException {
+        ConversionListener broken = new ConversionListener() {
+            @Override
+            public void stageFinished(StageEvent event) {
+                throw new IllegalStateException("broken");
+            }
+        };
+        Metrics.addListener(broken);
+        try {
+            FileUtils.writeFiles(tempDir, Map.of("Survives", "text"), ".txt");
+        } finally {
+            Metrics.removeListener(broken);
+        }
+
+        assertTrue(Files.exists(tempDir.resolve("Survives.txt")));
+        assertEquals(1, finished.size());
+    }
+
+    @Test
+    void testAddListener_Null() {
+        assertThrows(IllegalArgumentException.class, () -> Metrics.addListener(null));
+    }
+}
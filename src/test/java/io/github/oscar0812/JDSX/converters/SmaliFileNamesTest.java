@@ -0,0 +1,62 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmaliFileNamesTest {
+
+    @Test
+    void testGetFileName_PlainClass() {
+        SmaliFileNames fileNames = new SmaliFileNames();
+
+        assertEquals("com/example/Foo.smali", fileNames.getFileName("com/example/Foo"));
+        assertEquals("com/example/Foo$Inner.smali", fileNames.getFileName("com/example/Foo$Inner"));
+    }
+
+    @Test
+    void testRegister_CaseOnlyDifferences() {
+        SmaliFileNames fileNames = new SmaliFileNames();
+        fileNames.register(List.of("a/Foo", "a/foo", "A/Bar", "a/Bar"));
+
+        assertEquals("a/Foo.smali", fileNames.getFileName("a/Foo"));
+        assertEquals("a/foo.1.smali", fileNames.getFileName("a/foo"));
+        assertEquals("A.1/Bar.smali", fileNames.getFileName("A/Bar"));
+        assertEquals("a/Bar.smali", fileNames.getFileName("a/Bar"));
+    }
+
+    @Test
+    void testGetFileName_LongName() {
+        String longName = "a/" + "VeryLong".repeat(40);
+        String fileName = new SmaliFileNames().getFileName(longName);
+
+        String name = fileName.substring("a/".length());
+        assertTrue(name.getBytes(StandardCharsets.UTF_8).length <= 255, name);
+        assertTrue(name.endsWith(".smali"));
+        assertNotEquals(new SmaliFileNames().getFileName(longName + "X"), fileName);
+    }
+
+    @Test
+    void testGetFileName_InvalidAndReservedNames() {
+        SmaliFileNames fileNames = new SmaliFileNames();
+
+        assertEquals("a/b_c.smali", fileNames.getFileName("a/b:c"));
+        assertEquals("_con/_aux.smali", fileNames.getFileName("con/aux"));
+    }
+
+    @Test
+    void testResolve_StaysInsideOutputDir() {
+        Path outputDir = Paths.get("out").toAbsolutePath();
+        SmaliFileNames fileNames = new SmaliFileNames();
+
+        Path path = fileNames.resolve(outputDir, "../../etc/Evil");
+
+        assertTrue(path.startsWith(outputDir));
+        assertEquals(outputDir.resolve("_.._/_.._/etc/Evil.smali"), path);
+    }
+}
@@ -7,7 +7,12 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -137,6 +142,39 @@ public class SmaliTest {
         assertTrue(dexPath.toString().endsWith(".dex"));
     }
 
+    @Test
+    public void testAssembleSmaliToDex_MultipleSources() {
+        Map<String, String> smaliSources = new LinkedHashMap<>();
+        smaliSources.put("TestClass.smali", smaliCode);
+        smaliSources.put("Other.smali", ".class public Lcom/example/Other;\n.super Ljava/lang/Object;");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            byte[] dexBytes = Smali.assembleSmaliToDex(smaliSources, executor);
+            assertEquals("dex\n", new String(dexBytes, 0, 4));
+
+            Map<String, String> smaliClasses = Dex.convertDexBytesToSmali(dexBytes, executor);
+            assertEquals(Set.of("TestClass", "com/example/Other"), smaliClasses.keySet());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAssembleSmaliFilesToDex_Directory() throws IOException {
+        Files.copy(smaliFile, tempDir.resolve("TestClass.smali"));
+
+        byte[] dexBytes = Smali.assembleSmaliFilesToDex(List.of(tempDir), Runnable::run);
+        assertEquals("dex\n", new String(dexBytes, 0, 4));
+    }
+
+    @Test
+    public void testAssembleSmaliToDex_EmptySources() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            Smali.assembleSmaliToDex(Map.of(), Runnable::run);
+        });
+    }
+
     @Test
     public void testConvertSmaliToClassJar_Success() throws IOException {
         Path jarPath = tempDir.resolve("output.jar");
@@ -0,0 +1,44 @@
+package io.github.oscar0812.JDSX.converters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Writes JAR files of freshly compiled classes for the tests.
+ */
+public final class TestJars {
+
+    private TestJars() {
+    }
+
+    /**
+     * Compiles an empty public class and writes it into a new JAR file, creating the parent directories.
+     *
+     * @return {@code jarPath}
+     */
+    public static Path writeJar(Path jarPath, String className) throws IOException {
+        return writeJar(jarPath, Java.compileJavaToClassBytes("public class " + className + " { }").getClasses());
+    }
+
+    /**
+     * Writes `.class` bytes into a new JAR file, creating the parent directories.
+     *
+     * @param classes the `.class` bytes keyed by internal class name (e.g. {@code com/example/Foo})
+     * @return {@code jarPath}
+     */
+    public static Path writeJar(Path jarPath, Map<String, byte[]> classes) throws IOException {
+        Files.createDirectories(jarPath.toAbsolutePath().getParent());
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarPath))) {
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                jar.putNextEntry(new JarEntry(entry.getKey() + ".class"));
+                jar.write(entry.getValue());
+                jar.closeEntry();
+            }
+        }
+        return jarPath;
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.oscar0812.JDSX.converters;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmUpTest {
+
+    @Test
+    void testRun_ReportsEveryStage() {
+        WarmUpReport report = WarmUp.run(2);
+
+        assertEquals(2, report.getIterations());
+        assertEquals(List.of(WarmUp.COMPILE, WarmUp.D8, WarmUp.BAKSMALI, WarmUp.SMALI, WarmUp.DEX2JAR, WarmUp.FERNFLOWER),
+                report.getStages().stream().map(WarmUpReport.Stage::getName).collect(Collectors.toList()));
+
+        WarmUpReport.Stage compile = report.getStages().get(0);
+        assertTrue(compile.isSuccess());
+        assertEquals(2, compile.getRuns());
+        assertTrue(compile.getFirstNanos() > 0);
+        assertTrue(compile.getLastNanos() > 0);
+
+        // Fernflower decompiles the javac output and does not depend on the Android stages
+        assertTrue(report.getStages().get(5).isSuccess());
+        assertTrue(report.getElapsedNanos() >= compile.getFirstNanos());
+    }
+
+    @Test
+    void testRun_NotRecordedInRegistry() throws IOException {
+        Metrics.getRegistry().reset();
+        WarmUp.run();
+
+        assertTrue(Metrics.getRegistry().getStages().isEmpty());
+
+        Java.compileJavaToClassBytes("public class AfterWarmUp { }");
+        assertEquals(1, Metrics.getRegistry().getStages().get(Metrics.JAVAC).getRuns());
+    }
+
+    @Test
+    void testRunInBackground() throws Exception {
+        WarmUpReport report = WarmUp.runInBackground().get(2, TimeUnit.MINUTES);
+
+        assertEquals(1, report.getIterations());
+        String json = report.toJson();
+        assertTrue(json.startsWith("{\"iterations\":1,"));
+        assertTrue(json.contains("\"name\":\"fernflower\""));
+    }
+
+    @Test
+    void testRun_InvalidIterations() {
+        assertThrows(IllegalArgumentException.class, () -> WarmUp.run(0));
+        assertThrows(IllegalArgumentException.class, () -> WarmUp.runInBackground(0));
+    }
+}